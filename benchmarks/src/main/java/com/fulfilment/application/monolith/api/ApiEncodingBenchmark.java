@@ -0,0 +1,85 @@
+package com.fulfilment.application.monolith.api;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fulfilment.application.monolith.benchmarks.Datasets;
+import com.google.protobuf.CodedOutputStream;
+import com.warehouse.api.beans.Warehouse;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The warehouse list response in each encoding the API offers: the time to encode it, and its
+ * size, printed once per trial (the {@code bytes} line in the benchmark output). Encoders are
+ * the ones the message body writers use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ApiEncodingBenchmark {
+
+  private static final TypeReference<List<Warehouse>> LIST = new TypeReference<>() {};
+
+  @Param({"1000", "100000"})
+  int size;
+
+  private List<Warehouse> warehouses;
+  private ObjectWriter json;
+  private ObjectWriter cbor;
+
+  @Setup
+  public void setUp() throws Exception {
+    warehouses = new ArrayList<>(size);
+    for (var warehouse : Datasets.warehouses(size)) {
+      Warehouse bean = new Warehouse();
+      bean.setId(warehouse.businessUnitCode);
+      bean.setBusinessUnitCode(warehouse.businessUnitCode);
+      bean.setLocation(warehouse.location);
+      bean.setCapacity(warehouse.capacity);
+      bean.setStock(warehouse.stock);
+      warehouses.add(bean);
+    }
+    json = new ObjectMapper().findAndRegisterModules().writerFor(LIST);
+    cbor = CborMessageBodyWriter.MAPPER.writerFor(LIST);
+
+    System.out.printf(
+        "%nbytes for %d warehouses: json=%d cbor=%d protobuf=%d%n",
+        size, json().length, cbor().length, protobuf().length);
+  }
+
+  @Benchmark
+  public byte[] json() throws Exception {
+    return json.writeValueAsBytes(warehouses);
+  }
+
+  @Benchmark
+  public byte[] cbor() throws Exception {
+    return cbor.writeValueAsBytes(warehouses);
+  }
+
+  @Benchmark
+  public byte[] protobuf() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * size);
+    CodedOutputStream out = CodedOutputStream.newInstance(bytes, 8192);
+    ProtobufEncoding.writeList(ProtobufEncoding.WAREHOUSE, warehouses, out);
+    out.flush();
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,99 @@
+package com.fulfilment.application.monolith.api;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fulfilment.application.monolith.benchmarks.Datasets;
+import com.warehouse.api.beans.Warehouse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jackson (de)serialization of the generated warehouse API beans, configured like the Quarkus
+ * mapper: modules discovered from the classpath, writers and readers created once. The list
+ * response is parameterized by size, single beans are not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ApiSerializationBenchmark {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+  @State(Scope.Benchmark)
+  public static class ListResponse {
+
+    // a full list response; the 1M case is what an unpaginated listing would cost
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    ObjectWriter writer;
+    List<Warehouse> warehouses;
+
+    @Setup
+    public void setUp() {
+      writer = MAPPER.writerFor(new TypeReference<List<Warehouse>>() {});
+      warehouses = new ArrayList<>(size);
+      for (var warehouse : Datasets.warehouses(size)) {
+        warehouses.add(toBean(warehouse));
+      }
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class SingleWarehouse {
+
+    ObjectWriter writer;
+    ObjectReader reader;
+    Warehouse warehouse;
+    byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+      writer = MAPPER.writerFor(Warehouse.class);
+      reader = MAPPER.readerFor(Warehouse.class);
+      warehouse = toBean(Datasets.warehouses(1).get(0));
+      json = writer.writeValueAsBytes(warehouse);
+    }
+  }
+
+  @Benchmark
+  public byte[] serializeList(ListResponse state) throws Exception {
+    return state.writer.writeValueAsBytes(state.warehouses);
+  }
+
+  @Benchmark
+  public byte[] serializeSingle(SingleWarehouse state) throws Exception {
+    return state.writer.writeValueAsBytes(state.warehouse);
+  }
+
+  @Benchmark
+  public Warehouse deserializeSingle(SingleWarehouse state) throws Exception {
+    return state.reader.readValue(state.json);
+  }
+
+  private static Warehouse toBean(
+      com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
+    Warehouse bean = new Warehouse();
+    bean.setBusinessUnitCode(warehouse.businessUnitCode);
+    bean.setLocation(warehouse.location);
+    bean.setCapacity(warehouse.capacity);
+    bean.setStock(warehouse.stock);
+    return bean;
+  }
+}
@@ -0,0 +1,67 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/** Deterministic in-memory data sets shared by the benchmarks. */
+public final class Datasets {
+
+  public static final long SEED = 42L;
+
+  /** Location kept empty by {@link #warehouses} so creations into it always pass validation. */
+  public static final String FREE_LOCATION = "BENCH-FREE";
+
+  private Datasets() {}
+
+  public static String locationId(int index) {
+    return String.format("CITY-%04d", index);
+  }
+
+  public static String businessUnitCode(int index) {
+    return String.format("MWH.%07d", index);
+  }
+
+  public static int locationCount(int warehouses) {
+    // roughly ten active warehouses per location, like a mid-sized city
+    return Math.max(1, warehouses / 10);
+  }
+
+  /**
+   * Locations for {@code warehouses} active units; limits are generous so replacements and
+   * creations are only bounded by the work the use cases do, not by a rejection.
+   */
+  public static Map<String, Location> locations(int warehouses) {
+    int count = locationCount(warehouses);
+    Map<String, Location> locations = new HashMap<>(count * 2);
+    for (int i = 0; i < count; i++) {
+      String id = locationId(i);
+      locations.put(id, new Location(id, Integer.MAX_VALUE, Integer.MAX_VALUE / 2));
+    }
+    locations.put(FREE_LOCATION, new Location(FREE_LOCATION, 10, 10_000));
+    return locations;
+  }
+
+  public static List<Warehouse> warehouses(int size) {
+    SplittableRandom random = new SplittableRandom(SEED);
+    int locations = locationCount(size);
+    LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+    List<Warehouse> warehouses = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Warehouse warehouse = new Warehouse();
+      warehouse.businessUnitCode = businessUnitCode(i);
+      warehouse.location = locationId(random.nextInt(locations));
+      warehouse.capacity = 50 + random.nextInt(200);
+      warehouse.stock = random.nextInt(warehouse.capacity);
+      warehouse.createdAt = createdAt.plusMinutes(i);
+      warehouse.version = 0L;
+      warehouses.add(warehouse);
+    }
+    return warehouses;
+  }
+}
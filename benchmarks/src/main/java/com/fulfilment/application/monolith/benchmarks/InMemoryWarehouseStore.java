@@ -0,0 +1,72 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-content {@link WarehouseStore}: writes are only counted, so every benchmark iteration
+ * runs against the same data set and the numbers stay comparable across iterations.
+ */
+public final class InMemoryWarehouseStore implements WarehouseStore {
+
+  private final List<Warehouse> active;
+  private final Map<String, Warehouse> byCode;
+
+  public long writes;
+
+  public InMemoryWarehouseStore(List<Warehouse> active) {
+    this.active = Collections.unmodifiableList(active);
+    this.byCode = new HashMap<>(active.size() * 2);
+    for (Warehouse warehouse : active) {
+      byCode.put(warehouse.businessUnitCode, warehouse);
+    }
+  }
+
+  @Override
+  public List<Warehouse> getAll() {
+    return active;
+  }
+
+  @Override
+  public void create(Warehouse warehouse) {
+    writes++;
+  }
+
+  @Override
+  public void update(Warehouse warehouse) {
+    writes++;
+  }
+
+  @Override
+  public void remove(Warehouse warehouse) {
+    writes++;
+  }
+
+  @Override
+  public Warehouse findByBusinessUnitCode(String buCode) {
+    // the database adapter maps a fresh domain object per lookup, so do the same here
+    Warehouse stored = byCode.get(buCode);
+    return stored == null ? null : copy(stored);
+  }
+
+  @Override
+  public Warehouse findAnyByBusinessUnitCode(String buCode) {
+    return findByBusinessUnitCode(buCode);
+  }
+
+  private static Warehouse copy(Warehouse source) {
+    Warehouse copy = new Warehouse();
+    copy.businessUnitCode = source.businessUnitCode;
+    copy.location = source.location;
+    copy.capacity = source.capacity;
+    copy.stock = source.stock;
+    copy.createdAt = source.createdAt;
+    copy.archivedAt = source.archivedAt;
+    copy.version = source.version;
+    return copy;
+  }
+}
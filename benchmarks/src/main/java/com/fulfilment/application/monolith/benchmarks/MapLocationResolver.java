@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import java.util.Map;
+
+public final class MapLocationResolver implements LocationResolver {
+
+  private final Map<String, Location> locations;
+
+  public MapLocationResolver(Map<String, Location> locations) {
+    this.locations = locations;
+  }
+
+  @Override
+  public Location resolveByIdentifier(String identifier) {
+    return identifier == null ? null : locations.get(identifier.trim());
+  }
+}
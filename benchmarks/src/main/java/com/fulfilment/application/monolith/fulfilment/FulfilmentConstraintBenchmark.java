@@ -0,0 +1,121 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The constraint checks run by {@link FulfilmentAssignmentService#assign} on every assignment,
+ * with the repository queries answered from in-memory indexes holding {@code size} assignments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FulfilmentConstraintBenchmark {
+
+    // each store is served by 2 warehouses with 5 products each, the densest layout the rules allow
+    private static final int PRODUCTS_PER_WAREHOUSE = 5;
+    private static final int ASSIGNMENTS_PER_STORE = 2 * PRODUCTS_PER_WAREHOUSE;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    private FulfilmentAssignmentService service;
+    private long storeId;
+
+    @Setup
+    public void setUp() {
+        InMemoryAssignments assignments = new InMemoryAssignments();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        int stores = Math.max(1, size / ASSIGNMENTS_PER_STORE);
+        for (long store = 0; store < stores; store++) {
+            for (long warehouse = store * 3; warehouse < store * 3 + 2; warehouse++) {
+                for (long product = 0; product < PRODUCTS_PER_WAREHOUSE; product++) {
+                    assignments.add(new FulfilmentAssignment(store, product, warehouse, createdAt));
+                }
+            }
+        }
+
+        service = new FulfilmentAssignmentService();
+        service.repo = assignments;
+        storeId = stores / 2;
+    }
+
+    @Benchmark
+    public void checkConstraints() {
+        // third warehouse for the store with a product it does not carry yet: every check passes
+        service.checkConstraints(storeId, (long) PRODUCTS_PER_WAREHOUSE, storeId * 3 + 2);
+    }
+
+    /** Answers the repository queries the way the database would, from per-store/warehouse indexes. */
+    static final class InMemoryAssignments extends FulfilmentAssignmentRepository {
+
+        private final Map<Long, List<FulfilmentAssignment>> byStore = new HashMap<>();
+        private final Map<Long, List<FulfilmentAssignment>> byWarehouse = new HashMap<>();
+
+        void add(FulfilmentAssignment assignment) {
+            byStore.computeIfAbsent(assignment.storeId, k -> new ArrayList<>()).add(assignment);
+            byWarehouse.computeIfAbsent(assignment.warehouseId, k -> new ArrayList<>()).add(assignment);
+        }
+
+        @Override
+        public boolean existsAssignment(Long storeId, Long productId, Long warehouseId) {
+            return forStore(storeId).stream()
+                    .anyMatch(a -> a.productId.equals(productId) && a.warehouseId.equals(warehouseId));
+        }
+
+        @Override
+        public long countDistinctWarehousesForStoreProduct(Long storeId, Long productId) {
+            return forStore(storeId).stream()
+                    .filter(a -> a.productId.equals(productId))
+                    .map(a -> a.warehouseId)
+                    .distinct()
+                    .count();
+        }
+
+        @Override
+        public long countDistinctWarehousesForStore(Long storeId) {
+            return forStore(storeId).stream().map(a -> a.warehouseId).distinct().count();
+        }
+
+        @Override
+        public long countDistinctProductsForWarehouse(Long warehouseId) {
+            return forWarehouse(warehouseId).stream().map(a -> a.productId).distinct().count();
+        }
+
+        @Override
+        public boolean isWarehouseAlreadyUsedByStore(Long storeId, Long warehouseId) {
+            return forStore(storeId).stream().anyMatch(a -> a.warehouseId.equals(warehouseId));
+        }
+
+        @Override
+        public boolean isProductAlreadyUsedByWarehouse(Long warehouseId, Long productId) {
+            return forWarehouse(warehouseId).stream().anyMatch(a -> a.productId.equals(productId));
+        }
+
+        private List<FulfilmentAssignment> forStore(Long storeId) {
+            return byStore.getOrDefault(storeId, List.of());
+        }
+
+        private List<FulfilmentAssignment> forWarehouse(Long warehouseId) {
+            return byWarehouse.getOrDefault(warehouseId, List.of());
+        }
+    }
+}
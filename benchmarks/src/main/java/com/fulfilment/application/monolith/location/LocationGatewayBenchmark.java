@@ -0,0 +1,40 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LocationGatewayBenchmark {
+
+  // first and last entries of the catalogue, a miss, and input that needs trimming
+  @Param({"ZWOLLE-001", "VETSBY-001", "UNKNOWN-001", "  EINDHOVEN-001  "})
+  String identifier;
+
+  private LocationGateway gateway;
+
+  @Setup
+  public void setUp() {
+    gateway = new LocationGateway();
+  }
+
+  @Benchmark
+  public Location resolveByIdentifier() {
+    return gateway.resolveByIdentifier(identifier);
+  }
+}
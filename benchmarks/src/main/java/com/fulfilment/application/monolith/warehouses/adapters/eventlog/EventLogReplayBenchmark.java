@@ -0,0 +1,107 @@
+package com.fulfilment.application.monolith.warehouses.adapters.eventlog;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent.Type;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Rebuilding a projection from a log of {@code events} lifecycle events over 10,000 business
+ * units: from the first record when {@code snapshotEvery} exceeds the log, from the latest
+ * snapshot plus the tail otherwise. Lives in the adapter package to reach the log internals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class EventLogReplayBenchmark {
+
+  private static final int BUSINESS_UNITS = 10_000;
+
+  @Param({"1000000"})
+  int events;
+
+  @Param({"2000000", "100000"})
+  long snapshotEvery;
+
+  private Path directory;
+  private FileWarehouseEventLog log;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("event-log-benchmark");
+    log = open();
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+    for (int i = 0; i < events; i++) {
+      String code = "MWH." + (i % BUSINESS_UNITS);
+      Type type = i < BUSINESS_UNITS ? Type.CREATED : Type.REPLACED;
+      log.write(new WarehouseEvent(type, code, "ZWOLLE-001", 40, i % 40, start.plusSeconds(i)));
+    }
+    // lets the snapshot writer finish before measuring
+    close();
+    log = open();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public long subscribe(Blackhole blackhole) {
+    FileWarehouseEventLog.Projection projection = (sequence, event) -> blackhole.consume(event);
+    long last = log.subscribe(projection);
+    log.unsubscribe(projection);
+    return last;
+  }
+
+  private FileWarehouseEventLog open() {
+    FileWarehouseEventLog opened =
+        new FileWarehouseEventLog() {
+          @Override
+          List<Warehouse> activeWarehouses() {
+            return List.of();
+          }
+        };
+    opened.directory = directory;
+    opened.snapshotEvery = snapshotEvery;
+    opened.open();
+    return opened;
+  }
+
+  private void close() {
+    try {
+      log.close();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
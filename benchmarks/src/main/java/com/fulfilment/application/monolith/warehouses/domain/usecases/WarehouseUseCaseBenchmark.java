@@ -0,0 +1,90 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.benchmarks.Datasets;
+import com.fulfilment.application.monolith.benchmarks.InMemoryWarehouseStore;
+import com.fulfilment.application.monolith.benchmarks.MapLocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Create/replace use cases and the location aggregations they run, against an in-memory store of
+ * {@code size} active warehouses. Lives in the use case package to reach {@link
+ * WarehouseUseCaseSupport}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WarehouseUseCaseBenchmark {
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  int size;
+
+  private List<Warehouse> active;
+  private InMemoryWarehouseStore store;
+  private CreateWarehouseUseCase createUseCase;
+  private ReplaceWarehouseUseCase replaceUseCase;
+  private String location;
+  private Warehouse replaced;
+  private long sequence;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    active = Datasets.warehouses(size);
+    store = new InMemoryWarehouseStore(active);
+    MapLocationResolver resolver = new MapLocationResolver(Datasets.locations(size));
+    createUseCase = new CreateWarehouseUseCase(store, resolver);
+    replaceUseCase = new ReplaceWarehouseUseCase(store, resolver);
+
+    // a warehouse from the middle of the data set, so list scans can't exit early by luck
+    replaced = active.get(size / 2);
+    location = replaced.location;
+  }
+
+  @Benchmark
+  public long create() {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = "NEW." + sequence++;
+    warehouse.location = Datasets.FREE_LOCATION;
+    warehouse.capacity = 10;
+    warehouse.stock = 5;
+    createUseCase.create(warehouse);
+    return store.writes;
+  }
+
+  @Benchmark
+  public long replace() {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = replaced.businessUnitCode;
+    warehouse.location = replaced.location;
+    warehouse.capacity = replaced.capacity;
+    warehouse.stock = replaced.stock;
+    replaceUseCase.replace(warehouse);
+    return store.writes;
+  }
+
+  @Benchmark
+  public long countActiveAtLocation() {
+    return WarehouseUseCaseSupport.countActiveAtLocation(active, location);
+  }
+
+  @Benchmark
+  public int sumCapacityAtLocation() {
+    return WarehouseUseCaseSupport.sumCapacityAtLocation(active, location);
+  }
+}
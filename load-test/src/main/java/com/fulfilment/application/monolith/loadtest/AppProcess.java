@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** The application booted by the harness from its packaged {@code quarkus-run.jar}. */
+final class AppProcess implements AutoCloseable {
+
+  private final Process process;
+
+  private AppProcess(Process process) {
+    this.process = process;
+  }
+
+  static AppProcess start(LoadTestOptions options) throws IOException {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.add("-Dquarkus.http.port=" + (options.target.getPort() < 0 ? 8080 : options.target.getPort()));
+    // logging every statement would make the database driver the bottleneck
+    command.add("-Dquarkus.hibernate-orm.log.sql=false");
+    if ("h2".equals(options.database)) {
+      // needs a jar built with -Pload-test-h2 -Dquarkus.profile=loadtest
+      command.add("-Dquarkus.profile=loadtest");
+    }
+    if (options.jdbcUrl != null) {
+      command.add("-Dquarkus.datasource.jdbc.url=" + options.jdbcUrl);
+    }
+    if (options.locationCatalog != null) {
+      command.add("-Dlocations.catalog=" + options.locationCatalog.toAbsolutePath());
+    }
+    command.add("-jar");
+    command.add(options.appJar.toAbsolutePath().toString());
+
+    Files.createDirectories(options.outputDir);
+    Path log = options.outputDir.resolve("app.log");
+    Process process =
+        new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    System.out.println("started " + options.appJar + " (" + options.database + "), log in " + log);
+    return new AppProcess(process);
+  }
+
+  static void awaitReady(HttpClient client, URI target, Duration timeout) throws InterruptedException {
+    HttpRequest ready = HttpRequest.newBuilder(target.resolve("/q/health/ready")).timeout(Duration.ofSeconds(2)).build();
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (System.nanoTime() - deadline < 0) {
+      try {
+        if (client.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // not listening yet
+      }
+      Thread.sleep(250);
+    }
+    throw new IllegalStateException(target + " did not become ready within " + timeout);
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    process.destroy();
+    if (!process.waitFor(30, TimeUnit.SECONDS)) {
+      process.destroyForcibly();
+    }
+  }
+}
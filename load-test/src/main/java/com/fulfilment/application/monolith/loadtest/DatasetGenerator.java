@@ -0,0 +1,211 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Produces the rows of a {@link DatasetSpec}. Every table draws from its own random stream seeded
+ * from the spec, so the same spec always yields the same rows regardless of how they are loaded.
+ *
+ * <p>Active warehouses fit their location: locations are sized after the warehouses are placed,
+ * with some room left for creates and replacements. Fulfilment assignments follow the service
+ * rules: each warehouse has a fixed assortment of 5 products, a store picks at most 3 warehouses
+ * and a product at most 2 of them.
+ */
+final class DatasetGenerator {
+
+  record LocationRow(String identification, int maxNumberOfWarehouses, int maxCapacity) {}
+
+  /** First id of each table; rows are numbered from there in generation order. */
+  record IdBases(long store, long product, long warehouse, long assignment) {}
+
+  interface Rows {
+    void accept(Object... values) throws SQLException;
+  }
+
+  static final String LOCATION_PREFIX = "GEN-";
+  static final String BUSINESS_UNIT_PREFIX = "GEN.";
+
+  private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+  private static final int ASSORTMENT = 5;
+
+  private static final long LOCATIONS = 1;
+  private static final long WAREHOUSES = 2;
+  private static final long HISTORY = 3;
+  private static final long STORES = 4;
+  private static final long PRODUCTS = 5;
+  private static final long ASSIGNMENTS = 6;
+
+  private final DatasetSpec spec;
+
+  DatasetGenerator(DatasetSpec spec) {
+    this.spec = spec;
+  }
+
+  static String locationId(int index) {
+    return String.format("%s%05d", LOCATION_PREFIX, index);
+  }
+
+  static String businessUnitCode(int index) {
+    return String.format("%s%08d", BUSINESS_UNIT_PREFIX, index);
+  }
+
+  List<LocationRow> locations() {
+    int[] count = new int[spec.locations()];
+    long[] capacity = new long[spec.locations()];
+    SplittableRandom placement = random(WAREHOUSES);
+    for (int i = 0; i < spec.warehouses(); i++) {
+      int location = placement.nextInt(spec.locations());
+      int warehouseCapacity = warehouseCapacity(placement);
+      placement.nextInt(warehouseCapacity + 1); // stock, drawn to keep the stream aligned with warehouses()
+      count[location]++;
+      capacity[location] += warehouseCapacity;
+    }
+
+    SplittableRandom slack = random(LOCATIONS);
+    List<LocationRow> rows = new ArrayList<>(spec.locations());
+    for (int i = 0; i < spec.locations(); i++) {
+      int maxWarehouses = count[i] + 1 + slack.nextInt(3);
+      long maxCapacity = capacity[i] + 100 + slack.nextInt(500);
+      rows.add(new LocationRow(locationId(i), maxWarehouses, (int) Math.min(Integer.MAX_VALUE, maxCapacity)));
+    }
+    return rows;
+  }
+
+  /** Active warehouses, warehouse {@code i} has id {@code base + i}. */
+  void warehouses(IdBases ids, Rows rows) throws SQLException {
+    SplittableRandom placement = random(WAREHOUSES);
+    SplittableRandom history = random(HISTORY);
+    for (int i = 0; i < spec.warehouses(); i++) {
+      String location = locationId(placement.nextInt(spec.locations()));
+      int capacity = warehouseCapacity(placement);
+      int stock = placement.nextInt(capacity + 1);
+      int versions = history.nextInt(2 * spec.historyPerWarehouse() + 1);
+      rows.accept(ids.warehouse() + i, businessUnitCode(i), location, capacity, stock, createdAt(i, versions), null, 0L);
+    }
+  }
+
+  /** Archived versions for warehouse_history, with ids following the active warehouses. */
+  void history(IdBases ids, Rows rows) throws SQLException {
+    SplittableRandom archived = random(HISTORY);
+    SplittableRandom values = random(HISTORY + 100);
+    long id = ids.warehouse() + spec.warehouses();
+    for (int i = 0; i < spec.warehouses(); i++) {
+      int versions = archived.nextInt(2 * spec.historyPerWarehouse() + 1);
+      for (int v = 0; v < versions; v++) {
+        int capacity = warehouseCapacity(values);
+        rows.accept(
+            id++,
+            businessUnitCode(i),
+            locationId(values.nextInt(spec.locations())),
+            capacity,
+            values.nextInt(capacity + 1),
+            createdAt(i, v),
+            createdAt(i, v + 1),
+            0L);
+      }
+    }
+  }
+
+  void stores(IdBases ids, Rows rows) throws SQLException {
+    SplittableRandom random = random(STORES);
+    for (int i = 0; i < spec.stores(); i++) {
+      rows.accept(ids.store() + i, String.format("GEN-STORE-%08d", i), random.nextInt(1_000), 0L);
+    }
+  }
+
+  void products(IdBases ids, Rows rows) throws SQLException {
+    SplittableRandom random = random(PRODUCTS);
+    for (int i = 0; i < spec.products(); i++) {
+      BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(99_900), 2);
+      rows.accept(
+          ids.product() + i, String.format("GEN-PRODUCT-%07d", i), "generated product " + i, price, random.nextInt(500), 0L);
+    }
+  }
+
+  void assignments(IdBases ids, Rows rows) throws SQLException {
+    SplittableRandom random = random(ASSIGNMENTS);
+    int warehousesPerStore = Math.min(3, spec.warehouses());
+    int[] warehouses = new int[warehousesPerStore];
+    // (warehouse slot, assortment slot) pairs already used by the current store
+    boolean[] used = new boolean[warehousesPerStore * ASSORTMENT];
+    int[] products = new int[warehousesPerStore * ASSORTMENT];
+    int[] productUses = new int[warehousesPerStore * ASSORTMENT];
+    long id = ids.assignment();
+    LocalDateTime createdAt = EPOCH.plusYears(1);
+
+    for (int store = 0; store < spec.stores(); store++) {
+      pickDistinct(random, warehouses);
+      Arrays.fill(used, false);
+      int distinctProducts = 0;
+
+      int made = 0;
+      for (int attempt = 0; made < spec.assignmentsPerStore() && attempt < 4 * spec.assignmentsPerStore(); attempt++) {
+        int w = random.nextInt(warehousesPerStore);
+        int a = random.nextInt(ASSORTMENT);
+        if (used[w * ASSORTMENT + a]) {
+          continue;
+        }
+        int product = assortment(warehouses[w], a);
+
+        // rule 1: a product reaches a store through at most 2 warehouses
+        int slot = indexOf(products, distinctProducts, product);
+        if (slot >= 0 && productUses[slot] >= 2) {
+          continue;
+        }
+        if (slot < 0) {
+          slot = distinctProducts++;
+          products[slot] = product;
+          productUses[slot] = 0;
+        }
+        productUses[slot]++;
+        used[w * ASSORTMENT + a] = true;
+
+        rows.accept(id++, ids.store() + store, ids.product() + product, ids.warehouse() + warehouses[w], createdAt);
+        made++;
+      }
+    }
+  }
+
+  // rule 3: the 5 products a warehouse can carry, consecutive ids so they are distinct
+  private int assortment(int warehouse, int slot) {
+    return (int) (((long) warehouse * ASSORTMENT + slot) % spec.products());
+  }
+
+  private void pickDistinct(SplittableRandom random, int[] into) {
+    for (int i = 0; i < into.length; i++) {
+      int candidate;
+      do {
+        candidate = random.nextInt(spec.warehouses());
+      } while (indexOf(into, i, candidate) >= 0);
+      into[i] = candidate;
+    }
+  }
+
+  private static int indexOf(int[] values, int length, int value) {
+    for (int i = 0; i < length; i++) {
+      if (values[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int warehouseCapacity(SplittableRandom random) {
+    return 20 + random.nextInt(180);
+  }
+
+  // one version per 30 days, spread over the day so business units do not share timestamps
+  private static LocalDateTime createdAt(int warehouse, int version) {
+    return EPOCH.plusDays(30L * version).plusSeconds(warehouse % 86_400);
+  }
+
+  private SplittableRandom random(long stream) {
+    return new SplittableRandom(spec.seed() ^ (stream * 0x9E3779B97F4A7C15L));
+  }
+}
@@ -0,0 +1,167 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Loads a generated {@link DatasetSpec} into a database the application has already migrated.
+ * Run on its own with {@code java -cp load-test.jar ...DatasetLoader --dataset large}, or through
+ * {@link LoadTest} with {@code --dataset}.
+ *
+ * <p>Ids are taken above both the current maximum and the sequence, and the sequences are moved
+ * past the loaded rows, so a running application keeps allocating free ids.
+ */
+public final class DatasetLoader {
+
+  static final String LOCATION_CATALOG = "locations.csv";
+
+  // allocationSize of the entities' pooled sequence generators
+  private static final int ALLOCATION_SIZE = 50;
+
+  private static final List<String> STORE_COLUMNS = List.of("id", "name", "quantityProductsInStock", "version");
+  private static final List<String> PRODUCT_COLUMNS = List.of("id", "name", "description", "price", "stock", "version");
+  private static final List<String> WAREHOUSE_COLUMNS =
+      List.of("id", "businessUnitCode", "location", "capacity", "stock", "createdAt", "archivedAt", "version");
+  private static final List<String> ASSIGNMENT_COLUMNS =
+      List.of("id", "storeId", "productId", "warehouseId", "createdAt");
+
+  private DatasetLoader() {}
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    DatasetSpec spec = options.datasetSpec();
+    if (spec == null) {
+      throw new IllegalArgumentException("--dataset small|medium|large is required");
+    }
+    Path catalog = writeLocationCatalog(spec, options.outputDir);
+    System.out.println("start the application with -Dlocations.catalog=" + catalog.toAbsolutePath());
+    load(options, spec);
+  }
+
+  /** The generated locations, for the application's {@code locations.catalog}. */
+  static Path writeLocationCatalog(DatasetSpec spec, Path directory) throws IOException {
+    Files.createDirectories(directory);
+    Path file = directory.resolve(LOCATION_CATALOG);
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+      out.println("identification,maxNumberOfWarehouses,maxCapacity");
+      for (DatasetGenerator.LocationRow location : new DatasetGenerator(spec).locations()) {
+        out.println(location.identification() + "," + location.maxNumberOfWarehouses() + "," + location.maxCapacity());
+      }
+    }
+    return file;
+  }
+
+  static void load(LoadTestOptions options, DatasetSpec spec) throws SQLException {
+    String url = options.datasetJdbcUrl();
+    System.out.printf("loading ~%,d rows into %s%n", spec.approximateRows(), url);
+    DatasetGenerator generator = new DatasetGenerator(spec);
+
+    try (Connection connection = DriverManager.getConnection(url, options.dbUser, options.dbPassword)) {
+      connection.setAutoCommit(false);
+      boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+      if (alreadyLoaded(connection)) {
+        throw new IllegalStateException("the database already holds a generated dataset, start from a clean one");
+      }
+      if (postgres) {
+        try (Statement statement = connection.createStatement()) {
+          // the rows can be regenerated, no need to wait for the WAL flush on every commit
+          statement.execute("set synchronous_commit = off");
+        }
+      }
+
+      DatasetGenerator.IdBases ids =
+          new DatasetGenerator.IdBases(
+              reserve(connection, postgres, "store", "store_seq", spec.stores()),
+              reserve(connection, postgres, "product", "product_seq", spec.products()),
+              reserve(connection, postgres, "warehouse", "warehouse_seq", spec.maxWarehouseRows()),
+              reserve(connection, postgres, "fulfilment_assignment", "fulfilment_assignment_seq",
+                  (long) spec.stores() * spec.assignmentsPerStore()));
+      connection.commit();
+
+      long started = System.nanoTime();
+      copy(connection, "store", STORE_COLUMNS, options.batchSize, rows -> generator.stores(ids, rows));
+      copy(connection, "product", PRODUCT_COLUMNS, options.batchSize, rows -> generator.products(ids, rows));
+      copy(connection, "warehouse", WAREHOUSE_COLUMNS, options.batchSize, rows -> generator.warehouses(ids, rows));
+      copy(connection, "warehouse_history", WAREHOUSE_COLUMNS, options.batchSize, rows -> generator.history(ids, rows));
+      copy(
+          connection,
+          "fulfilment_assignment",
+          ASSIGNMENT_COLUMNS,
+          options.batchSize,
+          rows -> generator.assignments(ids, rows));
+
+      if (postgres) {
+        try (Statement statement = connection.createStatement()) {
+          // fresh statistics, otherwise the planner keeps costing the tables as nearly empty
+          statement.execute("analyze store, product, warehouse, warehouse_history, fulfilment_assignment");
+        }
+        connection.commit();
+      }
+      System.out.printf("dataset loaded in %.1f s%n", (System.nanoTime() - started) / 1e9);
+    }
+  }
+
+  private interface Generation {
+    void into(DatasetGenerator.Rows rows) throws SQLException;
+  }
+
+  private static void copy(
+      Connection connection, String table, List<String> columns, int batchSize, Generation generation)
+      throws SQLException {
+    long started = System.nanoTime();
+    long rows;
+    try (RowSink sink = RowSink.open(connection, table, columns, batchSize)) {
+      generation.into(sink);
+      rows = sink.rows;
+    }
+    connection.commit();
+    double seconds = (System.nanoTime() - started) / 1e9;
+    System.out.printf(
+        "  %-22s %,12d rows %8.1f s %,12.0f rows/s%n", table, rows, seconds, rows / Math.max(seconds, 1e-9));
+  }
+
+  private static boolean alreadyLoaded(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet result =
+            statement.executeQuery(
+                "select count(*) from warehouse where businessUnitCode like '"
+                    + DatasetGenerator.BUSINESS_UNIT_PREFIX
+                    + "%'")) {
+      result.next();
+      return result.getLong(1) > 0;
+    }
+  }
+
+  /**
+   * First id of a block of {@code count} ids no application instance can hand out: above the
+   * highest id and above any block already taken from the sequence. The sequence is restarted
+   * past the block.
+   */
+  private static long reserve(Connection connection, boolean postgres, String table, String sequence, long count)
+      throws SQLException {
+    long base;
+    try (Statement statement = connection.createStatement()) {
+      long maxId = single(statement, "select coalesce(max(id), 0) from " + table);
+      long next =
+          single(statement, postgres ? "select nextval('" + sequence + "')" : "select next value for " + sequence);
+      base = Math.max(maxId, next) + 1;
+      statement.execute("alter sequence " + sequence + " restart with " + (base + count + ALLOCATION_SIZE));
+    }
+    return base;
+  }
+
+  private static long single(Statement statement, String sql) throws SQLException {
+    try (ResultSet result = statement.executeQuery(sql)) {
+      result.next();
+      return result.getLong(1);
+    }
+  }
+}
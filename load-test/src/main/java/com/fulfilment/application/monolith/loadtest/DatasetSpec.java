@@ -0,0 +1,52 @@
+package com.fulfilment.application.monolith.loadtest;
+
+/**
+ * Size of a generated dataset. {@code historyPerWarehouse} is the average number of archived
+ * versions behind each active warehouse; every store gets up to {@code assignmentsPerStore}
+ * fulfilment assignments, at most 15 because of the 2/3/5 fulfilment rules.
+ */
+record DatasetSpec(
+    int locations,
+    int warehouses,
+    int historyPerWarehouse,
+    int stores,
+    int products,
+    int assignmentsPerStore,
+    long seed) {
+
+  // a store reaches at most 3 warehouses, each of which carries at most 5 products
+  static final int MAX_ASSIGNMENTS_PER_STORE = 3 * 5;
+
+  DatasetSpec {
+    if (locations < 1 || warehouses < 1 || stores < 0 || historyPerWarehouse < 0) {
+      throw new IllegalArgumentException("a dataset needs at least one location and one warehouse");
+    }
+    if (products < 5) {
+      throw new IllegalArgumentException("a dataset needs at least 5 products, one full warehouse assortment");
+    }
+    if (assignmentsPerStore < 0 || assignmentsPerStore > MAX_ASSIGNMENTS_PER_STORE) {
+      throw new IllegalArgumentException("--assignments-per-store must be between 0 and " + MAX_ASSIGNMENTS_PER_STORE);
+    }
+  }
+
+  static DatasetSpec preset(String name, long seed) {
+    return switch (name) {
+      // ~100k rows, loads in seconds
+      case "small" -> new DatasetSpec(100, 10_000, 2, 5_000, 1_000, 6, seed);
+      // ~1M rows
+      case "medium" -> new DatasetSpec(1_000, 100_000, 3, 100_000, 10_000, 6, seed);
+      // ~11M rows: 4M warehouse versions, 1M stores, 6M assignments
+      case "large" -> new DatasetSpec(10_000, 1_000_000, 3, 1_000_000, 50_000, 6, seed);
+      default -> throw new IllegalArgumentException("Unknown dataset preset: " + name + " (small, medium, large)");
+    };
+  }
+
+  // the history count of each warehouse is uniform in [0, 2 * historyPerWarehouse]
+  long maxWarehouseRows() {
+    return (long) warehouses * (1 + 2L * historyPerWarehouse);
+  }
+
+  long approximateRows() {
+    return (long) warehouses * (1 + historyPerWarehouse) + stores + products + (long) stores * assignmentsPerStore;
+  }
+}
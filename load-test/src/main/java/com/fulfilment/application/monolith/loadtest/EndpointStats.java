@@ -0,0 +1,67 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies of one endpoint, in microseconds.
+ *
+ * <p>Response time is measured from the moment the request was <em>scheduled</em> to be sent,
+ * not from when it actually went out. A stalled server therefore shows up as latency for every
+ * request that should have been sent during the stall, instead of silently lowering the request
+ * rate (coordinated omission). Service time, measured from the actual send, is kept next to it
+ * so the two can be compared.
+ */
+final class EndpointStats {
+
+  final String name;
+
+  private final Recorder responseTime = new Recorder(3);
+  private final Recorder serviceTime = new Recorder(3);
+
+  final LongAdder success = new LongAdder();
+  final LongAdder clientErrors = new LongAdder();
+  final LongAdder serverErrors = new LongAdder();
+  // no HTTP response at all: connection errors and timeouts
+  final LongAdder failures = new LongAdder();
+  // not sent because --max-in-flight was reached
+  final LongAdder dropped = new LongAdder();
+
+  private Histogram responseTimeSnapshot;
+  private Histogram serviceTimeSnapshot;
+
+  EndpointStats(String name) {
+    this.name = name;
+  }
+
+  void record(long intendedNanos, long sentNanos, long completedNanos, int status) {
+    responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos));
+    serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - sentNanos));
+
+    if (status < 0) {
+      failures.increment();
+    } else if (status >= 500) {
+      serverErrors.increment();
+    } else if (status >= 400) {
+      clientErrors.increment();
+    } else {
+      success.increment();
+    }
+  }
+
+  /** Freezes the histograms; call once, after all requests completed. */
+  void complete() {
+    responseTimeSnapshot = responseTime.getIntervalHistogram();
+    serviceTimeSnapshot = serviceTime.getIntervalHistogram();
+  }
+
+  Histogram responseTime() {
+    return responseTimeSnapshot;
+  }
+
+  Histogram serviceTime() {
+    return serviceTimeSnapshot;
+  }
+}
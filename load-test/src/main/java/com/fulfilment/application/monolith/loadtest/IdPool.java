@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** The most recent ids created by the harness, to pick read and update targets from. */
+final class IdPool {
+
+  private final AtomicLongArray ids;
+  private final AtomicLong added = new AtomicLong();
+
+  IdPool(int capacity, long... initial) {
+    this.ids = new AtomicLongArray(capacity);
+    for (long id : initial) {
+      add(id);
+    }
+  }
+
+  void add(long id) {
+    ids.set((int) (added.getAndIncrement() % ids.length()), id);
+  }
+
+  /** A random known id, or {@code -1} when none was added yet. */
+  long pick(SplittableRandom random) {
+    long size = Math.min(added.get(), ids.length());
+    return size == 0 ? -1 : ids.get(random.nextInt((int) size));
+  }
+}
@@ -0,0 +1,78 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test: optionally boots the application and loads a generated dataset into its
+ * database, then replays the {@link Scenario} mix at a fixed arrival rate and reports
+ * p50/p99/p999 per endpoint. Exits with 2 when a {@code --baseline} is given and the run
+ * regressed beyond {@code --max-regression} percent.
+ */
+public final class LoadTest {
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+
+    ExecutorService callbacks =
+        Executors.newCachedThreadPool(
+            r -> {
+              Thread thread = new Thread(r, "load-test-client");
+              thread.setDaemon(true);
+              return thread;
+            });
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(callbacks)
+            .build();
+
+    DatasetSpec dataset = options.datasetSpec();
+    if (dataset != null) {
+      // deterministic, so the locations are known before a single row is generated
+      options.locationCatalog = DatasetLoader.writeLocationCatalog(dataset, options.outputDir);
+    }
+
+    int exitCode = 0;
+    try (AppProcess app = options.appJar == null ? null : AppProcess.start(options)) {
+      AppProcess.awaitReady(client, options.target, Duration.ofSeconds(120));
+      if (dataset != null) {
+        // the application has run the migrations by now
+        DatasetLoader.load(options, dataset);
+      }
+
+      Scenario scenario = new Scenario(options.target, options.requestTimeout, options.seed);
+      OpenLoadGenerator generator =
+          new OpenLoadGenerator(client, scenario, options.rate, options.maxInFlight, options.requestTimeout);
+
+      if (!options.warmup.isZero()) {
+        System.out.printf("warming up for %s at %d req/s%n", options.warmup, options.rate);
+        generator.run(options.warmup);
+      }
+      System.out.printf("measuring for %s at %d req/s%n", options.duration, options.rate);
+      Map<String, EndpointStats> stats = generator.run(options.duration);
+
+      Report report = new Report(options, stats);
+      report.print(System.out);
+      report.write(options.outputDir);
+
+      if (options.saveBaseline) {
+        Files.createDirectories(options.baseline.toAbsolutePath().getParent());
+        Files.copy(options.outputDir.resolve(Report.RESULT_FILE), options.baseline, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("baseline saved to " + options.baseline);
+      } else if (options.baseline != null
+          && !report.compareWith(options.baseline, options.maxRegressionPercent, System.out)) {
+        exitCode = 2;
+      }
+    }
+    System.exit(exitCode);
+  }
+}
@@ -0,0 +1,131 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/** Command line of the harness, {@code --name value} or {@code --name=value}. */
+final class LoadTestOptions {
+
+  URI target = URI.create("http://localhost:8080");
+  // when set, the harness boots this quarkus-run.jar itself instead of using a running instance
+  Path appJar;
+  String database = "postgresql";
+  String jdbcUrl;
+  int rate = 200;
+  Duration warmup = Duration.ofSeconds(30);
+  Duration duration = Duration.ofSeconds(120);
+  Duration requestTimeout = Duration.ofSeconds(30);
+  int maxInFlight = 10_000;
+  long seed = 42L;
+  Path outputDir = Path.of("target", "load-test");
+  Path baseline;
+  boolean saveBaseline;
+  double maxRegressionPercent = 10.0;
+  // generated dataset (see DatasetLoader): a preset name plus optional per-table overrides
+  String dataset;
+  Integer locations;
+  Integer warehouses;
+  Integer historyPerWarehouse;
+  Integer stores;
+  Integer products;
+  Integer assignmentsPerStore;
+  String dbUser = "quarkus_test";
+  String dbPassword = "quarkus_test";
+  int batchSize = 5_000;
+  // written by the loader, passed to a booted application as locations.catalog
+  Path locationCatalog;
+
+  private LoadTestOptions() {}
+
+  static LoadTestOptions parse(String[] args) {
+    LoadTestOptions options = new LoadTestOptions();
+    for (int i = 0; i < args.length; i++) {
+      String name = args[i];
+      if (!name.startsWith("--")) {
+        throw new IllegalArgumentException("Unexpected argument: " + name);
+      }
+      String value = null;
+      int eq = name.indexOf('=');
+      if (eq > 0) {
+        value = name.substring(eq + 1);
+        name = name.substring(0, eq);
+      }
+      if ("--save-baseline".equals(name)) {
+        options.saveBaseline = value == null || Boolean.parseBoolean(value);
+        continue;
+      }
+      if (value == null) {
+        if (i + 1 >= args.length) {
+          throw new IllegalArgumentException("Missing value for " + name);
+        }
+        value = args[++i];
+      }
+      options.set(name, value);
+    }
+
+    if (!"postgresql".equals(options.database) && !"h2".equals(options.database)) {
+      throw new IllegalArgumentException("--database must be postgresql or h2");
+    }
+    if (options.rate <= 0) {
+      throw new IllegalArgumentException("--rate must be > 0");
+    }
+    if (options.saveBaseline && options.baseline == null) {
+      throw new IllegalArgumentException("--save-baseline needs --baseline <file>");
+    }
+    if (options.dataset != null && "h2".equals(options.database) && options.jdbcUrl == null) {
+      throw new IllegalArgumentException(
+          "--dataset on h2 needs a --jdbc-url both processes can open, e.g. jdbc:h2:file:/tmp/lt;AUTO_SERVER=TRUE");
+    }
+    return options;
+  }
+
+  /** The dataset to load, {@code null} when no {@code --dataset} was given. */
+  DatasetSpec datasetSpec() {
+    if (dataset == null) {
+      return null;
+    }
+    DatasetSpec preset = DatasetSpec.preset(dataset, seed);
+    return new DatasetSpec(
+        locations == null ? preset.locations() : locations,
+        warehouses == null ? preset.warehouses() : warehouses,
+        historyPerWarehouse == null ? preset.historyPerWarehouse() : historyPerWarehouse,
+        stores == null ? preset.stores() : stores,
+        products == null ? preset.products() : products,
+        assignmentsPerStore == null ? preset.assignmentsPerStore() : assignmentsPerStore,
+        seed);
+  }
+
+  String datasetJdbcUrl() {
+    return jdbcUrl != null ? jdbcUrl : "jdbc:postgresql://localhost:15432/quarkus_test";
+  }
+
+  private void set(String name, String value) {
+    switch (name) {
+      case "--target" -> target = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+      case "--app-jar" -> appJar = Path.of(value);
+      case "--database" -> database = value;
+      case "--jdbc-url" -> jdbcUrl = value;
+      case "--rate" -> rate = Integer.parseInt(value);
+      case "--warmup" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+      case "--duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+      case "--request-timeout" -> requestTimeout = Duration.ofSeconds(Long.parseLong(value));
+      case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+      case "--seed" -> seed = Long.parseLong(value);
+      case "--output" -> outputDir = Path.of(value);
+      case "--baseline" -> baseline = Path.of(value);
+      case "--max-regression" -> maxRegressionPercent = Double.parseDouble(value);
+      case "--dataset" -> dataset = value;
+      case "--locations" -> locations = Integer.parseInt(value);
+      case "--warehouses" -> warehouses = Integer.parseInt(value);
+      case "--history" -> historyPerWarehouse = Integer.parseInt(value);
+      case "--stores" -> stores = Integer.parseInt(value);
+      case "--products" -> products = Integer.parseInt(value);
+      case "--assignments-per-store" -> assignmentsPerStore = Integer.parseInt(value);
+      case "--db-user" -> dbUser = value;
+      case "--db-password" -> dbPassword = value;
+      case "--batch-size" -> batchSize = Integer.parseInt(value);
+      default -> throw new IllegalArgumentException("Unknown option: " + name);
+    }
+  }
+}
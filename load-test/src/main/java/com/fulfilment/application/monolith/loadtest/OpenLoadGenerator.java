@@ -0,0 +1,91 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open workload model: requests are started on a fixed schedule regardless of how many are still
+ * outstanding, the way independent users arrive. A closed loop ("send, wait, send") slows down
+ * with the server and hides exactly the latency a release should catch.
+ */
+final class OpenLoadGenerator {
+
+  private final HttpClient client;
+  private final Scenario scenario;
+  private final int ratePerSecond;
+  private final int maxInFlight;
+  private final Duration drainTimeout;
+
+  OpenLoadGenerator(HttpClient client, Scenario scenario, int ratePerSecond, int maxInFlight, Duration drainTimeout) {
+    this.client = client;
+    this.scenario = scenario;
+    this.ratePerSecond = ratePerSecond;
+    this.maxInFlight = maxInFlight;
+    this.drainTimeout = drainTimeout;
+  }
+
+  Map<String, EndpointStats> run(Duration duration) throws InterruptedException {
+    Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    AtomicInteger inFlight = new AtomicInteger();
+
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    for (long i = 0; ; i++) {
+      // computed from the start, not accumulated, so the schedule does not drift
+      long intended = start + i * TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+      if (intended - end >= 0) {
+        break;
+      }
+      parkUntil(intended);
+
+      Scenario.Call call = scenario.next();
+      EndpointStats endpoint = stats.computeIfAbsent(call.endpoint(), EndpointStats::new);
+      if (inFlight.get() >= maxInFlight) {
+        endpoint.dropped.increment();
+        continue;
+      }
+
+      inFlight.incrementAndGet();
+      long sent = System.nanoTime();
+      client
+          .sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+          .whenComplete(
+              (response, failure) -> {
+                try {
+                  int status = response == null ? -1 : response.statusCode();
+                  endpoint.record(intended, sent, System.nanoTime(), status);
+                  if (status >= 200 && status < 300) {
+                    call.onSuccess().accept(response);
+                  }
+                } finally {
+                  inFlight.decrementAndGet();
+                }
+              });
+    }
+
+    long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+    while (inFlight.get() > 0 && System.nanoTime() - drainDeadline < 0) {
+      Thread.sleep(10);
+    }
+    if (inFlight.get() > 0) {
+      System.err.printf("%d requests still in flight after %s, left out of the results%n", inFlight.get(), drainTimeout);
+    }
+
+    stats.values().forEach(EndpointStats::complete);
+    return new TreeMap<>(stats);
+  }
+
+  private static void parkUntil(long deadline) {
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Writes {@code result.json} (the file a baseline is made from) and one {@code .hgrm} percentile
+ * distribution per endpoint, which the HdrHistogram plotter can chart side by side.
+ */
+final class Report {
+
+  static final String RESULT_FILE = "result.json";
+
+  private static final String[] COMPARED = {"p50", "p99", "p999"};
+  private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+  private final LoadTestOptions options;
+  private final Map<String, EndpointStats> stats;
+
+  Report(LoadTestOptions options, Map<String, EndpointStats> stats) {
+    this.options = options;
+    this.stats = stats;
+  }
+
+  ObjectNode toJson() {
+    ObjectNode root = JSON.createObjectNode();
+    root.put("finishedAt", Instant.now().toString());
+    root.put("database", options.database);
+    if (options.dataset != null) {
+      root.put("dataset", options.datasetSpec().toString());
+    }
+    root.put("ratePerSecond", options.rate);
+    root.put("durationSeconds", options.duration.toSeconds());
+    root.put("latencyUnit", "microseconds");
+
+    ObjectNode endpoints = root.putObject("endpoints");
+    stats.forEach(
+        (name, endpoint) -> {
+          ObjectNode node = endpoints.putObject(name);
+          node.put("count", endpoint.responseTime().getTotalCount());
+          node.put("success", endpoint.success.sum());
+          node.put("clientErrors", endpoint.clientErrors.sum());
+          node.put("serverErrors", endpoint.serverErrors.sum());
+          node.put("failures", endpoint.failures.sum());
+          node.put("dropped", endpoint.dropped.sum());
+          percentiles(node.putObject("responseTime"), endpoint.responseTime());
+          percentiles(node.putObject("serviceTime"), endpoint.serviceTime());
+        });
+    return root;
+  }
+
+  void write(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    JSON.writeValue(directory.resolve(RESULT_FILE).toFile(), toJson());
+    for (EndpointStats endpoint : stats.values()) {
+      try (PrintStream out = new PrintStream(directory.resolve(endpoint.name + ".hgrm").toFile())) {
+        // the plotter expects milliseconds
+        endpoint.responseTime().outputPercentileDistribution(out, 1000.0);
+      }
+    }
+  }
+
+  void print(PrintStream out) {
+    out.printf(
+        "%-20s %8s %6s %6s %6s %10s %10s %10s %10s%n",
+        "endpoint", "count", "4xx", "5xx", "fail", "p50 ms", "p99 ms", "p999 ms", "max ms");
+    stats.forEach(
+        (name, endpoint) -> {
+          Histogram latency = endpoint.responseTime();
+          out.printf(
+              "%-20s %8d %6d %6d %6d %10.2f %10.2f %10.2f %10.2f%n",
+              name,
+              latency.getTotalCount(),
+              endpoint.clientErrors.sum(),
+              endpoint.serverErrors.sum(),
+              endpoint.failures.sum() + endpoint.dropped.sum(),
+              latency.getValueAtPercentile(50.0) / 1000.0,
+              latency.getValueAtPercentile(99.0) / 1000.0,
+              latency.getValueAtPercentile(99.9) / 1000.0,
+              latency.getMaxValue() / 1000.0);
+        });
+  }
+
+  /**
+   * Prints the response time change against {@code baseline} for every endpoint present in both
+   * runs, and returns {@code false} if any compared percentile regressed by more than
+   * {@code maxRegressionPercent}.
+   */
+  boolean compareWith(Path baseline, double maxRegressionPercent, PrintStream out) throws IOException {
+    JsonNode previous = JSON.readTree(baseline.toFile()).path("endpoints");
+    JsonNode current = toJson().path("endpoints");
+
+    boolean withinBudget = true;
+    out.printf("%nresponse time against %s (regression budget %.1f%%)%n", baseline, maxRegressionPercent);
+    for (Iterator<String> names = current.fieldNames(); names.hasNext(); ) {
+      String name = names.next();
+      JsonNode before = previous.path(name).path("responseTime");
+      if (before.isMissingNode()) {
+        out.printf("%-20s not in baseline%n", name);
+        continue;
+      }
+      StringBuilder line = new StringBuilder(String.format("%-20s", name));
+      for (String percentile : COMPARED) {
+        long was = before.path(percentile).asLong();
+        long now = current.path(name).path("responseTime").path(percentile).asLong();
+        double change = was == 0 ? 0.0 : (now - was) * 100.0 / was;
+        boolean regressed = change > maxRegressionPercent;
+        withinBudget &= !regressed;
+        line.append(String.format(" %s %+7.1f%%%s", percentile, change, regressed ? " !" : "  "));
+      }
+      out.println(line);
+    }
+    return withinBudget;
+  }
+
+  private static void percentiles(ObjectNode node, Histogram histogram) {
+    node.put("p50", histogram.getValueAtPercentile(50.0));
+    node.put("p90", histogram.getValueAtPercentile(90.0));
+    node.put("p99", histogram.getValueAtPercentile(99.0));
+    node.put("p999", histogram.getValueAtPercentile(99.9));
+    node.put("max", histogram.getMaxValue());
+    node.put("mean", histogram.getMean());
+  }
+}
@@ -0,0 +1,124 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/** Streams generated rows into one table, through {@code COPY} on PostgreSQL or JDBC batches elsewhere. */
+abstract class RowSink implements DatasetGenerator.Rows, AutoCloseable {
+
+  long rows;
+
+  static RowSink open(Connection connection, String table, List<String> columns, int batchSize) throws SQLException {
+    if (connection.isWrapperFor(PGConnection.class)) {
+      return new Copy(connection, table, columns);
+    }
+    return new Batch(connection, table, columns, batchSize);
+  }
+
+  @Override
+  public abstract void close() throws SQLException;
+
+  /** CSV over the COPY protocol: no per-row statement, parse or round trip. */
+  static final class Copy extends RowSink {
+
+    private static final int FLUSH_AT = 1 << 16;
+
+    private final CopyIn copy;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_AT + 1024);
+
+    Copy(Connection connection, String table, List<String> columns) throws SQLException {
+      String sql = "copy " + table + " (" + String.join(", ", columns) + ") from stdin with (format csv)";
+      this.copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    }
+
+    @Override
+    public void accept(Object... values) throws SQLException {
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          buffer.append(',');
+        }
+        append(values[i]);
+      }
+      buffer.append('\n');
+      rows++;
+      if (buffer.length() >= FLUSH_AT) {
+        flush();
+      }
+    }
+
+    private void append(Object value) {
+      // an unquoted empty field is NULL in COPY's csv format
+      if (value == null) {
+        return;
+      }
+      if (value instanceof String text) {
+        buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+      } else {
+        buffer.append(value);
+      }
+    }
+
+    private void flush() throws SQLException {
+      byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+      copy.writeToCopy(bytes, 0, bytes.length);
+      buffer.setLength(0);
+    }
+
+    @Override
+    public void close() throws SQLException {
+      try {
+        flush();
+        copy.endCopy();
+      } finally {
+        if (copy.isActive()) {
+          copy.cancelCopy();
+        }
+      }
+    }
+  }
+
+  /** JDBC batches, committed every {@code batchSize} rows to bound the undo log. */
+  static final class Batch extends RowSink {
+
+    private final Connection connection;
+    private final PreparedStatement insert;
+    private final int batchSize;
+
+    Batch(Connection connection, String table, List<String> columns, int batchSize) throws SQLException {
+      String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+      this.connection = connection;
+      this.insert =
+          connection.prepareStatement(
+              "insert into " + table + " (" + String.join(", ", columns) + ") values (" + placeholders + ")");
+      this.batchSize = batchSize;
+    }
+
+    @Override
+    public void accept(Object... values) throws SQLException {
+      for (int i = 0; i < values.length; i++) {
+        insert.setObject(i + 1, values[i]);
+      }
+      insert.addBatch();
+      if (++rows % batchSize == 0) {
+        insert.executeBatch();
+        connection.commit();
+      }
+    }
+
+    @Override
+    public void close() throws SQLException {
+      try {
+        insert.executeBatch();
+        connection.commit();
+      } finally {
+        insert.close();
+      }
+    }
+  }
+}
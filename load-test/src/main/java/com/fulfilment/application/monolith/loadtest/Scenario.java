@@ -0,0 +1,210 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The request mix. Writes are shaped so they keep succeeding for the whole run: created
+ * warehouses are archived again to free their location, each created store gets exactly one
+ * fulfilment assignment, and replacements keep the seeded warehouse values. Operations that need
+ * an entity the harness has not created yet fall back to the operation creating it.
+ *
+ * <p>Only the dispatcher thread calls {@link #next()}; response callbacks run on client threads.
+ */
+final class Scenario {
+
+  record Call(String endpoint, HttpRequest request, Consumer<HttpResponse<String>> onSuccess) {}
+
+  private record Weighted(String endpoint, int weight) {}
+
+  private static final List<Weighted> MIX =
+      List.of(
+          new Weighted("warehouse.get", 25),
+          new Weighted("warehouse.list", 5),
+          new Weighted("warehouse.create", 5),
+          new Weighted("warehouse.archive", 5),
+          new Weighted("warehouse.replace", 5),
+          new Weighted("fulfilment.assign", 10),
+          new Weighted("store.get", 15),
+          new Weighted("store.create", 10),
+          new Weighted("store.update", 5),
+          new Weighted("product.get", 10),
+          new Weighted("product.create", 3),
+          new Weighted("product.update", 2));
+
+  private static final int TOTAL_WEIGHT = MIX.stream().mapToInt(Weighted::weight).sum();
+
+  // seeded by the V2 migration
+  private static final List<String> SEEDED_WAREHOUSES = List.of("MWH.001", "MWH.012", "MWH.023");
+  private static final List<String> REPLACEMENTS =
+      List.of(
+          "{\"location\":\"AMSTERDAM-001\",\"capacity\":50,\"stock\":5}",
+          "{\"location\":\"TILBURG-001\",\"capacity\":30,\"stock\":27}");
+  private static final List<String> REPLACED = List.of("MWH.012", "MWH.023");
+  // locations the seed data leaves room in, untouched by the replacements
+  private static final List<String> CREATE_LOCATIONS = List.of("AMSTERDAM-002", "ZWOLLE-002", "EINDHOVEN-001");
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private final URI target;
+  private final Duration timeout;
+  private final SplittableRandom random;
+  private final String runId = Long.toString(System.currentTimeMillis() % 100_000_000L, 36);
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final IdPool stores = new IdPool(1024, 1, 2, 3);
+  private final IdPool products = new IdPool(1024, 1, 2, 3);
+  private final IdPool createdStores = new IdPool(1024);
+  private final IdPool createdProducts = new IdPool(1024);
+  private final Queue<Long> unassignedStores = new ConcurrentLinkedQueue<>();
+  private final Queue<String> createdWarehouses = new ConcurrentLinkedQueue<>();
+
+  Scenario(URI target, Duration timeout, long seed) {
+    this.target = target;
+    this.timeout = timeout;
+    this.random = new SplittableRandom(seed);
+  }
+
+  Call next() {
+    int roll = random.nextInt(TOTAL_WEIGHT);
+    for (Weighted weighted : MIX) {
+      roll -= weighted.weight();
+      if (roll < 0) {
+        return call(weighted.endpoint());
+      }
+    }
+    throw new IllegalStateException("weights do not add up");
+  }
+
+  private Call call(String endpoint) {
+    switch (endpoint) {
+      case "warehouse.get":
+        return read(endpoint, "/warehouse/" + any(SEEDED_WAREHOUSES));
+      case "warehouse.list":
+        return read(endpoint, "/warehouse");
+      case "warehouse.archive": {
+        String code = createdWarehouses.poll();
+        if (code != null) {
+          return new Call(endpoint, request("/warehouse/" + code).DELETE().build(), r -> {});
+        }
+        return call("warehouse.create");
+      }
+      case "warehouse.create": {
+        String code = "LT." + runId + "." + sequence.incrementAndGet();
+        String body =
+            "{\"businessUnitCode\":\"" + code + "\",\"location\":\"" + any(CREATE_LOCATIONS)
+                + "\",\"capacity\":10,\"stock\":0}";
+        return new Call("warehouse.create", post("/warehouse", body), r -> createdWarehouses.add(code));
+      }
+      case "warehouse.replace": {
+        int index = random.nextInt(REPLACED.size());
+        return new Call(
+            endpoint, post("/warehouse/" + REPLACED.get(index) + "/replacement", REPLACEMENTS.get(index)), r -> {});
+      }
+      case "fulfilment.assign": {
+        Long storeId = unassignedStores.poll();
+        if (storeId == null) {
+          return call("store.create");
+        }
+        String path =
+            "/fulfilment/stores/" + storeId + "/products/" + (1 + random.nextInt(3))
+                + "/warehouses/" + any(SEEDED_WAREHOUSES);
+        return new Call(endpoint, post(path, ""), r -> {});
+      }
+      case "store.get":
+        return read(endpoint, "/store/" + stores.pick(random));
+      case "store.create": {
+        String body = "{\"name\":\"" + uniqueName("s") + "\",\"quantityProductsInStock\":" + random.nextInt(100) + "}";
+        return new Call(
+            "store.create",
+            post("/store", body),
+            r -> {
+              long id = idOf(r);
+              if (id <= 0) {
+                return;
+              }
+              stores.add(id);
+              createdStores.add(id);
+              unassignedStores.add(id);
+            });
+      }
+      case "store.update": {
+        long id = createdStores.pick(random);
+        if (id < 0) {
+          return call("store.create");
+        }
+        String body = "{\"name\":\"" + uniqueName("s") + "\",\"quantityProductsInStock\":" + random.nextInt(100) + "}";
+        return new Call(endpoint, request("/store/" + id).PUT(HttpRequest.BodyPublishers.ofString(body)).build(), r -> {});
+      }
+      case "product.get":
+        return read(endpoint, "/product/" + products.pick(random));
+      case "product.create": {
+        String body = "{\"name\":\"" + uniqueName("p") + "\",\"stock\":" + random.nextInt(100) + "}";
+        return new Call(
+            "product.create",
+            post("/product", body),
+            r -> {
+              long id = idOf(r);
+              if (id <= 0) {
+                return;
+              }
+              products.add(id);
+              createdProducts.add(id);
+            });
+      }
+      case "product.update": {
+        long id = createdProducts.pick(random);
+        if (id < 0) {
+          return call("product.create");
+        }
+        String body = "{\"name\":\"" + uniqueName("p") + "\",\"stock\":" + random.nextInt(100) + "}";
+        return new Call(endpoint, request("/product/" + id).PUT(HttpRequest.BodyPublishers.ofString(body)).build(), r -> {});
+      }
+      default:
+        throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+    }
+  }
+
+  private Call read(String endpoint, String path) {
+    return new Call(endpoint, request(path).GET().build(), r -> {});
+  }
+
+  private HttpRequest post(String path, String body) {
+    return request(path).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(target.resolve(path))
+        .timeout(timeout)
+        .header("Content-Type", "application/json")
+        .header("Accept", "application/json");
+  }
+
+  private String any(List<String> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+
+  // names are unique columns of at most 40 characters
+  private String uniqueName(String kind) {
+    return "lt-" + runId + "-" + kind + sequence.incrementAndGet();
+  }
+
+  private static long idOf(HttpResponse<String> response) {
+    try {
+      JsonNode id = JSON.readTree(response.body()).get("id");
+      return id == null ? -1 : id.asLong();
+    } catch (Exception e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.fulfilment.application.monolith.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Per-{@link EndpointGroup} concurrency limits in front of the resources, so a burst of
+ * listings cannot take every pooled connection from the writes. A request over its group's
+ * limit is rejected right away (see {@link AdmissionFilter}, and {@link AdmissionGrpcInterceptor}
+ * for the gRPC calls) instead of queueing for a connection until everything times out together.
+ */
+@ApplicationScoped
+public class AdmissionControl {
+
+  @ConfigProperty(name = "admission.enabled", defaultValue = "true")
+  boolean enabled;
+
+  // GET on these paths lists a whole table
+  @ConfigProperty(name = "admission.bulk-paths", defaultValue = "/warehouse,/store,/product")
+  List<String> bulkPaths;
+
+  // long-lived streams, a permit would be held for the whole connection
+  @ConfigProperty(name = "admission.excluded-paths", defaultValue = "/changes")
+  List<String> excludedPaths;
+
+  // gRPC methods (full names) that only read; every other call writes
+  @ConfigProperty(name = "admission.grpc-read-methods", defaultValue = "fulfilment.grpc.v1.FulfilmentRouting/Route")
+  Set<String> grpcReadMethods;
+
+  @ConfigProperty(name = "admission.latency-threshold", defaultValue = "500ms")
+  Duration latencyThreshold;
+
+  @ConfigProperty(name = "admission.backoff", defaultValue = "0.9")
+  double backoff;
+
+  @ConfigProperty(name = "admission.retry-after", defaultValue = "1s")
+  Duration retryAfter;
+
+  @ConfigProperty(name = "admission.reads.limit", defaultValue = "16")
+  int readsLimit;
+
+  @ConfigProperty(name = "admission.reads.max-limit", defaultValue = "64")
+  int readsMaxLimit;
+
+  @ConfigProperty(name = "admission.writes.limit", defaultValue = "8")
+  int writesLimit;
+
+  @ConfigProperty(name = "admission.writes.max-limit", defaultValue = "32")
+  int writesMaxLimit;
+
+  @ConfigProperty(name = "admission.bulk.limit", defaultValue = "2")
+  int bulkLimit;
+
+  @ConfigProperty(name = "admission.bulk.max-limit", defaultValue = "4")
+  int bulkMaxLimit;
+
+  @Inject MeterRegistry registry;
+
+  private final Map<EndpointGroup, AimdLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+  private final Map<EndpointGroup, Counter> rejected = new EnumMap<>(EndpointGroup.class);
+  private Set<String> bulk;
+  private Set<String> excluded;
+
+  void onStart(@Observes StartupEvent event) {
+    start();
+  }
+
+  void start() {
+    bulk = bulkPaths.stream().map(AdmissionControl::normalize).collect(Collectors.toUnmodifiableSet());
+    excluded = excludedPaths.stream().map(AdmissionControl::normalize).collect(Collectors.toUnmodifiableSet());
+    long threshold = latencyThreshold.toNanos();
+    limiters.put(EndpointGroup.READS, new AimdLimiter(readsLimit, 1, readsMaxLimit, backoff, threshold));
+    limiters.put(EndpointGroup.WRITES, new AimdLimiter(writesLimit, 1, writesMaxLimit, backoff, threshold));
+    limiters.put(EndpointGroup.BULK, new AimdLimiter(bulkLimit, 1, bulkMaxLimit, backoff, threshold));
+
+    limiters.forEach(
+        (group, limiter) -> {
+          Tags tags = Tags.of("group", group.tag());
+          registry.gauge("admission.limit", tags, limiter, AimdLimiter::limit);
+          registry.gauge("admission.in_flight", tags, limiter, AimdLimiter::inFlight);
+          rejected.put(group, registry.counter("admission.rejected", "group", group.tag()));
+        });
+  }
+
+  /** The group of a request, {@code null} when it is not limited. */
+  public EndpointGroup classify(String method, String path) {
+    if (!enabled) {
+      return null;
+    }
+    String route = normalize(path);
+    if (excluded.contains(route)) {
+      return null;
+    }
+    return switch (method) {
+      case "POST", "PUT", "PATCH", "DELETE" -> EndpointGroup.WRITES;
+      default -> bulk.contains(route) ? EndpointGroup.BULK : EndpointGroup.READS;
+    };
+  }
+
+  /** The group of a gRPC call, {@code null} when it is not limited. */
+  public EndpointGroup classifyCall(String fullMethodName) {
+    if (!enabled) {
+      return null;
+    }
+    return grpcReadMethods.contains(fullMethodName) ? EndpointGroup.READS : EndpointGroup.WRITES;
+  }
+
+  // the routes match with or without trailing slashes, so must the groups
+  static String normalize(String path) {
+    int end = path.length();
+    while (end > 1 && path.charAt(end - 1) == '/') {
+      end--;
+    }
+    return path.substring(0, end);
+  }
+
+  /** Takes a permit of the group, counting the rejection when there is none. */
+  public boolean tryAcquire(EndpointGroup group) {
+    if (limiters.get(group).tryAcquire()) {
+      return true;
+    }
+    rejected.get(group).increment();
+    return false;
+  }
+
+  public void release(EndpointGroup group, long latencyNanos, boolean failed) {
+    limiters.get(group).release(latencyNanos, failed, System.nanoTime());
+  }
+
+  public void abandon(EndpointGroup group) {
+    limiters.get(group).abandon();
+  }
+
+  public long retryAfterSeconds() {
+    return Math.max(1, retryAfter.toSeconds());
+  }
+
+  AimdLimiter limiter(EndpointGroup group) {
+    return limiters.get(group);
+  }
+}
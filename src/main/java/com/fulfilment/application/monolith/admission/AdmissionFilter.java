@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.admission;
+
+import io.vertx.ext.web.RoutingContext;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+public class AdmissionFilter {
+
+  static final String REJECTED_BODY =
+      "{\"exceptionType\":\"" + AdmissionFilter.class.getName() + "\",\"code\":503,\"reason\":\"overloaded\","
+          + "\"error\":\"Too many concurrent requests, retry later.\"}";
+
+  @Inject AdmissionControl admission;
+
+  @ServerRequestFilter(preMatching = true)
+  public Response admit(ContainerRequestContext request, RoutingContext routingContext) {
+    EndpointGroup group = admission.classify(request.getMethod(), request.getUriInfo().getPath());
+    if (group == null) {
+      return null;
+    }
+    if (!admission.tryAcquire(group)) {
+      return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, admission.retryAfterSeconds())
+          .type(MediaType.APPLICATION_JSON_TYPE)
+          .entity(REJECTED_BODY)
+          .build();
+    }
+
+    long start = System.nanoTime();
+    // the end handler also runs when the client goes away, which a response filter would miss
+    routingContext.addEndHandler(
+        ended -> {
+          if (ended.failed()) {
+            admission.abandon(group);
+          } else {
+            admission.release(group, System.nanoTime() - start, routingContext.response().getStatusCode() >= 500);
+          }
+        });
+    return null;
+  }
+}
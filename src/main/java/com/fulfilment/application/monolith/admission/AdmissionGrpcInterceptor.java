@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.admission;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link AdmissionFilter} for the gRPC calls, which use the same connection pool. A call holds
+ * its permit until it closes, so a stream counts once however many messages it carries.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class AdmissionGrpcInterceptor implements ServerInterceptor {
+
+  static final Metadata.Key<String> RETRY_AFTER = Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER);
+
+  // what a 5xx is to the REST endpoints
+  private static final Set<Status.Code> FAILED =
+      EnumSet.of(Status.Code.UNKNOWN, Status.Code.INTERNAL, Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED);
+
+  @Inject AdmissionControl admission;
+
+  @Override
+  public <Q, R> ServerCall.Listener<Q> interceptCall(
+      ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+    EndpointGroup group = admission.classifyCall(call.getMethodDescriptor().getFullMethodName());
+    if (group == null) {
+      return next.startCall(call, headers);
+    }
+    if (!admission.tryAcquire(group)) {
+      Metadata trailers = new Metadata();
+      trailers.put(RETRY_AFTER, Long.toString(admission.retryAfterSeconds()));
+      call.close(Status.UNAVAILABLE.withDescription("Too many concurrent requests, retry later."), trailers);
+      return new ServerCall.Listener<>() {};
+    }
+
+    long start = System.nanoTime();
+    AtomicBoolean released = new AtomicBoolean();
+    ServerCall<Q, R> releasing =
+        new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+          @Override
+          public void close(Status status, Metadata trailers) {
+            if (released.compareAndSet(false, true)) {
+              admission.release(group, System.nanoTime() - start, FAILED.contains(status.getCode()));
+            }
+            super.close(status, trailers);
+          }
+        };
+    ServerCall.Listener<Q> listener;
+    try {
+      listener = next.startCall(releasing, headers);
+    } catch (RuntimeException e) {
+      if (released.compareAndSet(false, true)) {
+        admission.abandon(group);
+      }
+      throw e;
+    }
+    // the client went away, like a connection closed before the response
+    return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+      @Override
+      public void onCancel() {
+        if (released.compareAndSet(false, true)) {
+          admission.abandon(group);
+        }
+        super.onCancel();
+      }
+    };
+  }
+}
@@ -0,0 +1,71 @@
+package com.fulfilment.application.monolith.admission;
+
+/**
+ * A concurrency limit that adapts like TCP congestion control: it grows by about one per window
+ * of responses that came back within {@code latencyThreshold}, and is multiplied by
+ * {@code backoff} when one came back slower or failed with a 5xx. At most one decrease per
+ * {@code latencyThreshold}, so a burst of slow responses from the same overload counts once.
+ */
+final class AimdLimiter {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoff;
+  private final long latencyThresholdNanos;
+
+  private double limit;
+  private int inFlight;
+  private long lastDecrease;
+
+  AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoff, long latencyThresholdNanos) {
+    if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+      throw new IllegalArgumentException(
+          "Limits must satisfy 1 <= min <= initial <= max, got " + minLimit + "/" + initialLimit + "/" + maxLimit);
+    }
+    if (backoff <= 0 || backoff >= 1) {
+      throw new IllegalArgumentException("backoff must be in (0, 1), got " + backoff);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoff = backoff;
+    this.latencyThresholdNanos = latencyThresholdNanos;
+    this.limit = initialLimit;
+    this.lastDecrease = System.nanoTime() - latencyThresholdNanos;
+  }
+
+  /** Takes a permit, or returns {@code false} right away when the limit is reached. */
+  synchronized boolean tryAcquire() {
+    if (inFlight >= (int) limit) {
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  /** Returns the permit of a request that completed at {@code now} after {@code latencyNanos}. */
+  synchronized void release(long latencyNanos, boolean failed, long now) {
+    int wasInFlight = inFlight--;
+    if (failed || latencyNanos > latencyThresholdNanos) {
+      if (now - lastDecrease >= latencyThresholdNanos) {
+        limit = Math.max(minLimit, limit * backoff);
+        lastDecrease = now;
+      }
+    } else if (wasInFlight * 2 >= (int) limit) {
+      // only grow a limit that is actually in use, or an idle period would inflate it
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+  }
+
+  /** Returns the permit of a request that tells nothing about the load, e.g. a client abort. */
+  synchronized void abandon() {
+    inFlight--;
+  }
+
+  synchronized int limit() {
+    return (int) limit;
+  }
+
+  synchronized int inFlight() {
+    return inFlight;
+  }
+}
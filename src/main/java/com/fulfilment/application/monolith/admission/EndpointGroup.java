@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.admission;
+
+import java.util.Locale;
+
+/** Requests that share a concurrency limit, see {@link AdmissionControl#classify}. */
+public enum EndpointGroup {
+  READS,
+  WRITES,
+  // full-table listings: few of them can hold every pooled connection
+  BULK;
+
+  private final String tag = name().toLowerCase(Locale.ROOT);
+
+  public String tag() {
+    return tag;
+  }
+}
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.api;
+
+/**
+ * Binary encodings the resources offer next to JSON, for consumers that download whole lists.
+ * JSON stays first in every {@code @Produces}, so it remains the default for a wildcard Accept.
+ */
+public final class ApiMediaTypes {
+
+  public static final String CBOR = "application/cbor";
+  // message layout in META-INF/resources/proto/fulfilment-api.proto, served at /proto/fulfilment-api.proto
+  public static final String PROTOBUF = "application/x-protobuf";
+
+  private ApiMediaTypes() {}
+}
@@ -0,0 +1,220 @@
+package com.fulfilment.application.monolith.api;
+
+import com.fulfilment.application.monolith.fulfilment.FulfilmentAssignmentService.FulfilmentAssignmentResponse;
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.stores.Store;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseVersion;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Hand-written protobuf encoders for the response types, following
+ * {@code META-INF/resources/proto/fulfilment-api.proto}. A list response is the matching
+ * {@code ...List} message, its items in field 1. Field numbers are never reused, so consumers
+ * generated from an older schema keep working.
+ */
+final class ProtobufEncoding {
+
+  interface Codec<T> {
+    int size(T value);
+
+    void write(T value, CodedOutputStream out) throws IOException;
+  }
+
+  static final Codec<Warehouse> WAREHOUSE =
+      new Codec<>() {
+        @Override
+        public int size(Warehouse w) {
+          return string(1, w.getId())
+              + string(2, w.getBusinessUnitCode())
+              + string(3, w.getLocation())
+              + int32(4, w.getCapacity())
+              + int32(5, w.getStock());
+        }
+
+        @Override
+        public void write(Warehouse w, CodedOutputStream out) throws IOException {
+          string(out, 1, w.getId());
+          string(out, 2, w.getBusinessUnitCode());
+          string(out, 3, w.getLocation());
+          int32(out, 4, w.getCapacity());
+          int32(out, 5, w.getStock());
+        }
+      };
+
+  static final Codec<WarehouseVersion> WAREHOUSE_VERSION =
+      new Codec<>() {
+        @Override
+        public int size(WarehouseVersion v) {
+          return string(1, v.getBusinessUnitCode())
+              + string(2, v.getLocation())
+              + int32(3, v.getCapacity())
+              + int32(4, v.getStock())
+              + string(5, v.getCreatedAt())
+              + string(6, v.getArchivedAt());
+        }
+
+        @Override
+        public void write(WarehouseVersion v, CodedOutputStream out) throws IOException {
+          string(out, 1, v.getBusinessUnitCode());
+          string(out, 2, v.getLocation());
+          int32(out, 3, v.getCapacity());
+          int32(out, 4, v.getStock());
+          string(out, 5, v.getCreatedAt());
+          string(out, 6, v.getArchivedAt());
+        }
+      };
+
+  static final Codec<Store> STORE =
+      new Codec<>() {
+        @Override
+        public int size(Store s) {
+          return int64(1, s.id)
+              + string(2, s.name)
+              + int32(3, s.quantityProductsInStock)
+              + int64(4, s.version);
+        }
+
+        @Override
+        public void write(Store s, CodedOutputStream out) throws IOException {
+          int64(out, 1, s.id);
+          string(out, 2, s.name);
+          int32(out, 3, s.quantityProductsInStock);
+          int64(out, 4, s.version);
+        }
+      };
+
+  static final Codec<Product> PRODUCT =
+      new Codec<>() {
+        @Override
+        public int size(Product p) {
+          return int64(1, p.id)
+              + string(2, p.name)
+              + string(3, p.description)
+              // decimal as its plain string, protobuf has no exact decimal type
+              + string(4, p.price == null ? null : p.price.toPlainString())
+              + int32(5, p.stock)
+              + int64(6, p.version);
+        }
+
+        @Override
+        public void write(Product p, CodedOutputStream out) throws IOException {
+          int64(out, 1, p.id);
+          string(out, 2, p.name);
+          string(out, 3, p.description);
+          string(out, 4, p.price == null ? null : p.price.toPlainString());
+          int32(out, 5, p.stock);
+          int64(out, 6, p.version);
+        }
+      };
+
+  static final Codec<FulfilmentAssignmentResponse> ASSIGNMENT =
+      new Codec<>() {
+        @Override
+        public int size(FulfilmentAssignmentResponse a) {
+          return int64(1, a.storeId())
+              + int64(2, a.productId())
+              + string(3, a.warehouseBusinessUnitCode())
+              + string(4, dateTime(a.createdAt()));
+        }
+
+        @Override
+        public void write(FulfilmentAssignmentResponse a, CodedOutputStream out) throws IOException {
+          int64(out, 1, a.storeId());
+          int64(out, 2, a.productId());
+          string(out, 3, a.warehouseBusinessUnitCode());
+          string(out, 4, dateTime(a.createdAt()));
+        }
+      };
+
+  private static final Map<Class<?>, Codec<?>> CODECS =
+      Map.of(
+          Warehouse.class, WAREHOUSE,
+          WarehouseVersion.class, WAREHOUSE_VERSION,
+          Store.class, STORE,
+          Product.class, PRODUCT,
+          FulfilmentAssignmentResponse.class, ASSIGNMENT);
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private ProtobufEncoding() {}
+
+  static boolean supports(Class<?> type, Type genericType) {
+    return codec(type, genericType) != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  static void write(Object entity, Class<?> type, Type genericType, OutputStream stream) throws IOException {
+    Codec<Object> codec = (Codec<Object>) codec(type, genericType);
+    CodedOutputStream out = CodedOutputStream.newInstance(stream, BUFFER_SIZE);
+    if (entity instanceof Collection<?> items) {
+      writeList(codec, items, out);
+    } else {
+      codec.write(entity, out);
+    }
+    out.flush();
+  }
+
+  static <T> void writeList(Codec<T> codec, Collection<? extends T> items, CodedOutputStream out) throws IOException {
+    for (T item : items) {
+      out.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      out.writeUInt32NoTag(codec.size(item));
+      codec.write(item, out);
+    }
+  }
+
+  private static Codec<?> codec(Class<?> type, Type genericType) {
+    if (!Collection.class.isAssignableFrom(type)) {
+      return CODECS.get(type);
+    }
+    if (genericType instanceof ParameterizedType parameterized
+        && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+      return CODECS.get(element);
+    }
+    return null;
+  }
+
+  private static String dateTime(LocalDateTime value) {
+    return value == null ? null : value.toString();
+  }
+
+  // absent values are left out, which proto3 reads back as "not set" for optional fields
+
+  private static int string(int field, String value) {
+    return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+  }
+
+  private static int int32(int field, Integer value) {
+    return value == null ? 0 : CodedOutputStream.computeInt32Size(field, value);
+  }
+
+  private static int int64(int field, Long value) {
+    return value == null ? 0 : CodedOutputStream.computeInt64Size(field, value);
+  }
+
+  private static void string(CodedOutputStream out, int field, String value) throws IOException {
+    if (value != null) {
+      out.writeString(field, value);
+    }
+  }
+
+  private static void int32(CodedOutputStream out, int field, Integer value) throws IOException {
+    if (value != null) {
+      out.writeInt32(field, value);
+    }
+  }
+
+  private static void int64(CodedOutputStream out, int field, Long value) throws IOException {
+    if (value != null) {
+      out.writeInt64(field, value);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.fulfilment.application.monolith.changes;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed change of a warehouse or a store. {@code sequence} orders all changes, both
+ * entities included, and is the point a subscriber resumes from. {@code key} is the business unit
+ * code of a warehouse or the id of a store; {@code data} holds the state after the change.
+ */
+public record ChangeEvent(
+    long sequence,
+    String entity,
+    String type,
+    String key,
+    String location,
+    LocalDateTime occurredAt,
+    Object data) {
+
+  public static final String WAREHOUSE = "warehouse";
+  public static final String STORE = "store";
+}
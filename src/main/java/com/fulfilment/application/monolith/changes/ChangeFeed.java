@@ -0,0 +1,189 @@
+package com.fulfilment.application.monolith.changes;
+
+import com.fulfilment.application.monolith.stores.AfterCommitExecutor;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventFeed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Fans committed warehouse and store changes out to any number of subscribers. The last
+ * {@code changes.retained} changes are kept so a subscriber can resume after a reconnect. Each
+ * subscriber may hold at most {@code changes.buffer-size} undelivered live changes; past that it
+ * is a slow consumer and, per {@code changes.slow-consumer}, either misses the newer changes
+ * ({@code drop}) or has its stream completed so it reconnects from its last sequence
+ * ({@code disconnect}).
+ */
+@ApplicationScoped
+public class ChangeFeed {
+
+  public enum SlowConsumerPolicy {
+    DROP,
+    DISCONNECT
+  }
+
+  @ConfigProperty(name = "changes.retained", defaultValue = "10000")
+  int retained;
+
+  @ConfigProperty(name = "changes.buffer-size", defaultValue = "256")
+  int bufferSize;
+
+  @ConfigProperty(name = "changes.slow-consumer", defaultValue = "disconnect")
+  SlowConsumerPolicy slowConsumer;
+
+  @Inject AfterCommitExecutor afterCommitExecutor;
+  @Inject WarehouseEventFeed warehouseEvents;
+  @Inject MeterRegistry registry;
+
+  private final Object lock = new Object();
+  private final ArrayDeque<ChangeEvent> recent = new ArrayDeque<>();
+  private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+  private final WarehouseEventFeed.Projection warehouseProjection = this::onWarehouseEvent;
+  private long sequence;
+  // the newest change no longer retained, resuming from before it would skip changes
+  private long evictedThrough;
+  private Counter dropped;
+  private Counter disconnected;
+
+  void onStart(@Observes StartupEvent event) {
+    start();
+  }
+
+  void start() {
+    registry.gauge("changes.subscribers", subscribers, List::size);
+    dropped = registry.counter("changes.slow_consumer", "action", "drop");
+    disconnected = registry.counter("changes.slow_consumer", "action", "disconnect");
+    warehouseEvents.follow(warehouseProjection);
+  }
+
+  @PreDestroy
+  void stop() {
+    warehouseEvents.unsubscribe(warehouseProjection);
+    subscribers.forEach(s -> s.emitter.complete());
+  }
+
+  /** Publishes the change once the current transaction commits, or right away outside of one. */
+  public void publishAfterCommit(String entity, String type, String key, String location, Object data) {
+    afterCommitExecutor.runAfterCommit(
+        "change-feed publish", () -> publish(entity, type, key, location, LocalDateTime.now(), data));
+  }
+
+  void publish(String entity, String type, String key, String location, LocalDateTime occurredAt, Object data) {
+    synchronized (lock) {
+      ChangeEvent change = new ChangeEvent(++sequence, entity, type, key, location, occurredAt, data);
+      recent.addLast(change);
+      if (recent.size() > retained) {
+        evictedThrough = recent.removeFirst().sequence();
+      }
+      for (Subscriber subscriber : subscribers) {
+        subscriber.offer(change, false);
+      }
+    }
+  }
+
+  /**
+   * Whether a subscriber can resume after sequence {@code after}: not when changes after it are no
+   * longer retained, nor when it is ahead of this feed, e.g. a sequence handed out before a restart.
+   */
+  public boolean canResumeFrom(long after) {
+    synchronized (lock) {
+      return resumable(after);
+    }
+  }
+
+  // guarded by lock
+  private boolean resumable(long after) {
+    return after >= evictedThrough && after <= sequence;
+  }
+
+  /**
+   * The changes matching {@code filter}, starting after sequence {@code after} when given (the
+   * retained changes are replayed first) or with the next change otherwise.
+   */
+  public Multi<ChangeEvent> subscribe(Long after, Predicate<ChangeEvent> filter) {
+    return Multi.createFrom()
+        .deferred(
+            () -> {
+              Subscriber subscriber = new Subscriber(filter);
+              return Multi.createFrom()
+                  .<ChangeEvent>emitter(e -> subscriber.attach(e, after), BackPressureStrategy.BUFFER)
+                  .onItem()
+                  .invoke(subscriber.pending::decrementAndGet);
+            });
+  }
+
+  private void onWarehouseEvent(long warehouseSequence, WarehouseEvent event) {
+    publish(
+        ChangeEvent.WAREHOUSE,
+        event.type().name(),
+        event.businessUnitCode(),
+        event.location(),
+        event.occurredAt(),
+        event);
+  }
+
+  private final class Subscriber {
+
+    final Predicate<ChangeEvent> filter;
+    // emitted but not yet requested downstream
+    final AtomicInteger pending = new AtomicInteger();
+    MultiEmitter<? super ChangeEvent> emitter;
+
+    Subscriber(Predicate<ChangeEvent> filter) {
+      this.filter = filter;
+    }
+
+    void attach(MultiEmitter<? super ChangeEvent> emitter, Long after) {
+      this.emitter = emitter;
+      synchronized (lock) {
+        if (after != null) {
+          if (!resumable(after)) {
+            emitter.fail(new IllegalStateException("Cannot resume after " + after));
+            return;
+          }
+          // the catch-up is bounded by the retained changes, not by the buffer size
+          for (ChangeEvent change : recent) {
+            if (change.sequence() > after) {
+              offer(change, true);
+            }
+          }
+        }
+        subscribers.add(this);
+      }
+      emitter.onTermination(() -> subscribers.remove(this));
+    }
+
+    void offer(ChangeEvent change, boolean catchingUp) {
+      if (!filter.test(change)) {
+        return;
+      }
+      if (!catchingUp && pending.get() >= bufferSize) {
+        if (slowConsumer == SlowConsumerPolicy.DROP) {
+          dropped.increment();
+          return;
+        }
+        disconnected.increment();
+        subscribers.remove(this);
+        emitter.complete();
+        return;
+      }
+      pending.incrementAndGet();
+      emitter.emit(change);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.fulfilment.application.monolith.changes;
+
+import io.smallrye.mutiny.Multi;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Server-sent events of the committed warehouse and store changes, for consumers that would
+ * otherwise poll {@code GET /warehouse} and {@code GET /store}. Each event carries its sequence
+ * as the SSE id, so a reconnecting client resumes with {@code Last-Event-ID} (or
+ * {@code ?after=}). {@code ?location=} narrows the warehouse changes only: stores have no
+ * location, so their changes are not filtered by it.
+ */
+@Path("changes")
+@ApplicationScoped
+public class ChangeResource {
+
+  private static final Set<String> ENTITIES = Set.of(ChangeEvent.WAREHOUSE, ChangeEvent.STORE);
+
+  @Inject ChangeFeed changeFeed;
+
+  @GET
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public Multi<OutboundSseEvent> changes(
+      @QueryParam("after") String after,
+      @HeaderParam("Last-Event-ID") String lastEventId,
+      @QueryParam("entity") List<String> entities,
+      @QueryParam("location") String location,
+      @Context Sse sse) {
+    Long resumeAfter = parseSequence(after != null ? after : lastEventId);
+    if (resumeAfter != null && !changeFeed.canResumeFrom(resumeAfter)) {
+      throw new WebApplicationException("Cannot resume after " + resumeAfter + ", the changes are not retained.", 410);
+    }
+    for (String entity : entities) {
+      if (!ENTITIES.contains(entity)) {
+        throw new WebApplicationException("Unknown entity " + entity + ", expected one of " + ENTITIES, 400);
+      }
+    }
+
+    return changeFeed
+        .subscribe(
+            resumeAfter,
+            change ->
+                (entities.isEmpty() || entities.contains(change.entity()))
+                    && (location == null
+                        || !ChangeEvent.WAREHOUSE.equals(change.entity())
+                        || location.equals(change.location())))
+        .map(
+            change ->
+                sse.newEventBuilder()
+                    .id(Long.toString(change.sequence()))
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(ChangeEvent.class, change)
+                    .build());
+  }
+
+  private static Long parseSequence(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      long sequence = Long.parseLong(value.trim());
+      if (sequence >= 0) {
+        return sequence;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new WebApplicationException("Invalid sequence " + value + ", expected a non-negative number.", 400);
+  }
+}
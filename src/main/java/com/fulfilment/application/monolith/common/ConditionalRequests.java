@@ -0,0 +1,191 @@
+package com.fulfilment.application.monolith.common;
+
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public final class ConditionalRequests {
+
+  private ConditionalRequests() {}
+
+  // Only pay for a validator lookup when the client actually sent one
+  public static boolean hasValidators(HttpHeaders headers) {
+    return headers != null
+        && (headers.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null
+            || headers.getHeaderString(HttpHeaders.IF_MODIFIED_SINCE) != null
+            || headers.getHeaderString(HttpHeaders.IF_MATCH) != null
+            || headers.getHeaderString(HttpHeaders.IF_UNMODIFIED_SINCE) != null);
+  }
+
+  public static EntityTag entityTag(Object id, long version) {
+    return new EntityTag(id + "-" + version);
+  }
+
+  /**
+   * Extracts the version a writer of {@code id} expects from {@code If-Match}; {@code null} when
+   * the header is absent or {@code *}. Accepts the ETags issued by {@link #entityTag(Object,
+   * long)}, a list of them, and bare version numbers. Tags of another resource never match, so a
+   * header without a version of {@code id} fails with 412, as does one naming several versions:
+   * the write can only be made conditional on one.
+   */
+  public static Long expectedVersion(HttpHeaders headers, Object id) {
+    String ifMatch = headers == null ? null : headers.getHeaderString(HttpHeaders.IF_MATCH);
+    if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+      return null;
+    }
+
+    Long expected = null;
+    for (String tag : tags(ifMatch)) {
+      Long version = versionOf(tag, id);
+      if (version == null) {
+        continue;
+      }
+      if (expected != null && !expected.equals(version)) {
+        throw new DomainViolationException(
+            Reason.VERSION_MISMATCH, "If-Match names several versions of " + id + ", send the one you read", 412);
+      }
+      expected = version;
+    }
+    if (expected == null) {
+      throw new DomainViolationException(Reason.VERSION_MISMATCH, "If-Match names no version of " + id, 412);
+    }
+    return expected;
+  }
+
+  // whether an If-Match or If-None-Match header names version of id; weak tags compare like strong ones
+  private static boolean matches(String header, Object id, long version) {
+    if ("*".equals(header.trim())) {
+      return true;
+    }
+    for (String tag : tags(header)) {
+      Long named = versionOf(tag, id);
+      if (named != null && named == version) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // the opaque values of a comma-separated entity tag list, without quotes and weakness indicators
+  static List<String> tags(String header) {
+    List<String> tags = new ArrayList<>();
+    int i = 0;
+    while (i < header.length()) {
+      char c = header.charAt(i);
+      if (c == ',' || Character.isWhitespace(c)) {
+        i++;
+        continue;
+      }
+      if (header.startsWith("W/", i)) {
+        i += 2;
+      }
+      int end;
+      if (i < header.length() && header.charAt(i) == '"') {
+        end = header.indexOf('"', i + 1);
+        if (end < 0) {
+          throw new WebApplicationException("Unterminated entity tag in " + header, 400);
+        }
+        tags.add(header.substring(i + 1, end));
+        end++;
+      } else {
+        end = header.indexOf(',', i);
+        end = end < 0 ? header.length() : end;
+        tags.add(header.substring(i, end).trim());
+      }
+      i = end;
+    }
+    return tags;
+  }
+
+  // the version an entity tag names for id: "<id>-<version>" or a bare version, else null
+  private static Long versionOf(String tag, Object id) {
+    String prefix = id + "-";
+    String version = tag.startsWith(prefix) ? tag.substring(prefix.length()) : tag;
+    if (version.isEmpty() || !version.chars().allMatch(Character::isDigit)) {
+      return null;
+    }
+    try {
+      return Long.parseLong(version);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  public static Date lastModified(LocalDateTime createdAt, LocalDateTime archivedAt) {
+    LocalDateTime latest = createdAt;
+    if (archivedAt != null && (latest == null || archivedAt.isAfter(latest))) {
+      latest = archivedAt;
+    }
+    if (latest == null) {
+      return null;
+    }
+    // HTTP dates have second precision, anything finer would never compare as "not modified"
+    return Date.from(latest.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneId.systemDefault()).toInstant());
+  }
+
+  public static String httpDate(Date date) {
+    return DateTimeFormatter.RFC_1123_DATE_TIME.format(date.toInstant().atOffset(ZoneOffset.UTC));
+  }
+
+  /**
+   * Evaluates the preconditions of a read of version {@code version} of {@code id} in the order
+   * of RFC 9110 section 13.2.2. Returns a ready 304 response when the representation need not be
+   * sent, or {@code null} when it has to be. A failed {@code If-Match}, or {@code
+   * If-Unmodified-Since} without one, fails the read with 412. ETags are matched like {@link
+   * #expectedVersion}, so a read and a write agree on what a tag names.
+   */
+  public static Response notModified(HttpHeaders headers, Object id, long version, Date lastModified) {
+    String ifMatch = headers.getHeaderString(HttpHeaders.IF_MATCH);
+    if (ifMatch != null) {
+      if (!matches(ifMatch, id, version)) {
+        throw new DomainViolationException(Reason.VERSION_MISMATCH, "If-Match names no current version of " + id, 412);
+      }
+    } else {
+      Date unmodifiedSince = parseHttpDate(headers.getHeaderString(HttpHeaders.IF_UNMODIFIED_SINCE));
+      if (unmodifiedSince != null && lastModified != null && lastModified.after(unmodifiedSince)) {
+        throw new DomainViolationException(Reason.VERSION_MISMATCH, id + " was modified since " + unmodifiedSince, 412);
+      }
+    }
+
+    String ifNoneMatch = headers.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+    boolean notModified;
+    if (ifNoneMatch != null) {
+      notModified = matches(ifNoneMatch, id, version);
+    } else {
+      Date modifiedSince = parseHttpDate(headers.getHeaderString(HttpHeaders.IF_MODIFIED_SINCE));
+      notModified = modifiedSince != null && lastModified != null && !lastModified.after(modifiedSince);
+    }
+    if (!notModified) {
+      return null;
+    }
+    Response.ResponseBuilder builder = Response.notModified(entityTag(id, version));
+    if (lastModified != null) {
+      builder.lastModified(lastModified);
+    }
+    return builder.build();
+  }
+
+  // an invalid date is ignored, as RFC 9110 asks
+  private static Date parseHttpDate(String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Date.from(ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.fulfilment.application.monolith.common;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.util.Locale;
+
+/**
+ * A business rule rejected the request. Besides the HTTP status it carries a {@link Reason},
+ * a fixed set of codes that is safe to use as a metric tag (the message is not: it embeds ids).
+ *
+ * <p>These are expected outcomes, not bugs, so no stack trace is captured: filling it in is most
+ * of the cost of throwing, and it would never be logged (see {@link ErrorMapper}).
+ */
+public class DomainViolationException extends WebApplicationException {
+
+  public enum Reason {
+    MISSING_FIELD,
+    INVALID_VALUE,
+    NOT_FOUND,
+    DUPLICATE_BUSINESS_UNIT,
+    UNKNOWN_LOCATION,
+    CAPACITY_BELOW_STOCK,
+    WAREHOUSE_EXCEEDS_LOCATION,
+    LOCATION_FULL,
+    LOCATION_CAPACITY_EXCEEDED,
+    STOCK_MISMATCH,
+    ALREADY_ARCHIVED,
+    VERSION_MISMATCH,
+    CONCURRENT_MODIFICATION,
+    ASSIGNMENT_EXISTS,
+    STORE_PRODUCT_WAREHOUSE_LIMIT,
+    STORE_WAREHOUSE_LIMIT,
+    WAREHOUSE_PRODUCT_LIMIT,
+    CROSS_SHARD;
+
+    private final String code = name().toLowerCase(Locale.ROOT);
+
+    public String code() {
+      return code;
+    }
+  }
+
+  private final Reason reason;
+
+  public DomainViolationException(Reason reason, String message, int status) {
+    super(message, status);
+    this.reason = reason;
+  }
+
+  public Reason reason() {
+    return reason;
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
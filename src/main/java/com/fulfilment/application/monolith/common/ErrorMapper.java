@@ -0,0 +1,88 @@
+package com.fulfilment.application.monolith.common;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.ws.rs.RedirectionException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jboss.logging.Logger;
+
+/**
+ * Maps every exception to {@code {"exceptionType": ..., "code": ..., "error": ...}}.
+ *
+ * <p>Rejections (4xx) are the common case under abusive clients, so they stay cheap: the JSON is
+ * appended to a cached per-type prefix instead of going through an object tree, and they are
+ * logged without a stack trace, a few per second at most. Only 5xx are logged with the stack.
+ */
+@Provider
+public class ErrorMapper implements ExceptionMapper<Exception> {
+
+  private static final Logger LOGGER = Logger.getLogger(ErrorMapper.class.getName());
+
+  static final int CLIENT_ERRORS_LOGGED_PER_SECOND = 5;
+  static final int SERVER_ERRORS_LOGGED_PER_SECOND = 20;
+
+  private final LogSampler clientErrors = new LogSampler(CLIENT_ERRORS_LOGGED_PER_SECOND);
+  private final LogSampler serverErrors = new LogSampler(SERVER_ERRORS_LOGGED_PER_SECOND);
+
+  // {"exceptionType":"<class>","code":<status> per exception type and status
+  private final Map<Class<?>, Map<Integer, String>> prefixes = new ConcurrentHashMap<>();
+
+  @Override
+  public Response toResponse(Exception exception) {
+    if (exception instanceof RedirectionException) {
+      // e.g. 304 Not Modified raised from a resource that cannot return a Response
+      return ((RedirectionException) exception).getResponse();
+    }
+
+    int code = 500;
+    if (exception instanceof WebApplicationException) {
+      code = ((WebApplicationException) exception).getResponse().getStatus();
+    }
+
+    log(exception, code);
+
+    return Response.status(code).type(MediaType.APPLICATION_JSON_TYPE).entity(toJson(exception, code)).build();
+  }
+
+  String toJson(Exception exception, int code) {
+    String prefix =
+        prefixes
+            .computeIfAbsent(exception.getClass(), type -> new ConcurrentHashMap<>())
+            .computeIfAbsent(
+                code, status -> "{\"exceptionType\":\"" + exception.getClass().getName() + "\",\"code\":" + status);
+
+    StringBuilder json = new StringBuilder(prefix.length() + 96).append(prefix);
+    if (exception instanceof DomainViolationException) {
+      json.append(",\"reason\":\"").append(((DomainViolationException) exception).reason().code()).append('"');
+    }
+    if (exception.getMessage() != null) {
+      json.append(",\"error\":\"");
+      JsonStringEncoder.getInstance().quoteAsString(exception.getMessage(), json);
+      json.append('"');
+    }
+    return json.append('}').toString();
+  }
+
+  private void log(Exception exception, int code) {
+    if (code >= 500) {
+      long suppressed = serverErrors.tryAcquire();
+      if (suppressed != LogSampler.SUPPRESSED) {
+        LOGGER.error("Failed to handle request" + suppressedNote(suppressed), exception);
+      }
+    } else if (LOGGER.isInfoEnabled()) {
+      long suppressed = clientErrors.tryAcquire();
+      if (suppressed != LogSampler.SUPPRESSED) {
+        LOGGER.infof("Rejected request with %d: %s%s", code, exception, suppressedNote(suppressed));
+      }
+    }
+  }
+
+  private static String suppressedNote(long suppressed) {
+    return suppressed == 0 ? "" : " (" + suppressed + " more since the last logged one)";
+  }
+}
@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets through at most {@code permitsPerSecond} log events per second and counts the rest, so a
+ * flood of identical failures costs a counter increment instead of a log line each.
+ */
+final class LogSampler {
+
+  static final long SUPPRESSED = -1;
+
+  private final int permitsPerSecond;
+  private final AtomicLong currentSecond = new AtomicLong(Long.MIN_VALUE);
+  private final AtomicInteger used = new AtomicInteger();
+  private final LongAdder suppressed = new LongAdder();
+
+  LogSampler(int permitsPerSecond) {
+    this.permitsPerSecond = permitsPerSecond;
+  }
+
+  /**
+   * Returns {@link #SUPPRESSED} when the event must not be logged, otherwise how many events were
+   * suppressed since the last one that was.
+   */
+  long tryAcquire() {
+    long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    long window = currentSecond.get();
+    if (second != window && currentSecond.compareAndSet(window, second)) {
+      used.set(0);
+    }
+    if (used.incrementAndGet() > permitsPerSecond) {
+      suppressed.increment();
+      return SUPPRESSED;
+    }
+    return suppressed.sumThenReset();
+  }
+}
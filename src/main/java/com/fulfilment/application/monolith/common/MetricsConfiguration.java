@@ -0,0 +1,39 @@
+package com.fulfilment.application.monolith.common;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.Set;
+
+@Singleton
+public class MetricsConfiguration {
+
+  public static final String REPOSITORY_METER = "repository.query";
+
+  private static final Set<String> LATENCY_METERS =
+      Set.of("http.server.requests", TimedUseCaseInterceptor.METER, REPOSITORY_METER);
+
+  // Percentile histograms (aggregatable across instances, unlike client-side percentiles),
+  // bounded so each timer only exports the buckets between 1ms and 10s
+  @Produces
+  @Singleton
+  public MeterFilter latencyHistograms() {
+    return new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (!LATENCY_METERS.contains(id.getName())) {
+          return config;
+        }
+        return DistributionStatisticConfig.builder()
+            .percentilesHistogram(true)
+            .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+            .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+            .build()
+            .merge(config);
+      }
+    };
+  }
+}
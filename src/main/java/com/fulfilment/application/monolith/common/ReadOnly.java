@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.common;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated read path in a read-only transaction: entities are loaded read-only (no
+ * dirty-checking snapshots), nothing is flushed, and the JDBC connection is marked read-only.
+ * Inside a transaction that is already running the annotation has no effect.
+ */
+@InterceptorBinding
+@Target({TYPE, METHOD})
+@Retention(RUNTIME)
+public @interface ReadOnly {}
@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.common;
+
+import io.agroal.api.AgroalPoolInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Marks the connections taken by {@link ReadOnly} read paths read-only, so PostgreSQL runs their
+ * transaction as {@code BEGIN READ ONLY}, and clears the flag before the connection goes back
+ * to the pool.
+ */
+@ApplicationScoped
+public class ReadOnlyConnections implements AgroalPoolInterceptor {
+
+  @Override
+  public void onConnectionAcquire(Connection connection) {
+    if (ReadOnlyInterceptor.isActive()) {
+      setReadOnly(connection, true);
+    }
+  }
+
+  @Override
+  public void onConnectionReturn(Connection connection) {
+    try {
+      if (connection.isReadOnly()) {
+        setReadOnly(connection, false);
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Cannot read the read-only flag of a pooled connection", e);
+    }
+  }
+
+  private static void setReadOnly(Connection connection, boolean readOnly) {
+    try {
+      connection.setReadOnly(readOnly);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Cannot set a pooled connection read-only=" + readOnly, e);
+    }
+  }
+}
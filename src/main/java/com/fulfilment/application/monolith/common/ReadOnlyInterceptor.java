@@ -0,0 +1,64 @@
+package com.fulfilment.application.monolith.common;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.QuarkusTransactionException;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.persistence.EntityManager;
+import java.util.concurrent.Callable;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+
+@ReadOnly
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 200)
+public class ReadOnlyInterceptor {
+
+  private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+  @Inject EntityManager em;
+
+  /** Whether the current thread runs a {@link ReadOnly} read path, see {@link ReadOnlyConnections}. */
+  public static boolean isActive() {
+    return ACTIVE.get() != null;
+  }
+
+  @AroundInvoke
+  Object readOnly(InvocationContext context) throws Exception {
+    if (QuarkusTransaction.isActive()) {
+      // part of a write, which decides how it reads
+      return context.proceed();
+    }
+
+    try {
+      return QuarkusTransaction.requiringNew().call(() -> inReadOnlySession(em, context::proceed));
+    } catch (QuarkusTransactionException e) {
+      // checked exceptions of the read path come back wrapped
+      if (e.getCause() instanceof Exception cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Runs {@code work} in the transaction of the current thread as a read path, e.g. the part of a
+   * read path that another thread runs for it.
+   */
+  public static <T> T inReadOnlySession(EntityManager em, Callable<T> work) throws Exception {
+    // set before the session opens: it picks the datasource, see ReplicaTenantResolver
+    ACTIVE.set(Boolean.TRUE);
+    try {
+      // the connection is only taken from the pool on the first statement
+      Session session = em.unwrap(Session.class);
+      session.setDefaultReadOnly(true);
+      session.setHibernateFlushMode(FlushMode.MANUAL);
+      return work.call();
+    } finally {
+      ACTIVE.remove();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.fulfilment.application.monolith.common;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader, the ones that
+ * arrive while it runs wait for its result (or its exception) instead of running their own.
+ * Nothing is kept once the load completes, so this is not a cache; it only flattens bursts.
+ *
+ * <p>Waiters share the returned object, so it must not be mutated. A waiter gives up after
+ * {@code timeout} with a 503; the load itself is not cancelled.
+ */
+public final class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+  private final long timeoutNanos;
+
+  public SingleFlight(Duration timeout) {
+    this.timeoutNanos = timeout.toNanos();
+  }
+
+  public V load(K key, Supplier<V> loader) {
+    Flight<V> flight = new Flight<>();
+    Flight<V> running = inFlight.putIfAbsent(key, flight);
+    if (running != null) {
+      running.waiters.incrementAndGet();
+      return await(key, running.result);
+    }
+
+    try {
+      V value = loader.get();
+      flight.result.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      flight.result.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  /** Callers waiting on the load of {@code key} running right now. */
+  public int waiters(K key) {
+    Flight<V> flight = inFlight.get(key);
+    return flight == null ? 0 : flight.waiters.get();
+  }
+
+  private V await(K key, CompletableFuture<V> result) {
+    try {
+      return result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      // the loader's own exception, as the caller that ran it got it
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new WebApplicationException("Timed out waiting for a concurrent lookup of " + key, 503);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WebApplicationException("Interrupted waiting for a concurrent lookup of " + key, 503);
+    }
+  }
+
+  private static final class Flight<V> {
+    final CompletableFuture<V> result = new CompletableFuture<>();
+    final AtomicInteger waiters = new AtomicInteger();
+  }
+}
@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * Times use case calls, tagged with the use case, the outcome and the rejection reason. All tag
+ * values come from closed sets (class names, {@link DomainViolationException.Reason}, HTTP
+ * statuses), so the number of series stays fixed whatever the traffic.
+ */
+@TimedUseCase
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_AFTER + 10)
+public class TimedUseCaseInterceptor {
+
+  public static final String METER = "usecase.duration";
+
+  @Inject MeterRegistry registry;
+
+  @AroundInvoke
+  Object time(InvocationContext context) throws Exception {
+    Timer.Sample sample = Timer.start(registry);
+    String outcome = "success";
+    String reason = "none";
+    try {
+      return context.proceed();
+    } catch (DomainViolationException e) {
+      outcome = "rejected";
+      reason = e.reason().code();
+      throw e;
+    } catch (WebApplicationException e) {
+      outcome = "rejected";
+      reason = "status_" + e.getResponse().getStatus();
+      throw e;
+    } catch (Exception e) {
+      outcome = "error";
+      reason = "unexpected";
+      throw e;
+    } finally {
+      sample.stop(
+          registry.timer(
+              METER,
+              "usecase", context.getMethod().getDeclaringClass().getSimpleName(),
+              "outcome", outcome,
+              "reason", reason));
+    }
+  }
+}
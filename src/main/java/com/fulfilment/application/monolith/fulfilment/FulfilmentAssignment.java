@@ -12,7 +12,11 @@ import java.time.LocalDateTime;
                 columnNames = {"storeId", "productId", "warehouseId"}))
 public class FulfilmentAssignment {
 
-    @Id @GeneratedValue public Long id;
+    @Id
+    @GeneratedValue(generator = "fulfilment_assignment_seq")
+    @SequenceGenerator(
+            name = "fulfilment_assignment_seq", sequenceName = "fulfilment_assignment_seq", allocationSize = 50)
+    public Long id;
 
     @Column(nullable = false)
     public Long storeId;
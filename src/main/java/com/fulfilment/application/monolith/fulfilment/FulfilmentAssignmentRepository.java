@@ -1,15 +1,33 @@
 package com.fulfilment.application.monolith.fulfilment;
 
+import com.fulfilment.application.monolith.common.MetricsConfiguration;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehousesReplaced;
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.Query;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
 
 @ApplicationScoped
 public class FulfilmentAssignmentRepository implements PanacheRepository<FulfilmentAssignment> {
 
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    @Timed(MetricsConfiguration.REPOSITORY_METER)
+    @WithSpan
     public boolean existsAssignment(Long storeId, Long productId, Long warehouseId) {
         return count("storeId = ?1 and productId = ?2 and warehouseId = ?3", storeId, productId, warehouseId) > 0;
     }
 
+    @Timed(MetricsConfiguration.REPOSITORY_METER)
+    @WithSpan
     public long countDistinctWarehousesForStoreProduct(Long storeId, Long productId) {
         return (Long)
                 getEntityManager()
@@ -20,6 +38,8 @@ public class FulfilmentAssignmentRepository implements PanacheRepository<Fulfilm
                         .getSingleResult();
     }
 
+    @Timed(MetricsConfiguration.REPOSITORY_METER)
+    @WithSpan
     public long countDistinctWarehousesForStore(Long storeId) {
         return (Long)
                 getEntityManager()
@@ -29,6 +49,8 @@ public class FulfilmentAssignmentRepository implements PanacheRepository<Fulfilm
                         .getSingleResult();
     }
 
+    @Timed(MetricsConfiguration.REPOSITORY_METER)
+    @WithSpan
     public long countDistinctProductsForWarehouse(Long warehouseId) {
         return (Long)
                 getEntityManager()
@@ -38,6 +60,8 @@ public class FulfilmentAssignmentRepository implements PanacheRepository<Fulfilm
                         .getSingleResult();
     }
 
+    @Timed(MetricsConfiguration.REPOSITORY_METER)
+    @WithSpan
     public boolean isWarehouseAlreadyUsedByStore(Long storeId, Long warehouseId) {
         return (Long)
                 getEntityManager()
@@ -49,6 +73,8 @@ public class FulfilmentAssignmentRepository implements PanacheRepository<Fulfilm
                 > 0;
     }
 
+    @Timed(MetricsConfiguration.REPOSITORY_METER)
+    @WithSpan
     public boolean isProductAlreadyUsedByWarehouse(Long warehouseId, Long productId) {
         return (Long)
                 getEntityManager()
@@ -59,4 +85,84 @@ public class FulfilmentAssignmentRepository implements PanacheRepository<Fulfilm
                         .getSingleResult()
                 > 0;
     }
+
+    @Timed(MetricsConfiguration.REPOSITORY_METER)
+    @WithSpan
+    public List<String> findWarehouseCodes(Long storeId, Long productId) {
+        return getEntityManager()
+                .createQuery(
+                        "select w.businessUnitCode from FulfilmentAssignment f, DbWarehouse w"
+                                + " where w.id = f.warehouseId and f.storeId = :s and f.productId = :p and w.archivedAt is null"
+                                + " order by w.businessUnitCode",
+                        String.class)
+                .setParameter("s", storeId)
+                .setParameter("p", productId)
+                .getResultList();
+    }
+
+    /** Per warehouse of this shard, aggregated by the database rather than loaded row by row. */
+    @Timed(MetricsConfiguration.REPOSITORY_METER)
+    @WithSpan
+    public List<WarehouseAssignmentCounts> countStoresAndProductsByWarehouse() {
+        return getEntityManager()
+                .createQuery(
+                        "select new com.fulfilment.application.monolith.fulfilment.WarehouseAssignmentCounts("
+                                + "f.warehouseId, count(distinct f.storeId), count(distinct f.productId))"
+                                + " from FulfilmentAssignment f group by f.warehouseId",
+                        WarehouseAssignmentCounts.class)
+                .getResultList();
+    }
+
+    /**
+     * Moves the assignments of replaced warehouse versions to their replacements, in the
+     * transaction of the replacement: the link to the archived version is kept in
+     * fulfilment_assignment_history and the assignments are re-pointed, two statements whatever
+     * the number of assignments or warehouses. The id pairs travel as two array parameters, so the
+     * statements keep the same text and the same number of bind parameters for any batch.
+     */
+    @Timed(MetricsConfiguration.REPOSITORY_METER)
+    @WithSpan
+    public void onWarehousesReplaced(@Observes WarehousesReplaced replaced) {
+        int size = replaced.replacementIds().size();
+        Long[] archived = new Long[size];
+        Long[] replacements = new Long[size];
+        int i = 0;
+        for (Map.Entry<Long, Long> replacement : replaced.replacementIds().entrySet()) {
+            archived[i] = replacement.getKey();
+            replacements[i] = replacement.getValue();
+            i++;
+        }
+
+        boolean postgres = "postgresql".equals(dbKind);
+        String archivedIds = postgres ? "cast(:archived as bigint[])" : ":archived";
+
+        Query keep =
+                getEntityManager()
+                        .createNativeQuery(
+                                "insert into fulfilment_assignment_history (assignmentId, storeId, productId, warehouseId, createdAt, movedAt)"
+                                        + " select id, storeId, productId, warehouseId, createdAt, :movedAt"
+                                        + " from fulfilment_assignment where warehouseId = any(" + archivedIds + ")")
+                        .setParameter("movedAt", replaced.replacedAt())
+                        .setParameter("archived", archived);
+        keep.unwrap(NativeQuery.class).addSynchronizedEntityClass(FulfilmentAssignment.class);
+        keep.executeUpdate();
+
+        Query move =
+                getEntityManager()
+                        .createNativeQuery(
+                                postgres
+                                        // joined with the pairs, each assignment is matched once
+                                        ? "update fulfilment_assignment f set warehouseId = m.replacement"
+                                                + " from unnest(cast(:archived as bigint[]), cast(:replacements as bigint[]))"
+                                                + " as m(archived, replacement) where f.warehouseId = m.archived"
+                                        // H2 has no update ... from, the pair is looked up per assignment
+                                        : "update fulfilment_assignment f set warehouseId ="
+                                                + " (select m.replacement from unnest(:archived, :replacements) as m(archived, replacement)"
+                                                + " where m.archived = f.warehouseId)"
+                                                + " where f.warehouseId = any(:archived)")
+                        .setParameter("archived", archived)
+                        .setParameter("replacements", replacements);
+        move.unwrap(NativeQuery.class).addSynchronizedEntityClass(FulfilmentAssignment.class);
+        Span.current().setAttribute("db.row_count", move.executeUpdate());
+    }
 }
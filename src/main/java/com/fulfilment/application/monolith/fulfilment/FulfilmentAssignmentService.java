@@ -1,59 +1,104 @@
 package com.fulfilment.application.monolith.fulfilment;
 
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
 import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.sharding.Shards;
 import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.summary.WarehouseSummaryView;
 import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.database.ShardedWarehouseStore;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.ws.rs.WebApplicationException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @ApplicationScoped
 public class FulfilmentAssignmentService {
 
     @Inject FulfilmentAssignmentRepository repo;
-    @Inject WarehouseRepository warehouseRepository;
+    @Inject ShardedWarehouseStore warehouseStore;
+    @Inject Shards shards;
     @Inject EntityManager em;
+    @Inject WarehouseSummaryView summaryView;
 
+    @WithSpan
     public FulfilmentAssignmentResponse assign(Long storeId, Long productId, String warehouseBuCode) {
         validateInputs(storeId, productId, warehouseBuCode);
 
-        Store store = Store.findById(storeId);
+        // stores and products are on the primary, assignments on the shard of their warehouse
+        Store store = shards.onPrimary(() -> Store.findById(storeId));
         if (store == null) {
             throw new WebApplicationException("Store not found: " + storeId, 404);
         }
 
-        Product product = em.find(Product.class, productId);
+        Product product = shards.onPrimary(() -> em.find(Product.class, productId));
         if (product == null) {
             throw new WebApplicationException("Product not found: " + productId, 404);
         }
 
-        DbWarehouse warehouse = warehouseRepository.findActiveDbByBusinessUnitCode(warehouseBuCode);
+        DbWarehouse warehouse = warehouseStore.findActiveDbByBusinessUnitCode(warehouseBuCode);
         if (warehouse == null) {
             throw new WebApplicationException("Active warehouse not found: " + warehouseBuCode, 404);
         }
 
         Long warehouseId = warehouse.id;
 
+        FulfilmentAssignment assignment =
+                new FulfilmentAssignment(storeId, productId, warehouseId, LocalDateTime.now());
+        Reach added =
+                shards.on(
+                        shards.shardOf(warehouse.location),
+                        () -> {
+                            Reach reach = checkConstraints(storeId, productId, warehouseId);
+                            repo.persist(assignment);
+                            return reach;
+                        });
+        summaryView.assignmentAdded(warehouse.businessUnitCode, added.newStore(), added.newProduct());
+
+        return new FulfilmentAssignmentResponse(storeId, productId, warehouseBuCode.trim(), assignment.createdAt);
+    }
+
+    /** Business unit codes of the active warehouses fulfilling the product for the store. */
+    @WithSpan
+    public List<String> route(Long storeId, Long productId) {
+        validateIds(storeId, productId);
+        List<List<String>> perShard = shards.scatter(() -> repo.findWarehouseCodes(storeId, productId));
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        List<String> codes = new ArrayList<>();
+        perShard.forEach(codes::addAll);
+        codes.sort(null);
+        return codes;
+    }
+
+    // runs on the warehouse's shard; the per-store limits count the assignments of every shard
+    Reach checkConstraints(Long storeId, Long productId, Long warehouseId) {
         // Duplicate assignment (keep strict + explicit)
         if (repo.existsAssignment(storeId, productId, warehouseId)) {
-            throw new WebApplicationException("Assignment already exists.", 409);
+            throw new DomainViolationException(Reason.ASSIGNMENT_EXISTS, "Assignment already exists.", 409);
         }
 
         // Constraint 1: Each Product can be fulfilled by max 2 Warehouses per Store
-        long whCountForStoreProduct = repo.countDistinctWarehousesForStoreProduct(storeId, productId);
+        long whCountForStoreProduct =
+                shards.sum(() -> repo.countDistinctWarehousesForStoreProduct(storeId, productId));
         if (whCountForStoreProduct >= 2) {
-            throw new WebApplicationException("A product can be fulfilled by max 2 warehouses per store.", 409);
+            throw new DomainViolationException(
+                    Reason.STORE_PRODUCT_WAREHOUSE_LIMIT, "A product can be fulfilled by max 2 warehouses per store.", 409);
         }
 
         // Constraint 2: Each Store can be fulfilled by max 3 different Warehouses
         boolean warehouseAlreadyForStore = repo.isWarehouseAlreadyUsedByStore(storeId, warehouseId);
         if (!warehouseAlreadyForStore) {
-            long distinctWhForStore = repo.countDistinctWarehousesForStore(storeId);
+            long distinctWhForStore = shards.sum(() -> repo.countDistinctWarehousesForStore(storeId));
             if (distinctWhForStore >= 3) {
-                throw new WebApplicationException("A store can be fulfilled by max 3 warehouses.", 409);
+                throw new DomainViolationException(
+                        Reason.STORE_WAREHOUSE_LIMIT, "A store can be fulfilled by max 3 warehouses.", 409);
             }
         }
 
@@ -62,29 +107,33 @@ public class FulfilmentAssignmentService {
         if (!productAlreadyForWarehouse) {
             long distinctProductsForWarehouse = repo.countDistinctProductsForWarehouse(warehouseId);
             if (distinctProductsForWarehouse >= 5) {
-                throw new WebApplicationException("A warehouse can fulfil max 5 product types.", 409);
+                throw new DomainViolationException(
+                        Reason.WAREHOUSE_PRODUCT_LIMIT, "A warehouse can fulfil max 5 product types.", 409);
             }
         }
 
-        FulfilmentAssignment assignment =
-                new FulfilmentAssignment(storeId, productId, warehouseId, LocalDateTime.now());
-        repo.persist(assignment);
-
-        return new FulfilmentAssignmentResponse(storeId, productId, warehouseBuCode.trim(), assignment.createdAt);
+        return new Reach(!warehouseAlreadyForStore, !productAlreadyForWarehouse);
     }
 
     private void validateInputs(Long storeId, Long productId, String warehouseBuCode) {
+        validateIds(storeId, productId);
+        if (warehouseBuCode == null || warehouseBuCode.isBlank()) {
+            throw new WebApplicationException("warehouseBuCode is invalid.", 422);
+        }
+    }
+
+    private void validateIds(Long storeId, Long productId) {
         if (storeId == null || storeId <= 0) {
             throw new WebApplicationException("storeId is invalid.", 422);
         }
         if (productId == null || productId <= 0) {
             throw new WebApplicationException("productId is invalid.", 422);
         }
-        if (warehouseBuCode == null || warehouseBuCode.isBlank()) {
-            throw new WebApplicationException("warehouseBuCode is invalid.", 422);
-        }
     }
 
+    /** Whether an assignment brings a store, or a product, to its warehouse for the first time. */
+    record Reach(boolean newStore, boolean newProduct) {}
+
     public record FulfilmentAssignmentResponse(
             Long storeId, Long productId, String warehouseBusinessUnitCode, LocalDateTime createdAt) {}
 }
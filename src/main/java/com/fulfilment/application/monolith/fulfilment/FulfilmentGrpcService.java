@@ -0,0 +1,130 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.fulfilment.FulfilmentAssignmentService.FulfilmentAssignmentResponse;
+import com.fulfilment.application.monolith.fulfilment.grpc.AssignBatchReply;
+import com.fulfilment.application.monolith.fulfilment.grpc.AssignOutcome;
+import com.fulfilment.application.monolith.fulfilment.grpc.AssignRequest;
+import com.fulfilment.application.monolith.fulfilment.grpc.Assignment;
+import com.fulfilment.application.monolith.fulfilment.grpc.FulfilmentRouting;
+import com.fulfilment.application.monolith.fulfilment.grpc.RouteReply;
+import com.fulfilment.application.monolith.fulfilment.grpc.RouteRequest;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.grpc.GrpcService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.List;
+
+/**
+ * The fulfilment endpoints over gRPC (see src/main/proto/fulfilment.proto), for callers that
+ * assign or look up in bulk: one HTTP/2 connection and a binary message per call instead of a
+ * JSON request each. The rules are the ones of {@link FulfilmentAssignmentService}; every
+ * assignment gets its own transaction, as with {@code POST /fulfilment/...}.
+ */
+@GrpcService
+public class FulfilmentGrpcService implements FulfilmentRouting {
+
+    @Inject FulfilmentAssignmentService service;
+
+    @Override
+    public Uni<Assignment> assign(AssignRequest request) {
+        return Uni.createFrom()
+                .item(() -> QuarkusTransaction.requiringNew().call(() -> assignInTransaction(request)))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .onFailure()
+                .transform(FulfilmentGrpcService::toStatus);
+    }
+
+    @Override
+    public Uni<AssignBatchReply> assignBatch(Multi<AssignRequest> requests) {
+        // a rejected request does not end the stream, it is reported in its outcome
+        return requests.emitOn(Infrastructure.getDefaultWorkerPool())
+                .map(this::assignOne)
+                .collect()
+                .asList()
+                .map(FulfilmentGrpcService::batchReply)
+                .onFailure()
+                .transform(FulfilmentGrpcService::toStatus);
+    }
+
+    @Override
+    public Multi<RouteReply> route(Multi<RouteRequest> requests) {
+        return requests.emitOn(Infrastructure.getDefaultWorkerPool())
+                .map(request -> {
+                    List<String> codes = QuarkusTransaction.requiringNew()
+                            .call(() -> service.route(request.getStoreId(), request.getProductId()));
+                    return RouteReply.newBuilder()
+                            .setStoreId(request.getStoreId())
+                            .setProductId(request.getProductId())
+                            .addAllWarehouseBusinessUnitCodes(codes)
+                            .build();
+                })
+                .onFailure()
+                .transform(FulfilmentGrpcService::toStatus);
+    }
+
+    private Assignment assignInTransaction(AssignRequest request) {
+        FulfilmentAssignmentResponse assigned =
+                service.assign(request.getStoreId(), request.getProductId(), request.getWarehouseBusinessUnitCode());
+        return Assignment.newBuilder()
+                .setStoreId(assigned.storeId())
+                .setProductId(assigned.productId())
+                .setWarehouseBusinessUnitCode(assigned.warehouseBusinessUnitCode())
+                .setCreatedAt(assigned.createdAt().toString())
+                .build();
+    }
+
+    private AssignOutcome assignOne(AssignRequest request) {
+        try {
+            Assignment assignment = QuarkusTransaction.requiringNew().call(() -> assignInTransaction(request));
+            return AssignOutcome.newBuilder().setStatus(201).setAssignment(assignment).build();
+        } catch (WebApplicationException e) {
+            AssignOutcome.Builder outcome =
+                    AssignOutcome.newBuilder().setStatus(e.getResponse().getStatus()).setError(e.getMessage());
+            if (e instanceof DomainViolationException violation) {
+                outcome.setReason(violation.reason().code());
+            }
+            return outcome.build();
+        }
+    }
+
+    private static AssignBatchReply batchReply(List<AssignOutcome> outcomes) {
+        int assigned = (int) outcomes.stream().filter(AssignOutcome::hasAssignment).count();
+        return AssignBatchReply.newBuilder()
+                .addAllOutcomes(outcomes)
+                .setAssigned(assigned)
+                .setRejected(outcomes.size() - assigned)
+                .build();
+    }
+
+    /** The gRPC status closest to the HTTP status the REST endpoint answers with. */
+    static StatusRuntimeException toStatus(Throwable failure) {
+        if (failure instanceof StatusRuntimeException status) {
+            return status;
+        }
+        if (!(failure instanceof WebApplicationException rejected)) {
+            return Status.INTERNAL.withDescription(failure.getMessage()).withCause(failure).asRuntimeException();
+        }
+
+        int http = rejected.getResponse().getStatus();
+        Status status;
+        if (http == 404) {
+            status = Status.NOT_FOUND;
+        } else if (http == 409) {
+            status = Status.FAILED_PRECONDITION;
+        } else if (http >= 400 && http < 500) {
+            status = Status.INVALID_ARGUMENT;
+        } else {
+            status = Status.INTERNAL;
+        }
+        String description = rejected instanceof DomainViolationException violation
+                ? violation.reason().code() + ": " + rejected.getMessage()
+                : rejected.getMessage();
+        return status.withDescription(description).asRuntimeException();
+    }
+}
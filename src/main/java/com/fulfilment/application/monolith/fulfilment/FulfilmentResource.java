@@ -1,15 +1,19 @@
 package com.fulfilment.application.monolith.fulfilment;
 
+import com.fulfilment.application.monolith.api.ApiMediaTypes;
+import com.fulfilment.application.monolith.common.ReadOnly;
 import com.fulfilment.application.monolith.fulfilment.FulfilmentAssignmentService.FulfilmentAssignmentResponse;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.util.List;
 
 @Path("fulfilment")
 @ApplicationScoped
-@Produces("application/json")
+@Produces({MediaType.APPLICATION_JSON, ApiMediaTypes.CBOR, ApiMediaTypes.PROTOBUF})
 @Consumes("application/json")
 public class FulfilmentResource {
 
@@ -26,4 +30,13 @@ public class FulfilmentResource {
         FulfilmentAssignmentResponse resp = service.assign(storeId, productId, warehouseBuCode);
         return Response.status(201).entity(resp).build();
     }
+
+    @GET
+    @Path("stores/{storeId}/products/{productId}/warehouses")
+    // a bare list of codes has no protobuf message
+    @Produces({MediaType.APPLICATION_JSON, ApiMediaTypes.CBOR})
+    @ReadOnly
+    public List<String> route(@PathParam("storeId") Long storeId, @PathParam("productId") Long productId) {
+        return service.route(storeId, productId);
+    }
 }
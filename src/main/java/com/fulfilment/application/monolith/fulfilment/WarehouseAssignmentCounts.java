@@ -0,0 +1,4 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+/** Distinct stores and products a warehouse is assigned to, as counted by the database. */
+public record WarehouseAssignmentCounts(Long warehouseId, long stores, long products) {}
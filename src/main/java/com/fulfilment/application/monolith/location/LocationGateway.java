@@ -2,9 +2,18 @@ package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 @ApplicationScoped
 public class LocationGateway implements LocationResolver {
@@ -22,6 +31,19 @@ public class LocationGateway implements LocationResolver {
     locations.add(new Location("VETSBY-001", 1, 90));
   }
 
+  // extra locations, e.g. the ones of a generated load-test dataset
+  @ConfigProperty(name = "locations.catalog")
+  Optional<Path> catalog;
+
+  private Map<String, Location> catalogLocations = Map.of();
+
+  @PostConstruct
+  void loadCatalog() {
+    if (catalog != null && catalog.isPresent()) {
+      catalogLocations = readCatalog(catalog.get());
+    }
+  }
+
   @Override
   public Location resolveByIdentifier(String identifier) {
     if (identifier == null || identifier.isBlank()) {
@@ -34,6 +56,30 @@ public class LocationGateway implements LocationResolver {
         return location;
       }
     }
-    return null;
+    return catalogLocations.get(normalized);
+  }
+
+  /** Reads {@code identification,maxNumberOfWarehouses,maxCapacity} lines, header optional. */
+  static Map<String, Location> readCatalog(Path file) {
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read location catalog " + file, e);
+    }
+
+    Map<String, Location> read = new HashMap<>(lines.size() * 2);
+    for (String line : lines) {
+      if (line.isBlank() || line.startsWith("identification")) {
+        continue;
+      }
+      String[] fields = line.split(",");
+      if (fields.length != 3) {
+        throw new IllegalStateException("Malformed location catalog line in " + file + ": " + line);
+      }
+      String id = fields[0].trim();
+      read.put(id, new Location(id, Integer.parseInt(fields[1].trim()), Integer.parseInt(fields[2].trim())));
+    }
+    return read;
   }
 }
@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 
 @Entity
@@ -24,6 +25,8 @@ public class Product {
 
   public int stock;
 
+  @Version public long version;
+
   public Product() {}
 
   public Product(String name) {
@@ -1,7 +1,8 @@
 package com.fulfilment.application.monolith.products;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fulfilment.application.monolith.api.ApiMediaTypes;
+import com.fulfilment.application.monolith.common.ConditionalRequests;
+import com.fulfilment.application.monolith.common.ReadOnly;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -14,35 +15,46 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import jakarta.ws.rs.ext.ExceptionMapper;
-import jakarta.ws.rs.ext.Provider;
 import java.util.List;
-import org.jboss.logging.Logger;
 
 @Path("product")
 @ApplicationScoped
-@Produces("application/json")
+@Produces({MediaType.APPLICATION_JSON, ApiMediaTypes.CBOR, ApiMediaTypes.PROTOBUF})
 @Consumes("application/json")
 public class ProductResource {
 
   @Inject ProductRepository productRepository;
 
-  private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
-
   @GET
+  @ReadOnly
   public List<Product> get() {
     return productRepository.listAll(Sort.by("name"));
   }
 
   @GET
   @Path("{id}")
-  public Product getSingle(Long id) {
+  @ReadOnly
+  public Response getSingle(Long id, @Context HttpHeaders headers) {
+    if (ConditionalRequests.hasValidators(headers)) {
+      // check the validator with a version projection before loading the entity
+      Long version = productRepository.findVersionById(id);
+      if (version != null) {
+        Response notModified = ConditionalRequests.notModified(headers, id, version, null);
+        if (notModified != null) {
+          return notModified;
+        }
+      }
+    }
+
     Product entity = productRepository.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    return Response.ok(entity).tag(ConditionalRequests.entityTag(entity.id, entity.version)).build();
   }
 
   @POST
@@ -91,30 +103,4 @@ public class ProductResource {
     productRepository.delete(entity);
     return Response.status(204).build();
   }
-
-  @Provider
-  public static class ErrorMapper implements ExceptionMapper<Exception> {
-
-    @Inject ObjectMapper objectMapper;
-
-    @Override
-    public Response toResponse(Exception exception) {
-      LOGGER.error("Failed to handle request", exception);
-
-      int code = 500;
-      if (exception instanceof WebApplicationException) {
-        code = ((WebApplicationException) exception).getResponse().getStatus();
-      }
-
-      ObjectNode exceptionJson = objectMapper.createObjectNode();
-      exceptionJson.put("exceptionType", exception.getClass().getName());
-      exceptionJson.put("code", code);
-
-      if (exception.getMessage() != null) {
-        exceptionJson.put("error", exception.getMessage());
-      }
-
-      return Response.status(code).entity(exceptionJson).build();
-    }
-  }
 }
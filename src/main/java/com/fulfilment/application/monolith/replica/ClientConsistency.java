@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.replica;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/** The time of the calling client's last write, from its {@link ReadYourWritesFilter#COOKIE}. */
+@RequestScoped
+public class ClientConsistency {
+
+  private long fence;
+
+  public long fence() {
+    return fence;
+  }
+
+  void fence(long fenceMillis) {
+    this.fence = fenceMillis;
+  }
+}
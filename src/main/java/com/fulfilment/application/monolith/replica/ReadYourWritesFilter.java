@@ -0,0 +1,64 @@
+package com.fulfilment.application.monolith.replica;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.NewCookie;
+import java.time.Duration;
+import java.util.Set;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+/**
+ * Gives a client that has just written a cookie with the time of the write; its reads then stay
+ * on the primary until the replica has caught up with that time.
+ */
+public class ReadYourWritesFilter {
+
+  static final String COOKIE = "replica-fence";
+
+  private static final Set<String> WRITES = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+  @ConfigProperty(name = "replica.enabled", defaultValue = "false")
+  boolean enabled;
+
+  // longer than the replica may lag, after that the replica has caught up anyway
+  @ConfigProperty(name = "replica.fence-ttl", defaultValue = "30s")
+  Duration fenceTtl;
+
+  @Inject ClientConsistency consistency;
+
+  @ServerRequestFilter
+  public void readFence(ContainerRequestContext request) {
+    if (!enabled) {
+      return;
+    }
+    Cookie cookie = request.getCookies().get(COOKIE);
+    if (cookie != null) {
+      try {
+        consistency.fence(Long.parseLong(cookie.getValue()));
+      } catch (NumberFormatException ignored) {
+        // not ours, treated as no fence
+      }
+    }
+  }
+
+  @ServerResponseFilter
+  public void writeFence(ContainerRequestContext request, ContainerResponseContext response) {
+    if (!enabled || !WRITES.contains(request.getMethod()) || response.getStatus() >= 400) {
+      return;
+    }
+    // set once the response is ready, so after the commit
+    NewCookie fence =
+        new NewCookie.Builder(COOKIE)
+            .value(Long.toString(System.currentTimeMillis()))
+            .path("/")
+            .maxAge((int) fenceTtl.toSeconds())
+            .httpOnly(true)
+            .build();
+    response.getHeaders().add(HttpHeaders.SET_COOKIE, fence);
+  }
+}
@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.replica;
+
+import java.util.ArrayDeque;
+
+/**
+ * Tracks up to which point in time the replica is known to hold every commit of the primary:
+ * the primary's WAL position is sampled with the time it was read, and once the replica has
+ * replayed past a sampled position, everything committed before that time is on the replica.
+ */
+final class ReplicaFreshness {
+
+  // samples the replica has not replayed yet, oldest first; beyond this the oldest are dropped,
+  // which only makes the replica look staler than it is
+  static final int MAX_PENDING = 1_000;
+
+  private final ArrayDeque<long[]> pending = new ArrayDeque<>();
+  private volatile long freshAsOf = Long.MIN_VALUE;
+
+  synchronized void primaryAt(long observedAtMillis, long lsn) {
+    if (pending.size() == MAX_PENDING) {
+      pending.removeFirst();
+    }
+    pending.addLast(new long[] {observedAtMillis, lsn});
+  }
+
+  synchronized void replicaReplayed(long lsn) {
+    while (!pending.isEmpty() && Long.compareUnsigned(pending.peekFirst()[1], lsn) <= 0) {
+      freshAsOf = Math.max(freshAsOf, pending.removeFirst()[0]);
+    }
+  }
+
+  /** Every commit made before this time (epoch millis) is on the replica. */
+  long freshAsOf() {
+    return freshAsOf;
+  }
+
+  /** Parses a PostgreSQL {@code pg_lsn}, e.g. {@code 16/B374D848}. */
+  static long parseLsn(String lsn) {
+    int slash = lsn.indexOf('/');
+    if (slash <= 0) {
+      throw new IllegalArgumentException("Not a WAL position: " + lsn);
+    }
+    return Long.parseLong(lsn.substring(0, slash), 16) << 32 | Long.parseLong(lsn.substring(slash + 1), 16);
+  }
+}
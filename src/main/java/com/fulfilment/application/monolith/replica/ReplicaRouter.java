@@ -0,0 +1,148 @@
+package com.fulfilment.application.monolith.replica;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Decides whether a read may go to the replica datasource. The replica's lag is measured in the
+ * background by comparing the primary's WAL position with the position the replica has
+ * replayed; reads go to the primary while the replica is more than {@code replica.max-lag}
+ * behind, and for a client whose own write the replica has not replayed yet (read-your-writes,
+ * see {@link ReadYourWritesFilter}).
+ */
+@ApplicationScoped
+public class ReplicaRouter {
+
+  private static final Logger LOGGER = Logger.getLogger(ReplicaRouter.class.getName());
+
+  @ConfigProperty(name = "replica.enabled", defaultValue = "false")
+  boolean enabled;
+
+  @ConfigProperty(name = "replica.datasource", defaultValue = "replica")
+  String datasource;
+
+  @ConfigProperty(name = "replica.max-lag", defaultValue = "1s")
+  Duration maxLag;
+
+  @ConfigProperty(name = "replica.check-interval", defaultValue = "250ms")
+  Duration checkInterval;
+
+  @Inject AgroalDataSource primary;
+  @Inject @Any Instance<AgroalDataSource> dataSources;
+  @Inject MeterRegistry registry;
+
+  private final ReplicaFreshness freshness = new ReplicaFreshness();
+  private AgroalDataSource replica;
+  private volatile boolean running;
+  private boolean warned;
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled) {
+      return;
+    }
+    replica = dataSources.select(new DataSource.DataSourceLiteral(datasource)).get();
+    registry.gauge("replica.staleness", this, r -> r.staleness().toMillis() / 1000.0);
+
+    running = true;
+    Thread monitor = new Thread(this::monitor, "replica-lag-monitor");
+    monitor.setDaemon(true);
+    monitor.start();
+  }
+
+  @PreDestroy
+  void stop() {
+    running = false;
+  }
+
+  /** The datasource (tenant) name of the replica. */
+  public String datasource() {
+    return datasource;
+  }
+
+  /** Whether the replica may serve a read of a client whose last write was at {@code fenceMillis}. */
+  public boolean canServe(long fenceMillis) {
+    if (!enabled) {
+      return false;
+    }
+    long freshAsOf = freshness.freshAsOf();
+    return freshAsOf >= fenceMillis && System.currentTimeMillis() - freshAsOf <= maxLag.toMillis();
+  }
+
+  /** How far behind the primary the replica is known to be, at most. */
+  public Duration staleness() {
+    long freshAsOf = freshness.freshAsOf();
+    return freshAsOf == Long.MIN_VALUE
+        ? Duration.ofDays(1)
+        : Duration.ofMillis(Math.max(0, System.currentTimeMillis() - freshAsOf));
+  }
+
+  ReplicaFreshness freshness() {
+    return freshness;
+  }
+
+  void monitor() {
+    while (running) {
+      try {
+        check();
+        Thread.sleep(checkInterval.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (SQLException | RuntimeException e) {
+        // reads stay on the primary until the replica answers again
+        LOGGER.debugf(e, "Replica lag check failed");
+        sleepQuietly();
+      }
+    }
+  }
+
+  void check() throws SQLException {
+    // the primary first: once the replica has replayed past this position, it holds every
+    // commit made before the time it was read
+    long observedAt = System.currentTimeMillis();
+    String primaryLsn = queryLsn(primary, "select cast(pg_current_wal_lsn() as text)");
+    freshness.primaryAt(observedAt, ReplicaFreshness.parseLsn(primaryLsn));
+
+    String replayed = queryLsn(replica, "select cast(pg_last_wal_replay_lsn() as text)");
+    if (replayed == null) {
+      if (!warned) {
+        warned = true;
+        LOGGER.warnf("Datasource %s is not a streaming replica, reads stay on the primary", datasource);
+      }
+      return;
+    }
+    freshness.replicaReplayed(ReplicaFreshness.parseLsn(replayed));
+  }
+
+  private static String queryLsn(AgroalDataSource dataSource, String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery(sql)) {
+      return result.next() ? result.getString(1) : null;
+    }
+  }
+
+  private void sleepQuietly() {
+    try {
+      Thread.sleep(checkInterval.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
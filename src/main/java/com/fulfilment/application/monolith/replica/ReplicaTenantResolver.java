@@ -0,0 +1,43 @@
+package com.fulfilment.application.monolith.replica;
+
+import com.fulfilment.application.monolith.common.ReadOnlyInterceptor;
+import com.fulfilment.application.monolith.sharding.Shards;
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Picks the datasource of each Hibernate session (the persistence unit runs with DATABASE
+ * multitenancy, a tenant being a datasource name): the shard the thread works on (see {@link
+ * Shards}), and on the primary shard the replica for a {@code @ReadOnly} read path the replica is
+ * fresh enough for.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class ReplicaTenantResolver implements TenantResolver {
+
+  @Inject ReplicaRouter router;
+  @Inject ClientConsistency consistency;
+  @Inject Shards shards;
+
+  @Override
+  public String getDefaultTenantId() {
+    return Shards.PRIMARY;
+  }
+
+  @Override
+  public String resolveTenantId() {
+    String shard = Shards.current();
+    shards.opened(shard);
+    if (!Shards.PRIMARY.equals(shard)) {
+      return shard;
+    }
+    if (!ReadOnlyInterceptor.isActive()) {
+      return Shards.PRIMARY;
+    }
+    long fence = Arc.container().requestContext().isActive() ? consistency.fence() : 0;
+    return router.canServe(fence) ? router.datasource() : Shards.PRIMARY;
+  }
+}
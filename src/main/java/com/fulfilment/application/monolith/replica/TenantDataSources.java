@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.replica;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.datasource.common.runtime.DataSourceUtil;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.customized.QuarkusConnectionProvider;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantConnectionResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+/**
+ * Opens the sessions of a tenant (see {@link ReplicaTenantResolver}) on the datasource of that
+ * name. The built-in resolver only finds named datasources, while the primary is the default one.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class TenantDataSources implements TenantConnectionResolver {
+
+  @Inject AgroalDataSource primary;
+  @Inject @Any Instance<AgroalDataSource> dataSources;
+
+  @Override
+  public ConnectionProvider resolve(String tenantId) {
+    AgroalDataSource dataSource =
+        DataSourceUtil.isDefault(tenantId)
+            ? primary
+            : dataSources.select(new DataSource.DataSourceLiteral(tenantId)).get();
+    return new QuarkusConnectionProvider(dataSource);
+  }
+}
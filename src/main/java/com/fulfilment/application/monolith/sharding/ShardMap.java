@@ -0,0 +1,67 @@
+package com.fulfilment.application.monolith.sharding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Which shard (datasource) holds the warehouses of a location. The region of a location is its
+ * identifier up to the last dash, {@code ZWOLLE-001} is in {@code ZWOLLE}; regions without an
+ * entry stay on the primary.
+ */
+final class ShardMap {
+
+  private final String primary;
+  private final Map<String, String> shardByRegion;
+  private final List<String> shards;
+
+  private ShardMap(String primary, Map<String, String> shardByRegion) {
+    this.primary = primary;
+    this.shardByRegion = Map.copyOf(shardByRegion);
+    List<String> all = new ArrayList<>();
+    all.add(primary);
+    shardByRegion.values().stream().distinct().sorted().filter(s -> !s.equals(primary)).forEach(all::add);
+    this.shards = List.copyOf(all);
+  }
+
+  /** Parses {@code REGION=datasource} entries. */
+  static ShardMap parse(String primary, List<String> entries) {
+    Map<String, String> shardByRegion = new HashMap<>();
+    for (String entry : entries) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      int eq = entry.indexOf('=');
+      if (eq <= 0 || eq == entry.length() - 1) {
+        throw new IllegalArgumentException("Expected REGION=datasource in sharding.regions: " + entry);
+      }
+      String region = entry.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+      String shard = entry.substring(eq + 1).trim();
+      String previous = shardByRegion.put(region, shard);
+      if (previous != null && !previous.equals(shard)) {
+        throw new IllegalArgumentException("Region " + region + " is mapped to both " + previous + " and " + shard);
+      }
+    }
+    return new ShardMap(primary, shardByRegion);
+  }
+
+  static String regionOf(String location) {
+    String id = location.trim().toUpperCase(Locale.ROOT);
+    int dash = id.lastIndexOf('-');
+    return dash > 0 ? id.substring(0, dash) : id;
+  }
+
+  String shardOf(String location) {
+    if (location == null || location.isBlank()) {
+      return primary;
+    }
+    return shardByRegion.getOrDefault(regionOf(location), primary);
+  }
+
+  /** Every shard, the primary first. */
+  List<String> shards() {
+    return shards;
+  }
+}
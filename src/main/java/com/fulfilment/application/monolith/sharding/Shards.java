@@ -0,0 +1,299 @@
+package com.fulfilment.application.monolith.sharding;
+
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
+import com.fulfilment.application.monolith.common.ReadOnlyInterceptor;
+import io.opentelemetry.context.Context;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableContext.ContextState;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.datasource.common.runtime.DataSourceUtil;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Runs warehouse and fulfilment work against the shard of a location, see {@link ShardMap}.
+ * Stores and products are reference data and stay on the primary.
+ *
+ * <p>The Hibernate session of a transaction is opened on the shard of its first statement (see
+ * the tenant resolver), so a transaction works on one shard: {@link #on} refuses a shard other
+ * than the one the transaction already uses, and reads of other shards run in transactions of
+ * their own ({@link #isolated}, {@link #scatter}). With no {@code sharding.regions} everything
+ * runs in place on the primary, exactly as without sharding.
+ */
+@ApplicationScoped
+public class Shards {
+
+  /**
+   * The default datasource, holding the reference data and every unmapped region. With DATABASE
+   * multitenancy a tenant id names a datasource, and the default one goes by this name.
+   */
+  public static final String PRIMARY = DataSourceUtil.DEFAULT_DATASOURCE_NAME;
+
+  private static final String BOUND = Shards.class.getName() + ".shard";
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  @ConfigProperty(name = "sharding.regions")
+  Optional<List<String>> regions;
+
+  @Inject TransactionSynchronizationRegistry txSyncRegistry;
+  @Inject EntityManager em;
+
+  private ShardMap map;
+  private ExecutorService scatterPool;
+
+  @PostConstruct
+  void init() {
+    map = ShardMap.parse(PRIMARY, regions.orElse(List.of()));
+    if (sharded()) {
+      scatterPool =
+          Executors.newCachedThreadPool(
+              r -> {
+                Thread thread = new Thread(r, "shard-scatter");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+  }
+
+  @PreDestroy
+  void stop() {
+    if (scatterPool != null) {
+      scatterPool.shutdownNow();
+    }
+  }
+
+  /** The shard the current thread works on, which the session opened next is opened on. */
+  public static String current() {
+    String shard = CURRENT.get();
+    return shard == null ? PRIMARY : shard;
+  }
+
+  public boolean sharded() {
+    return map.shards().size() > 1;
+  }
+
+  /** Every shard, the primary first. */
+  public List<String> all() {
+    return map.shards();
+  }
+
+  public String shardOf(String location) {
+    return map.shardOf(location);
+  }
+
+  /** Records the shard the session of the current transaction was opened on. */
+  public void opened(String shard) {
+    if (sharded()
+        && txSyncRegistry.getTransactionStatus() == Status.STATUS_ACTIVE
+        && txSyncRegistry.getResource(BOUND) == null) {
+      txSyncRegistry.putResource(BOUND, shard);
+    }
+  }
+
+  /**
+   * Runs {@code work} in the current transaction on {@code shard}, or in a new one when there is
+   * none. A transaction that already used another shard gets a 409: without two-phase commit a
+   * write cannot span shards.
+   */
+  public <T> T on(String shard, Supplier<T> work) {
+    if (!sharded()) {
+      return work.get();
+    }
+    if (!QuarkusTransaction.isActive()) {
+      return isolated(shard, work);
+    }
+    String bound = bound();
+    if (bound != null && !bound.equals(shard)) {
+      throw new DomainViolationException(
+          Reason.CROSS_SHARD,
+          "The change spans shards " + bound + " and " + shard + ", a transaction can only change one.",
+          409);
+    }
+    return withShard(shard, work);
+  }
+
+  /** Reads reference data: in place when the transaction is on the primary, else in a transaction of its own. */
+  public <T> T onPrimary(Supplier<T> work) {
+    if (!sharded() || PRIMARY.equals(bound())) {
+      return work.get();
+    }
+    return isolated(PRIMARY, work);
+  }
+
+  /** Runs {@code work} on {@code shard} in a new transaction, the current one (if any) suspended. */
+  public <T> T isolated(String shard, Supplier<T> work) {
+    // the tenant of a session is only resolved in a request context, which background work lacks
+    ManagedContext requestContext = Arc.container().requestContext();
+    if (requestContext.isActive()) {
+      return QuarkusTransaction.requiringNew().call(() -> withShard(shard, work));
+    }
+    requestContext.activate();
+    try {
+      return QuarkusTransaction.requiringNew().call(() -> withShard(shard, work));
+    } finally {
+      requestContext.terminate();
+    }
+  }
+
+  /**
+   * Runs {@code work} on every shard and returns the results in {@link #all()} order. The shard
+   * of the current transaction is read in place, so the caller sees its own uncommitted
+   * changes; the others are read in parallel, each in a transaction of its own.
+   */
+  public <T> List<T> scatter(Supplier<T> work) {
+    if (!sharded()) {
+      return Collections.singletonList(work.get());
+    }
+
+    String bound = bound();
+    // the other shards are read as the caller reads: in its request context (a client's read
+    // fence, see ReplicaTenantResolver) and, on a read path, read-only
+    ContextState requestState = Arc.container().requestContext().isActive()
+        ? Arc.container().requestContext().getState()
+        : null;
+    Supplier<T> remoteWork = ReadOnlyInterceptor.isActive() ? readOnly(work) : work;
+    Map<String, Future<T>> remote = new LinkedHashMap<>();
+    for (String shard : map.shards()) {
+      if (!shard.equals(bound)) {
+        remote.put(
+            shard,
+            scatterPool.submit(
+                Context.current().wrap(() -> inRequestContext(requestState, () -> isolated(shard, remoteWork)))));
+      }
+    }
+
+    T local;
+    try {
+      local = bound == null ? null : withShard(bound, work);
+    } catch (RuntimeException e) {
+      remote.values().forEach(f -> f.cancel(true));
+      throw e;
+    }
+
+    List<T> results = new ArrayList<>(map.shards().size());
+    for (String shard : map.shards()) {
+      results.add(shard.equals(bound) ? local : await(remote.get(shard)));
+    }
+    return results;
+  }
+
+  /**
+   * {@link #scatter} for reads a write goes on to act on. A write transaction not bound to a shard
+   * yet read every shard in other transactions, so the one shard with a result ({@code found}) is
+   * read again in place: that binds the transaction to it, and the write works from what its own
+   * transaction read. Results on more than one shard are returned as read, the write refuses them
+   * anyway.
+   */
+  public <T> List<T> scatterForWrite(Supplier<T> work, Predicate<T> found) {
+    List<T> results = scatter(work);
+    if (!sharded() || bound() != null || !QuarkusTransaction.isActive() || ReadOnlyInterceptor.isActive()) {
+      return results;
+    }
+    int foundOn = -1;
+    for (int i = 0; i < results.size(); i++) {
+      if (found.test(results.get(i))) {
+        if (foundOn >= 0) {
+          return results;
+        }
+        foundOn = i;
+      }
+    }
+    if (foundOn >= 0) {
+      results = new ArrayList<>(results);
+      results.set(foundOn, withShard(map.shards().get(foundOn), work));
+    }
+    return results;
+  }
+
+  /** {@link #scatter} for counts. */
+  public long sum(LongSupplier work) {
+    long sum = 0;
+    for (Long count : scatter(work::getAsLong)) {
+      sum += count;
+    }
+    return sum;
+  }
+
+  String bound() {
+    return txSyncRegistry.getTransactionStatus() == Status.STATUS_ACTIVE
+        ? (String) txSyncRegistry.getResource(BOUND)
+        : null;
+  }
+
+  private <T> Supplier<T> readOnly(Supplier<T> work) {
+    return () -> {
+      try {
+        return ReadOnlyInterceptor.inReadOnlySession(em, work::get);
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        // work::get throws no checked exception
+        throw new IllegalStateException(e);
+      }
+    };
+  }
+
+  private static <T> T inRequestContext(ContextState state, Supplier<T> work) {
+    if (state == null) {
+      return work.get();
+    }
+    ManagedContext requestContext = Arc.container().requestContext();
+    requestContext.activate(state);
+    try {
+      return work.get();
+    } finally {
+      // the caller's context, it ends with the caller's request
+      requestContext.deactivate();
+    }
+  }
+
+  private static <T> T withShard(String shard, Supplier<T> work) {
+    String previous = CURRENT.get();
+    CURRENT.set(shard);
+    try {
+      return work.get();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  private static <T> T await(Future<T> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WebApplicationException("Interrupted while reading the shards", 503);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
@@ -1,5 +1,10 @@
 package com.fulfilment.application.monolith.stores;
 
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Status;
@@ -10,12 +15,31 @@ import jakarta.transaction.TransactionSynchronizationRegistry;
 public class AfterCommitExecutor {
 
     @Inject TransactionSynchronizationRegistry txSyncRegistry;
+    @Inject Tracer tracer;
 
     public void runAfterCommit(Runnable action) {
+        runAfterCommit("after-commit", action);
+    }
+
+    /**
+     * Runs {@code action} once the current transaction committed, in its own span named
+     * {@code spanName}. That span starts a new trace linked to the span that scheduled it, so the
+     * deferred work shows up next to the request without stretching the request's duration.
+     */
+    public void runAfterCommit(String spanName, Runnable action) {
+        runAfterCompletion(spanName, action, null);
+    }
+
+    /**
+     * {@link #runAfterCommit(String, Runnable)} that runs {@code onRollback}, when given, if the
+     * current transaction does not commit instead.
+     */
+    public void runAfterCompletion(String spanName, Runnable action, Runnable onRollback) {
         if (action == null) {
             return;
         }
 
+        Runnable traced = traced(spanName, Span.current().getSpanContext(), action);
         try {
             int status = txSyncRegistry.getTransactionStatus();
             if (status == Status.STATUS_ACTIVE) {
@@ -29,7 +53,9 @@ public class AfterCommitExecutor {
                             @Override
                             public void afterCompletion(int completionStatus) {
                                 if (completionStatus == Status.STATUS_COMMITTED) {
-                                    action.run();
+                                    traced.run();
+                                } else if (onRollback != null) {
+                                    onRollback.run();
                                 }
                             }
                         });
@@ -40,6 +66,28 @@ public class AfterCommitExecutor {
         }
 
         // If there is no active transaction, execute immediately.
-        action.run();
+        traced.run();
+    }
+
+    private Runnable traced(String spanName, SpanContext origin, Runnable action) {
+        if (tracer == null) {
+            return action;
+        }
+        return () -> {
+            var builder = tracer.spanBuilder(spanName).setNoParent();
+            if (origin.isValid()) {
+                builder.addLink(origin);
+            }
+            Span span = builder.startSpan();
+            try (Scope ignored = span.makeCurrent()) {
+                action.run();
+            } catch (RuntimeException e) {
+                span.recordException(e);
+                span.setStatus(StatusCode.ERROR);
+                throw e;
+            } finally {
+                span.end();
+            }
+        };
     }
 }
@@ -4,6 +4,7 @@ import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Version;
 
 @Entity
 @Cacheable
@@ -14,9 +15,20 @@ public class Store extends PanacheEntity {
 
   public int quantityProductsInStock;
 
+  @Version public long version;
+
   public Store() {}
 
   public Store(String name) {
     this.name = name;
   }
+
+  public static Long findVersionById(Long id) {
+    return getEntityManager()
+        .createQuery("select s.version from Store s where s.id = :id", Long.class)
+        .setParameter("id", id)
+        .getResultStream()
+        .findFirst()
+        .orElse(null);
+  }
 }
@@ -1,7 +1,10 @@
 package com.fulfilment.application.monolith.stores;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fulfilment.application.monolith.api.ApiMediaTypes;
+import com.fulfilment.application.monolith.changes.ChangeEvent;
+import com.fulfilment.application.monolith.changes.ChangeFeed;
+import com.fulfilment.application.monolith.common.ConditionalRequests;
+import com.fulfilment.application.monolith.common.ReadOnly;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -15,36 +18,48 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import jakarta.ws.rs.ext.ExceptionMapper;
-import jakarta.ws.rs.ext.Provider;
 import java.util.List;
-import org.jboss.logging.Logger;
 
 @Path("store")
 @ApplicationScoped
-@Produces("application/json")
+@Produces({MediaType.APPLICATION_JSON, ApiMediaTypes.CBOR, ApiMediaTypes.PROTOBUF})
 @Consumes("application/json")
 public class StoreResource {
 
   @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
   @Inject AfterCommitExecutor afterCommitExecutor;
-
-  private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
+  @Inject ChangeFeed changeFeed;
 
   @GET
+  @ReadOnly
   public List<Store> get() {
     return Store.listAll(Sort.by("name"));
   }
 
   @GET
   @Path("{id}")
-  public Store getSingle(Long id) {
+  @ReadOnly
+  public Response getSingle(Long id, @Context HttpHeaders headers) {
+    if (ConditionalRequests.hasValidators(headers)) {
+      // check the validator with a version projection before loading the entity
+      Long version = Store.findVersionById(id);
+      if (version != null) {
+        Response notModified = ConditionalRequests.notModified(headers, id, version, null);
+        if (notModified != null) {
+          return notModified;
+        }
+      }
+    }
+
     Store entity = Store.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    return Response.ok(entity).tag(ConditionalRequests.entityTag(entity.id, entity.version)).build();
   }
 
   @POST
@@ -57,7 +72,9 @@ public class StoreResource {
     store.persist();
 
     Store snapshot = snapshotOf(store);
-    afterCommitExecutor.runAfterCommit(() -> legacyStoreManagerGateway.createStoreOnLegacySystem(snapshot));
+    afterCommitExecutor.runAfterCommit(
+        "legacy-store-sync create", () -> legacyStoreManagerGateway.createStoreOnLegacySystem(snapshot));
+    publishChange("CREATED", snapshot);
 
     return Response.ok(store).status(201).build();
   }
@@ -79,7 +96,9 @@ public class StoreResource {
     entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
 
     Store snapshot = snapshotOf(entity);
-    afterCommitExecutor.runAfterCommit(() -> legacyStoreManagerGateway.updateStoreOnLegacySystem(snapshot));
+    afterCommitExecutor.runAfterCommit(
+        "legacy-store-sync update", () -> legacyStoreManagerGateway.updateStoreOnLegacySystem(snapshot));
+    publishChange("UPDATED", snapshot);
 
     return entity;
   }
@@ -106,7 +125,9 @@ public class StoreResource {
     }
 
     Store snapshot = snapshotOf(entity);
-    afterCommitExecutor.runAfterCommit(() -> legacyStoreManagerGateway.updateStoreOnLegacySystem(snapshot));
+    afterCommitExecutor.runAfterCommit(
+        "legacy-store-sync update", () -> legacyStoreManagerGateway.updateStoreOnLegacySystem(snapshot));
+    publishChange("UPDATED", snapshot);
 
     return entity;
   }
@@ -119,6 +140,10 @@ public class StoreResource {
     return snapshot;
   }
 
+  private void publishChange(String type, Store snapshot) {
+    changeFeed.publishAfterCommit(ChangeEvent.STORE, type, String.valueOf(snapshot.id), null, snapshot);
+  }
+
   @DELETE
   @Path("{id}")
   @Transactional
@@ -131,33 +156,8 @@ public class StoreResource {
     entity.delete();
 
     afterCommitExecutor.runAfterCommit(
-        () -> legacyStoreManagerGateway.updateStoreOnLegacySystem(snapshot));
+        "legacy-store-sync delete", () -> legacyStoreManagerGateway.updateStoreOnLegacySystem(snapshot));
+    publishChange("DELETED", snapshot);
     return Response.status(204).build();
   }
-
-  @Provider
-  public static class ErrorMapper implements ExceptionMapper<Exception> {
-
-    @Inject ObjectMapper objectMapper;
-
-    @Override
-    public Response toResponse(Exception exception) {
-      LOGGER.error("Failed to handle request", exception);
-
-      int code = 500;
-      if (exception instanceof WebApplicationException) {
-        code = ((WebApplicationException) exception).getResponse().getStatus();
-      }
-
-      ObjectNode exceptionJson = objectMapper.createObjectNode();
-      exceptionJson.put("exceptionType", exception.getClass().getName());
-      exceptionJson.put("code", code);
-
-      if (exception.getMessage() != null) {
-        exceptionJson.put("error", exception.getMessage());
-      }
-
-      return Response.status(code).entity(exceptionJson).build();
-    }
-  }
 }
@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.summary;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dashboard row of an active warehouse: its own fields, the limits of its location, how full it
+ * is ({@code stock / capacity}, {@code null} without a capacity) and how many distinct stores
+ * and products are assigned to it.
+ */
+public record WarehouseSummary(
+    String businessUnitCode,
+    String location,
+    Integer capacity,
+    Integer stock,
+    Double utilization,
+    Integer locationMaxWarehouses,
+    Integer locationMaxCapacity,
+    int stores,
+    int products,
+    LocalDateTime createdAt) {}
@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith.summary;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.Comparator;
+import java.util.List;
+
+@Path("warehouse-summary")
+@ApplicationScoped
+@Produces("application/json")
+public class WarehouseSummaryResource {
+
+  @Inject WarehouseSummaryView view;
+
+  @GET
+  public List<WarehouseSummary> list(@QueryParam("location") String location) {
+    return view.all().stream()
+        .filter(s -> location == null || location.equals(s.location()))
+        .sorted(Comparator.comparing(WarehouseSummary::businessUnitCode))
+        .toList();
+  }
+
+  @GET
+  @Path("{businessUnitCode}")
+  public WarehouseSummary get(String businessUnitCode) {
+    WarehouseSummary summary = view.find(businessUnitCode);
+    if (summary == null) {
+      throw new WebApplicationException("Active warehouse not found: " + businessUnitCode, 404);
+    }
+    return summary;
+  }
+}
@@ -0,0 +1,284 @@
+package com.fulfilment.application.monolith.summary;
+
+import com.fulfilment.application.monolith.fulfilment.FulfilmentAssignmentRepository;
+import com.fulfilment.application.monolith.fulfilment.WarehouseAssignmentCounts;
+import com.fulfilment.application.monolith.sharding.Shards;
+import com.fulfilment.application.monolith.stores.AfterCommitExecutor;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventFeed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Read model behind {@code GET /warehouse-summary}. It is built from the database once at
+ * startup, then kept current from the committed warehouse lifecycle events and fulfilment
+ * assignments, so reads never touch the write tables. Each row is immutable and replaced as a
+ * whole, so a reader never sees half an update.
+ *
+ * <p>The events are this process's own, so the view follows the changes made through this
+ * instance only, and an event the log failed to record is missed. Every {@code
+ * warehouse.summary.reconcile-interval} the view is rebuilt from the tables; the rows that
+ * rebuild corrects are counted in {@code warehouse.summary.drift}, and {@code
+ * warehouse.summary.staleness} is the time since the last one succeeded.
+ */
+@ApplicationScoped
+public class WarehouseSummaryView {
+
+  private static final Logger LOGGER = Logger.getLogger(WarehouseSummaryView.class.getName());
+
+  @ConfigProperty(name = "warehouse.summary.reconcile-interval", defaultValue = "5m")
+  Duration reconcileInterval;
+
+  @Inject WarehouseRepository warehouseRepository;
+  @Inject FulfilmentAssignmentRepository assignmentRepository;
+  @Inject LocationResolver locationResolver;
+  @Inject WarehouseEventFeed warehouseEvents;
+  @Inject AfterCommitExecutor afterCommitExecutor;
+  @Inject Shards shards;
+  @Inject MeterRegistry registry;
+
+  private final Map<String, WarehouseSummary> rows = new ConcurrentHashMap<>();
+  private final Object lock = new Object();
+  // what the rows are derived from, guarded by lock
+  private final Map<String, Footprint> footprints = new HashMap<>();
+  // changes that arrive while rebuilding, applied on top of the rebuilt state
+  private List<Runnable> deferred;
+  private Counter drift;
+  // when the last rebuild read the tables, 0 before the first one
+  private volatile long rebuiltAt;
+  private volatile boolean running;
+
+  void onStart(@Observes StartupEvent event) {
+    drift = registry.counter("warehouse.summary.drift");
+    registry.gauge("warehouse.summary.staleness", this, v -> (System.currentTimeMillis() - v.rebuiltAt) / 1000.0);
+    warehouseEvents.follow(this::onWarehouseEvent);
+    rebuild();
+
+    running = true;
+    Thread reconciler = new Thread(this::reconcile, "warehouse-summary-reconcile");
+    reconciler.setDaemon(true);
+    reconciler.start();
+  }
+
+  @PreDestroy
+  void stop() {
+    running = false;
+  }
+
+  public Collection<WarehouseSummary> all() {
+    return rows.values();
+  }
+
+  public WarehouseSummary find(String businessUnitCode) {
+    return rows.get(businessUnitCode);
+  }
+
+  /**
+   * Counts the assignment once the current transaction commits; {@code newStore} and {@code
+   * newProduct} tell whether the warehouse did not fulfil the store, or hold the product, before.
+   */
+  public void assignmentAdded(String businessUnitCode, boolean newStore, boolean newProduct) {
+    afterCommitExecutor.runAfterCommit(
+        "warehouse-summary assignment",
+        () ->
+            apply(
+                () -> {
+                  Footprint footprint = footprints.get(businessUnitCode);
+                  if (footprint != null && (newStore || newProduct)) {
+                    footprint.stores += newStore ? 1 : 0;
+                    footprint.products += newProduct ? 1 : 0;
+                    publish(footprint);
+                  }
+                }));
+  }
+
+  /** Reloads every row from the database, e.g. after the tables were changed behind the application's back. */
+  public synchronized void rebuild() {
+    synchronized (lock) {
+      deferred = new ArrayList<>();
+    }
+    long startedAt = System.currentTimeMillis();
+    Map<String, Footprint> loaded;
+    try {
+      loaded = QuarkusTransaction.requiringNew().call(this::load);
+    } catch (RuntimeException e) {
+      synchronized (lock) {
+        deferred.forEach(Runnable::run);
+        deferred = null;
+      }
+      throw e;
+    }
+    synchronized (lock) {
+      footprints.clear();
+      footprints.putAll(loaded);
+      int drifted = 0;
+      for (String businessUnitCode : rows.keySet()) {
+        if (!loaded.containsKey(businessUnitCode)) {
+          rows.remove(businessUnitCode);
+          drifted++;
+        }
+      }
+      for (Footprint footprint : loaded.values()) {
+        drifted += publish(footprint) ? 1 : 0;
+      }
+      if (rebuiltAt != 0 && drifted > 0) {
+        drift.increment(drifted);
+        LOGGER.warnf("Warehouse summary rebuild corrected %d rows", drifted);
+      }
+      rebuiltAt = startedAt;
+
+      List<Runnable> changes = deferred;
+      deferred = null;
+      changes.forEach(Runnable::run);
+    }
+  }
+
+  void reconcile() {
+    while (running) {
+      try {
+        Thread.sleep(reconcileInterval.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      // the tenant of a session is only resolved in a request context
+      ManagedContext requestContext = Arc.container().requestContext();
+      requestContext.activate();
+      try {
+        rebuild();
+      } catch (RuntimeException e) {
+        // the rows stay as they are, the staleness gauge keeps growing
+        LOGGER.warnf(e, "Could not reconcile the warehouse summary");
+      } finally {
+        requestContext.terminate();
+      }
+    }
+  }
+
+  private Map<String, Footprint> load() {
+    // warehouse ids are only unique within a shard, so each shard is joined on its own
+    Map<String, Footprint> byCode = new HashMap<>();
+    shards.scatter(this::loadShard).forEach(byCode::putAll);
+    return byCode;
+  }
+
+  private Map<String, Footprint> loadShard() {
+    Map<Long, Footprint> byId = new HashMap<>();
+    for (DbWarehouse warehouse : warehouseRepository.list("archivedAt is null")) {
+      byId.put(
+          warehouse.id,
+          new Footprint(
+              warehouse.businessUnitCode,
+              warehouse.location,
+              warehouse.capacity,
+              warehouse.stock,
+              warehouse.createdAt));
+    }
+    for (WarehouseAssignmentCounts counts : assignmentRepository.countStoresAndProductsByWarehouse()) {
+      Footprint footprint = byId.get(counts.warehouseId());
+      if (footprint != null) {
+        footprint.stores = Math.toIntExact(counts.stores());
+        footprint.products = Math.toIntExact(counts.products());
+      }
+    }
+
+    Map<String, Footprint> byCode = new HashMap<>(byId.size() * 2);
+    byId.values().forEach(f -> byCode.put(f.businessUnitCode, f));
+    return byCode;
+  }
+
+  private void onWarehouseEvent(long sequence, WarehouseEvent event) {
+    apply(
+        () -> {
+          if (event.type() == WarehouseEvent.Type.ARCHIVED) {
+            footprints.remove(event.businessUnitCode());
+            rows.remove(event.businessUnitCode());
+            return;
+          }
+          Footprint footprint =
+              new Footprint(
+                  event.businessUnitCode(), event.location(), event.capacity(), event.stock(), event.occurredAt());
+          // a replacement is a new warehouse row, and the assignments of the archived one moved to it
+          Footprint replaced = footprints.get(event.businessUnitCode());
+          if (event.type() == WarehouseEvent.Type.REPLACED && replaced != null) {
+            footprint.stores = replaced.stores;
+            footprint.products = replaced.products;
+          }
+          footprints.put(footprint.businessUnitCode, footprint);
+          publish(footprint);
+        });
+  }
+
+  private void apply(Runnable change) {
+    synchronized (lock) {
+      if (deferred != null) {
+        deferred.add(change);
+      } else {
+        change.run();
+      }
+    }
+  }
+
+  // returns whether the row changed
+  private boolean publish(Footprint footprint) {
+    Location location = locationResolver.resolveByIdentifier(footprint.location);
+    Double utilization =
+        footprint.capacity == null || footprint.capacity == 0 || footprint.stock == null
+            ? null
+            : footprint.stock / (double) footprint.capacity;
+    WarehouseSummary summary =
+        new WarehouseSummary(
+            footprint.businessUnitCode,
+            footprint.location,
+            footprint.capacity,
+            footprint.stock,
+            utilization,
+            location == null ? null : location.maxNumberOfWarehouses,
+            location == null ? null : location.maxCapacity,
+            footprint.stores,
+            footprint.products,
+            footprint.createdAt);
+    return !summary.equals(rows.put(footprint.businessUnitCode, summary));
+  }
+
+  private static final class Footprint {
+
+    final String businessUnitCode;
+    final String location;
+    final Integer capacity;
+    final Integer stock;
+    final LocalDateTime createdAt;
+    int stores;
+    int products;
+
+    Footprint(String businessUnitCode, String location, Integer capacity, Integer stock, LocalDateTime createdAt) {
+      this.businessUnitCode = businessUnitCode;
+      this.location = location;
+      this.capacity = capacity;
+      this.stock = stock;
+      this.createdAt = createdAt;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.common.SingleFlight;
+import com.fulfilment.application.monolith.replica.ClientConsistency;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.arc.Arc;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Read-only lookups of the active warehouse for a business unit code, with concurrent lookups of
+ * the same code sharing one query. Writes keep using the {@link WarehouseStore} directly: they
+ * must read inside their own transaction.
+ *
+ * <p>The query runs in the session of the caller that starts it, which may be routed to a
+ * replica. A client with a read-your-writes fence (see {@link ClientConsistency}) must not take
+ * such a result, so its lookups run on their own and are not shared either.
+ */
+@ApplicationScoped
+public class ActiveWarehouseLookup {
+
+  @ConfigProperty(name = "warehouse.lookup.coalesce-timeout", defaultValue = "2s")
+  Duration timeout;
+
+  @Inject WarehouseStore warehouseStore;
+  @Inject ClientConsistency consistency;
+
+  private SingleFlight<String, Warehouse> lookups;
+
+  @PostConstruct
+  void init() {
+    lookups = new SingleFlight<>(timeout);
+  }
+
+  /** The active warehouse, shared with concurrent callers: it must not be modified. */
+  public Warehouse find(String buCode) {
+    if (buCode == null || buCode.isBlank()) {
+      return null;
+    }
+    String code = buCode.trim();
+    if (fenced()) {
+      return warehouseStore.findByBusinessUnitCode(code);
+    }
+    return lookups.load(code, () -> warehouseStore.findByBusinessUnitCode(code));
+  }
+
+  // whether the caller has written recently enough to need its own session's routing
+  boolean fenced() {
+    return Arc.container().requestContext().isActive() && consistency.fence() > 0;
+  }
+
+  int waiters(String buCode) {
+    return lookups.waiters(buCode);
+  }
+}
@@ -0,0 +1,47 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * An archived warehouse version. Written only by moving rows out of {@code warehouse}, never
+ * updated, so it carries no optimistic lock of its own and is not cached.
+ */
+@Entity
+@Table(name = "warehouse_history")
+public class DbWarehouseHistory {
+
+  // the id the row had in the warehouse table
+  @Id public Long id;
+
+  public String businessUnitCode;
+
+  public String location;
+
+  public Integer capacity;
+
+  public Integer stock;
+
+  public LocalDateTime createdAt;
+
+  public LocalDateTime archivedAt;
+
+  public Long version;
+
+  public DbWarehouseHistory() {}
+
+  public Warehouse toWarehouse() {
+    var warehouse = new Warehouse();
+    warehouse.businessUnitCode = this.businessUnitCode;
+    warehouse.location = this.location;
+    warehouse.capacity = this.capacity;
+    warehouse.stock = this.stock;
+    warehouse.createdAt = this.createdAt;
+    warehouse.archivedAt = this.archivedAt;
+    warehouse.version = this.version;
+    return warehouse;
+  }
+}
@@ -0,0 +1,242 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
+import com.fulfilment.application.monolith.sharding.Shards;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The {@link WarehouseStore} of the application: {@link WarehouseRepository} on the shard of the
+ * warehouse's location (see {@link Shards}). A business unit code does not tell its location, so
+ * lookups by code and the listings ask every shard; in a write, the shard that has the warehouse
+ * is then read again in the write's own transaction (see {@link Shards#scatterForWrite}). Without
+ * sharding every call goes straight to the repository.
+ */
+@Alternative
+@Priority(1)
+@ApplicationScoped
+public class ShardedWarehouseStore implements WarehouseStore {
+
+  @Inject WarehouseRepository warehouseRepository;
+  @Inject Shards shards;
+
+  @Override
+  public List<Warehouse> getAll() {
+    return concat(shards.scatter(warehouseRepository::getAll));
+  }
+
+  @Override
+  public List<Warehouse> findActiveAtLocation(String location) {
+    return shards.on(shards.shardOf(location), () -> warehouseRepository.findActiveAtLocation(location));
+  }
+
+  @Override
+  public void create(Warehouse warehouse) {
+    shards.on(
+            shards.shardOf(warehouse.location),
+            () -> {
+              warehouseRepository.create(warehouse);
+              return null;
+            });
+  }
+
+  @Override
+  public void update(Warehouse warehouse) {
+    shards.on(
+            shards.shardOf(warehouse.location),
+            () -> {
+              warehouseRepository.update(warehouse);
+              return null;
+            });
+  }
+
+  @Override
+  public void remove(Warehouse warehouse) {
+    shards.on(
+            shards.shardOf(warehouse.location),
+            () -> {
+              warehouseRepository.remove(warehouse);
+              return null;
+            });
+  }
+
+  @Override
+  public List<Warehouse> findActiveMatching(String location, String businessUnitCodePrefix) {
+    if (location != null) {
+      return shards.on(
+              shards.shardOf(location), () -> warehouseRepository.findActiveMatching(location, businessUnitCodePrefix));
+    }
+    return concat(
+            shards.scatterForWrite(
+                    () -> warehouseRepository.findActiveMatching(null, businessUnitCodePrefix), found -> !found.isEmpty()));
+  }
+
+  @Override
+  public List<Warehouse> findActiveByBusinessUnitCodes(Collection<String> buCodes) {
+    return concat(
+            shards.scatterForWrite(
+                    () -> warehouseRepository.findActiveByBusinessUnitCodes(buCodes), found -> !found.isEmpty()));
+  }
+
+  /** Archives on the shards of the warehouses, so warehouses of more than one shard get a 409. */
+  @Override
+  public void archiveAll(List<Warehouse> warehouses, LocalDateTime archivedAt) {
+    for (Map.Entry<String, List<Warehouse>> onShard : byShard(warehouses).entrySet()) {
+      shards.on(
+              onShard.getKey(),
+              () -> {
+                warehouseRepository.archiveAll(onShard.getValue(), archivedAt);
+                return null;
+              });
+    }
+  }
+
+  @Override
+  public void createAll(List<Warehouse> warehouses) {
+    for (Map.Entry<String, List<Warehouse>> onShard : byShard(warehouses).entrySet()) {
+      shards.on(
+              onShard.getKey(),
+              () -> {
+                warehouseRepository.createAll(onShard.getValue());
+                return null;
+              });
+    }
+  }
+
+  /**
+   * Replaces on the shard of the warehouse. The assignments of the archived version move to the
+   * new one in the same transaction, so a replacement into a location of another shard gets a 409.
+   */
+  @Override
+  public void replace(Warehouse current, Warehouse replacement) {
+    shards.on(
+            sameShard(current, replacement),
+            () -> {
+              warehouseRepository.replace(current, replacement);
+              return null;
+            });
+  }
+
+  @Override
+  public void replaceAll(List<Warehouse> currents, List<Warehouse> replacements, LocalDateTime archivedAt) {
+    Map<String, Warehouse> currentByCode = new LinkedHashMap<>();
+    currents.forEach(w -> currentByCode.put(w.businessUnitCode, w));
+    Map<String, List<Warehouse>> replacementsByShard = new LinkedHashMap<>();
+    for (Warehouse replacement : replacements) {
+      Warehouse current = currentByCode.get(replacement.businessUnitCode);
+      String shard = current == null ? shards.shardOf(replacement.location) : sameShard(current, replacement);
+      replacementsByShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(replacement);
+    }
+    Map<String, List<Warehouse>> currentsByShard = byShard(currents);
+    Set<String> onShards = new LinkedHashSet<>(currentsByShard.keySet());
+    onShards.addAll(replacementsByShard.keySet());
+    for (String shard : onShards) {
+      shards.on(
+              shard,
+              () -> {
+                warehouseRepository.replaceAll(
+                        currentsByShard.getOrDefault(shard, List.of()),
+                        replacementsByShard.getOrDefault(shard, List.of()),
+                        archivedAt);
+                return null;
+              });
+    }
+  }
+
+  @Override
+  public Warehouse findByBusinessUnitCode(String buCode) {
+    return first(shards.scatterForWrite(() -> warehouseRepository.findByBusinessUnitCode(buCode), Objects::nonNull));
+  }
+
+  @Override
+  public Warehouse findAnyByBusinessUnitCode(String buCode) {
+    // the active version if there is one, else the latest archived one
+    return shards.scatter(() -> warehouseRepository.findAnyByBusinessUnitCode(buCode)).stream()
+            .filter(Objects::nonNull)
+            .min(Comparator.comparing((Warehouse w) -> w.archivedAt != null).thenComparing(WarehouseRepository.NEWEST_FIRST))
+            .orElse(null);
+  }
+
+  @Override
+  public boolean existsByBusinessUnitCode(String buCode) {
+    return shards.scatter(() -> warehouseRepository.existsByBusinessUnitCode(buCode)).contains(Boolean.TRUE);
+  }
+
+  public DbWarehouse findActiveDbByBusinessUnitCode(String buCode) {
+    return first(
+            shards.scatterForWrite(() -> warehouseRepository.findActiveDbByBusinessUnitCode(buCode), Objects::nonNull));
+  }
+
+  public WarehouseValidator findActiveValidator(String buCode) {
+    return first(shards.scatter(() -> warehouseRepository.findActiveValidator(buCode)));
+  }
+
+  /** See {@link WarehouseRepository#findHistory}. */
+  public List<Warehouse> findHistory(String buCode) {
+    List<List<Warehouse>> perShard = shards.scatter(() -> warehouseRepository.findHistory(buCode));
+    if (perShard.size() == 1) {
+      return perShard.get(0);
+    }
+    List<Warehouse> versions = concat(perShard);
+    versions.sort(WarehouseRepository.NEWEST_FIRST);
+    return versions;
+  }
+
+  /** See {@link WarehouseRepository#findAsOf}. */
+  public List<Warehouse> findAsOf(LocalDateTime instant) {
+    return concat(shards.scatter(() -> warehouseRepository.findAsOf(instant)));
+  }
+
+  private Map<String, List<Warehouse>> byShard(List<Warehouse> warehouses) {
+    Map<String, List<Warehouse>> byShard = new LinkedHashMap<>();
+    for (Warehouse warehouse : warehouses) {
+      byShard.computeIfAbsent(shards.shardOf(warehouse.location), s -> new ArrayList<>()).add(warehouse);
+    }
+    return byShard;
+  }
+
+  private String sameShard(Warehouse current, Warehouse replacement) {
+    String shard = shards.shardOf(current.location);
+    String target = shards.shardOf(replacement.location);
+    if (!shard.equals(target)) {
+      throw new DomainViolationException(
+              Reason.CROSS_SHARD,
+              "The change spans shards " + shard + " and " + target + ", a transaction can only change one.",
+              409);
+    }
+    return shard;
+  }
+
+  private static <T> T first(List<T> perShard) {
+    for (T found : perShard) {
+      if (found != null) {
+        return found;
+      }
+    }
+    return null;
+  }
+
+  private static List<Warehouse> concat(List<List<Warehouse>> perShard) {
+    if (perShard.size() == 1) {
+      return perShard.get(0);
+    }
+    List<Warehouse> all = new ArrayList<>();
+    perShard.forEach(all::addAll);
+    return all;
+  }
+}
@@ -0,0 +1,68 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.sharding.Shards;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Moves the archived rows that predate the history table out of {@code warehouse}, in the
+ * background after startup. Each chunk commits on its own and the job pauses between chunks, so
+ * neither locks nor the transaction log grow with the size of the backlog. An interrupted run
+ * simply continues on the next start.
+ */
+@ApplicationScoped
+public class WarehouseHistoryMigration {
+
+  private static final Logger LOGGER = Logger.getLogger(WarehouseHistoryMigration.class.getName());
+
+  @Inject WarehouseRepository warehouseRepository;
+  @Inject Shards shards;
+
+  @ConfigProperty(name = "warehouse.history.migration.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "warehouse.history.migration.chunk-size", defaultValue = "1000")
+  int chunkSize;
+
+  @ConfigProperty(name = "warehouse.history.migration.pause", defaultValue = "100ms")
+  Duration pause;
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled) {
+      return;
+    }
+    Thread worker = new Thread(this::migrateAll, "warehouse-history-migration");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  void migrateAll() {
+    long moved = 0;
+    try {
+      for (int chunk = migrateChunk(); chunk > 0; chunk = migrateChunk()) {
+        moved += chunk;
+        Thread.sleep(pause.toMillis());
+      }
+      if (moved > 0) {
+        LOGGER.infof("Moved %d archived warehouse rows to warehouse_history", moved);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      LOGGER.warnf(e, "Warehouse history migration stopped after %d rows, it resumes on the next start", moved);
+    }
+  }
+
+  public int migrateChunk() {
+    int moved = 0;
+    for (String shard : shards.all()) {
+      moved += shards.isolated(shard, () -> warehouseRepository.moveArchivedToHistory(chunkSize));
+    }
+    return moved;
+  }
+}
@@ -1,23 +1,113 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
+import com.fulfilment.application.monolith.common.MetricsConfiguration;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Parameters;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.Query;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
 
 @ApplicationScoped
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
+  static final String ROW_COUNT = "db.row_count";
+
+  // archived rows only pass through the hot table: they are moved to warehouse_history in the
+  // transaction that archives them, so active lookups never walk past an ever-growing history
+  private static final String COPY_TO_HISTORY =
+      "insert into DbWarehouseHistory (id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version)"
+          + " select w.id, w.businessUnitCode, w.location, w.capacity, w.stock, w.createdAt, w.archivedAt, w.version"
+          + " from DbWarehouse w where w.archivedAt is not null and ";
+
+  static final Comparator<Warehouse> NEWEST_FIRST =
+      Comparator.comparing((Warehouse w) -> w.createdAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
+  @ConfigProperty(name = "quarkus.datasource.db-kind")
+  String dbKind;
+
+  @Inject Event<WarehousesReplaced> replaced;
+
   @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
   public List<Warehouse> getAll() {
     // Active warehouses only
-    return this.list("archivedAt is null").stream().map(DbWarehouse::toWarehouse).toList();
+    List<Warehouse> active = this.list("archivedAt is null").stream().map(DbWarehouse::toWarehouse).toList();
+    Span.current().setAttribute(ROW_COUNT, active.size());
+    return active;
   }
 
   @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public List<Warehouse> findActiveAtLocation(String location) {
+    List<Warehouse> active =
+            this.list("location = ?1 and archivedAt is null", location).stream().map(DbWarehouse::toWarehouse).toList();
+    Span.current().setAttribute(ROW_COUNT, active.size());
+    return active;
+  }
+
+  @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public List<Warehouse> findActiveMatching(String location, String businessUnitCodePrefix) {
+    StringBuilder query = new StringBuilder("archivedAt is null");
+    Parameters parameters = new Parameters();
+    if (location != null) {
+      query.append(" and location = :location");
+      parameters.and("location", location);
+    }
+    if (businessUnitCodePrefix != null) {
+      // a prefix match, whatever the code contains
+      query.append(" and businessUnitCode like :prefix escape '!'");
+      parameters.and("prefix", businessUnitCodePrefix.replaceAll("[!%_]", "!$0") + "%");
+    }
+    List<Warehouse> active = this.list(query.toString(), parameters).stream().map(DbWarehouse::toWarehouse).toList();
+    Span.current().setAttribute(ROW_COUNT, active.size());
+    return active;
+  }
+
+  @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public List<Warehouse> findActiveByBusinessUnitCodes(Collection<String> buCodes) {
+    if (buCodes.isEmpty()) {
+      return List.of();
+    }
+    List<Warehouse> active =
+            this.list("businessUnitCode in ?1 and archivedAt is null", buCodes).stream()
+                    .map(DbWarehouse::toWarehouse)
+                    .toList();
+    Span.current().setAttribute(ROW_COUNT, active.size());
+    return active;
+  }
+
+  @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
   public void create(Warehouse warehouse) {
+    insert(warehouse);
+  }
+
+  private DbWarehouse insert(Warehouse warehouse) {
     var entity = new DbWarehouse();
     entity.businessUnitCode = warehouse.businessUnitCode;
     entity.location = warehouse.location;
@@ -25,34 +115,234 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     entity.stock = warehouse.stock;
     entity.createdAt = (warehouse.createdAt != null) ? warehouse.createdAt : LocalDateTime.now();
     entity.archivedAt = warehouse.archivedAt; // should be null for active
+    entity.version = warehouse.version; // null seeds a fresh version, replacements continue the lineage
 
     this.persist(entity);
+
+    // every column is known once persisted (the id comes from the pooled sequence), so the
+    // caller gets the stored state without reading the row back
+    warehouse.createdAt = entity.createdAt;
+    warehouse.version = entity.version;
+    return entity;
   }
 
   @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
   public void update(Warehouse warehouse) {
-    // IMPORTANT: update only the ACTIVE warehouse row to keep history rows immutable
-    DbWarehouse entity =
-            this.find("businessUnitCode = ?1 and archivedAt is null", warehouse.businessUnitCode)
-                    .firstResult();
+    // IMPORTANT: update only the ACTIVE warehouse row to keep history rows immutable.
+    // The write is conditional on the version the caller read, so a concurrent writer makes
+    // this fail fast instead of silently overwriting (or leaving two active rows behind).
+    if (warehouse.archivedAt != null) {
+      archive(List.of(warehouse), warehouse.archivedAt);
+      return;
+    }
+    int updated = updateActive(warehouse);
 
-    if (entity == null) {
-      throw new IllegalStateException(
-              "Active warehouse not found for businessUnitCode=" + warehouse.businessUnitCode);
+    Span.current().setAttribute(ROW_COUNT, updated);
+    if (updated == 0) {
+      throw concurrentModification(List.of(warehouse), 1);
     }
+  }
 
-    // Keep createdAt stable once persisted
-    if (entity.createdAt == null) {
-      entity.createdAt = (warehouse.createdAt != null) ? warehouse.createdAt : LocalDateTime.now();
+  @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public void archiveAll(List<Warehouse> warehouses, LocalDateTime archivedAt) {
+    if (!warehouses.isEmpty()) {
+      archive(warehouses, archivedAt);
     }
+  }
 
-    entity.location = warehouse.location;
-    entity.capacity = warehouse.capacity;
-    entity.stock = warehouse.stock;
-    entity.archivedAt = warehouse.archivedAt;
+  @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public void createAll(List<Warehouse> warehouses) {
+    // written in JDBC batches at flush, see quarkus.hibernate-orm.jdbc.statement-batch-size
+    warehouses.forEach(this::insert);
+  }
+
+  @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public void replace(Warehouse current, Warehouse replacement) {
+    replaceAll(List.of(current), List.of(replacement), current.archivedAt);
+  }
+
+  @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public void replaceAll(List<Warehouse> currents, List<Warehouse> replacements, LocalDateTime archivedAt) {
+    Map<String, Long> archivedIds = currents.isEmpty() ? Map.of() : archive(currents, archivedAt);
+
+    Map<Long, Long> replacementIds = new HashMap<>();
+    for (Warehouse replacement : replacements) {
+      DbWarehouse entity = insert(replacement);
+      Long archivedId = archivedIds.get(replacement.businessUnitCode);
+      if (archivedId != null) {
+        replacementIds.put(archivedId, entity.id);
+      }
+    }
+    if (!replacementIds.isEmpty()) {
+      // e.g. the fulfilment assignments of the archived rows move to their replacements
+      replaced.fire(new WarehousesReplaced(replacementIds, archivedAt));
+    }
+  }
+
+  // archives every one of the warehouses, or fails; returns the ids of the archived rows by business unit code
+  private Map<String, Long> archive(List<Warehouse> warehouses, LocalDateTime archivedAt) {
+    warehouses.forEach(w -> w.archivedAt = archivedAt);
+    Map<String, Long> archivedIds = moveToHistory(warehouses, archivedAt);
+
+    Span.current().setAttribute(ROW_COUNT, archivedIds.size());
+    if (archivedIds.size() != warehouses.size()) {
+      throw concurrentModification(warehouses, warehouses.size() - archivedIds.size());
+    }
+    return archivedIds;
+  }
+
+  private static DomainViolationException concurrentModification(List<Warehouse> warehouses, int missed) {
+    String message =
+            warehouses.size() == 1
+                    ? "Active warehouse was modified concurrently or no longer exists for businessUnitCode="
+                            + warehouses.get(0).businessUnitCode
+                    : "Active warehouses were modified concurrently or no longer exist: "
+                            + missed
+                            + " of "
+                            + warehouses.size();
+    return new DomainViolationException(Reason.CONCURRENT_MODIFICATION, message, 409);
+  }
+
+  private int updateActive(Warehouse warehouse) {
+    String activeRow = "businessUnitCode = ?5 and archivedAt is null";
+    if (warehouse.version == null) {
+      return update(
+              "location = ?1, capacity = ?2, stock = ?3, archivedAt = ?4, version = version + 1 where " + activeRow,
+              warehouse.location,
+              warehouse.capacity,
+              warehouse.stock,
+              warehouse.archivedAt,
+              warehouse.businessUnitCode);
+    }
+    return update(
+            "location = ?1, capacity = ?2, stock = ?3, archivedAt = ?4, version = version + 1 where "
+                    + activeRow
+                    + " and version = ?6",
+            warehouse.location,
+            warehouse.capacity,
+            warehouse.stock,
+            warehouse.archivedAt,
+            warehouse.businessUnitCode,
+            warehouse.version);
+  }
+
+  /**
+   * Moves the active rows of {@code warehouses} to warehouse_history in one pass: the rows are
+   * deleted from the hot table and inserted as they were deleted, archived at {@code archivedAt}
+   * with the version after theirs. Returns the ids, by business unit code, of the rows moved that
+   * were at the version the caller read (any version when it did not say); fewer than {@code
+   * warehouses} means a concurrent writer got there first, and the caller fails the transaction.
+   */
+  @SuppressWarnings("unchecked")
+  private Map<String, Long> moveToHistory(List<Warehouse> warehouses, LocalDateTime archivedAt) {
+    List<String> codes = warehouses.stream().map(w -> w.businessUnitCode).toList();
+    String activeRows = "archivedAt is null and businessUnitCode in (:codes)";
+
+    // id, businessUnitCode and archived version of every row moved
+    List<Object[]> moved;
+    if ("postgresql".equals(dbKind)) {
+      // one round trip: the deleted rows feed the insert
+      Query move =
+              getEntityManager()
+                      .createNativeQuery(
+                              "with moved as (delete from warehouse where "
+                                      + activeRows
+                                      + " returning id, businessUnitCode, location, capacity, stock, createdAt, version)"
+                                      + " insert into warehouse_history (id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version)"
+                                      + " select id, businessUnitCode, location, capacity, stock, createdAt, cast(:archivedAt as timestamp), version + 1"
+                                      + " from moved returning id, businessUnitCode, version");
+      move.unwrap(NativeQuery.class)
+              .addScalar("id", Long.class)
+              .addScalar("businessUnitCode", String.class)
+              .addScalar("version", Long.class)
+              .addSynchronizedEntityClass(DbWarehouse.class)
+              .addSynchronizedEntityClass(DbWarehouseHistory.class);
+      moved = move.setParameter("codes", codes).setParameter("archivedAt", archivedAt).getResultList();
+    } else {
+      // H2 hands the deleted rows back through a delta table, and the history rows are inserted from it
+      Query delete =
+              getEntityManager()
+                      .createNativeQuery(
+                              "select id, businessUnitCode, location, capacity, stock, createdAt, version from old table"
+                                      + " (delete from warehouse where "
+                                      + activeRows
+                                      + ")");
+      delete.unwrap(NativeQuery.class)
+              .addScalar("id", Long.class)
+              .addScalar("businessUnitCode", String.class)
+              .addScalar("location", String.class)
+              .addScalar("capacity", Integer.class)
+              .addScalar("stock", Integer.class)
+              .addScalar("createdAt", LocalDateTime.class)
+              .addScalar("version", Long.class);
+      moved = new ArrayList<>();
+      for (Object[] row : (List<Object[]>) delete.setParameter("codes", codes).getResultList()) {
+        var archived = new DbWarehouseHistory();
+        archived.id = (Long) row[0];
+        archived.businessUnitCode = (String) row[1];
+        archived.location = (String) row[2];
+        archived.capacity = (Integer) row[3];
+        archived.stock = (Integer) row[4];
+        archived.createdAt = (LocalDateTime) row[5];
+        archived.archivedAt = archivedAt;
+        archived.version = row[6] == null ? null : (Long) row[6] + 1;
+        getEntityManager().persist(archived);
+        moved.add(new Object[] {archived.id, archived.businessUnitCode, archived.version});
+      }
+    }
+
+    Map<String, Object[]> movedByCode = new HashMap<>();
+    for (Object[] row : moved) {
+      // Hibernate never saw these rows deleted: the cached entities go by hand
+      getEntityManager().getEntityManagerFactory().getCache().evict(DbWarehouse.class, row[0]);
+      movedByCode.put((String) row[1], row);
+    }
+    Map<String, Long> atReadVersion = new HashMap<>();
+    for (Warehouse warehouse : warehouses) {
+      Object[] row = movedByCode.get(warehouse.businessUnitCode);
+      if (row != null && (warehouse.version == null || Objects.equals(row[2], warehouse.version + 1))) {
+        atReadVersion.put(warehouse.businessUnitCode, (Long) row[0]);
+      }
+    }
+    return atReadVersion;
+  }
+
+  /**
+   * Moves up to {@code limit} archived rows still in the hot table, the ones written before the
+   * history table existed, and returns how many moved. Archived rows are never updated, so the
+   * only locks taken are on the chunk itself.
+   */
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public int moveArchivedToHistory(int limit) {
+    List<Long> ids =
+            getEntityManager()
+                    .createQuery(
+                            "select w.id from DbWarehouse w where w.archivedAt is not null order by w.id", Long.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+    if (ids.isEmpty()) {
+      return 0;
+    }
+
+    getEntityManager().createQuery(COPY_TO_HISTORY + "w.id in :ids").setParameter("ids", ids).executeUpdate();
+    delete("id in ?1", ids);
+    return ids.size();
   }
 
   @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
   public void remove(Warehouse warehouse) {
     // Remove only the ACTIVE record (do not delete history by accident)
     DbWarehouse entity =
@@ -65,6 +355,8 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
   }
 
   @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
   public Warehouse findByBusinessUnitCode(String buCode) {
     if (buCode == null || buCode.isBlank()) {
       return null;
@@ -78,19 +370,133 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
   }
 
   @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
   public Warehouse findAnyByBusinessUnitCode(String buCode) {
     if (buCode == null || buCode.isBlank()) {
       return null;
     }
 
-    DbWarehouse entity = this.find("businessUnitCode = ?1", buCode.trim()).firstResult();
-    return entity == null ? null : entity.toWarehouse();
+    String code = buCode.trim();
+    DbWarehouse entity = this.find("businessUnitCode = ?1", code).firstResult();
+    if (entity != null) {
+      return entity.toWarehouse();
+    }
+
+    // only codes without a row in the hot table reach the history
+    return getEntityManager()
+            .createQuery(
+                    "from DbWarehouseHistory h where h.businessUnitCode = :bu order by h.createdAt desc",
+                    DbWarehouseHistory.class)
+            .setParameter("bu", code)
+            .setMaxResults(1)
+            .getResultStream()
+            .findFirst()
+            .map(DbWarehouseHistory::toWarehouse)
+            .orElse(null);
+  }
+
+  @Override
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public boolean existsByBusinessUnitCode(String buCode) {
+    if (buCode == null || buCode.isBlank()) {
+      return false;
+    }
+    // both tables in one round trip, each answered by its business unit code index
+    Number found =
+            (Number)
+                    getEntityManager()
+                            .createNativeQuery(
+                                    "select case when exists (select 1 from warehouse where businessUnitCode = :bu)"
+                                            + " or exists (select 1 from warehouse_history where businessUnitCode = :bu)"
+                                            + " then 1 else 0 end")
+                            .setParameter("bu", buCode.trim())
+                            .getSingleResult();
+    return found.intValue() == 1;
+  }
+
+  /** Every version the business unit code has had, newest first. */
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public List<Warehouse> findHistory(String buCode) {
+    String code = buCode.trim();
+    // the hot table holds the active version, and archived ones the migration has not moved yet
+    List<Warehouse> versions = new ArrayList<>();
+    list("businessUnitCode = ?1", code).forEach(w -> versions.add(w.toWarehouse()));
+    getEntityManager()
+            .createQuery(
+                    "from DbWarehouseHistory h where h.businessUnitCode = :bu order by h.createdAt desc",
+                    DbWarehouseHistory.class)
+            .setParameter("bu", code)
+            .getResultStream()
+            .forEach(h -> versions.add(h.toWarehouse()));
+    versions.sort(NEWEST_FIRST);
+
+    Span.current().setAttribute(ROW_COUNT, versions.size());
+    return versions;
   }
 
+  /** The version of every business unit that was valid at {@code instant}: createdAt <= instant < archivedAt. */
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  @SuppressWarnings("unchecked")
+  public List<Warehouse> findAsOf(LocalDateTime instant) {
+    List<Warehouse> valid = new ArrayList<>();
+    // one query per side of the archivedAt index; "archivedAt is null or ..." would scan the table
+    list("archivedAt is null and createdAt <= ?1", instant).forEach(w -> valid.add(w.toWarehouse()));
+    list("archivedAt > ?1 and createdAt <= ?1", instant).forEach(w -> valid.add(w.toWarehouse()));
+
+    List<DbWarehouseHistory> archived;
+    if ("postgresql".equals(dbKind)) {
+      // range containment, answered by the GiST index on the validity interval
+      archived =
+              getEntityManager()
+                      .createNativeQuery(
+                              "select * from warehouse_history where tsrange(createdAt, archivedAt) @> cast(:instant as timestamp)",
+                              DbWarehouseHistory.class)
+                      .setParameter("instant", instant)
+                      .getResultList();
+    } else {
+      archived =
+              getEntityManager()
+                      .createQuery(
+                              "from DbWarehouseHistory h where h.archivedAt > :instant and h.createdAt <= :instant",
+                              DbWarehouseHistory.class)
+                      .setParameter("instant", instant)
+                      .getResultList();
+    }
+    archived.forEach(h -> valid.add(h.toWarehouse()));
+
+    Span.current().setAttribute(ROW_COUNT, valid.size());
+    return valid;
+  }
+
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
   public DbWarehouse findActiveDbByBusinessUnitCode(String buCode) {
     if (buCode == null || buCode.isBlank()) {
       return null;
     }
     return find("businessUnitCode = ?1 and archivedAt is null", buCode.trim()).firstResult();
   }
+
+  @Timed(MetricsConfiguration.REPOSITORY_METER)
+  @WithSpan
+  public WarehouseValidator findActiveValidator(String buCode) {
+    if (buCode == null || buCode.isBlank()) {
+      return null;
+    }
+    // Validator-only projection for conditional requests (avoids hydrating the entity)
+    return getEntityManager()
+            .createQuery(
+                    "select new com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseValidator(w.version, w.createdAt)"
+                            + " from DbWarehouse w where w.businessUnitCode = :bu and w.archivedAt is null",
+                    WarehouseValidator.class)
+            .setParameter("bu", buCode.trim())
+            .setMaxResults(1)
+            .getResultStream()
+            .findFirst()
+            .orElse(null);
+  }
 }
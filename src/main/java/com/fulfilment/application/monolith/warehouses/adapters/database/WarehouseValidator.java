@@ -0,0 +1,5 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import java.time.LocalDateTime;
+
+public record WarehouseValidator(Long version, LocalDateTime createdAt) {}
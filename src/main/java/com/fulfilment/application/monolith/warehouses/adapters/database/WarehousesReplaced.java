@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Fired when active warehouse rows were replaced, synchronously: observers run in the
+ * transaction, and on the session, of the replacement. {@code replacementIds} maps the id of each
+ * archived row to the id of the row that took its place, so what links to the archived rows can
+ * move along.
+ */
+public record WarehousesReplaced(Map<Long, Long> replacementIds, LocalDateTime replacedAt) {}
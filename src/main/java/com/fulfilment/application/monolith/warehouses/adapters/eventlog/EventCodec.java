@@ -0,0 +1,123 @@
+package com.fulfilment.application.monolith.warehouses.adapters.eventlog;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of a log record: {@code int length, body, int crc32c(body)} with the body
+ * {@code long sequence, byte type, long seconds, int nanos, int capacity, int stock, short
+ * length + UTF-8 business unit code, short length + UTF-8 location}. The length prefix and the
+ * checksum let a reader tell a complete record from one torn by a crash.
+ */
+final class EventCodec {
+
+  static final int HEADER = Integer.BYTES;
+  static final int TRAILER = Integer.BYTES;
+  static final int MAX_RECORD = 1 << 16;
+
+  private static final int NULL_INT = Integer.MIN_VALUE;
+  private static final WarehouseEvent.Type[] TYPES = WarehouseEvent.Type.values();
+
+  private EventCodec() {}
+
+  static void encode(long sequence, WarehouseEvent event, ByteBuffer into) {
+    int start = into.position();
+    into.position(start + HEADER);
+    int bodyStart = into.position();
+
+    LocalDateTime at = event.occurredAt();
+    into.putLong(sequence);
+    into.put((byte) event.type().ordinal());
+    into.putLong(at == null ? Long.MIN_VALUE : at.toEpochSecond(ZoneOffset.UTC));
+    into.putInt(at == null ? 0 : at.getNano());
+    into.putInt(event.capacity() == null ? NULL_INT : event.capacity());
+    into.putInt(event.stock() == null ? NULL_INT : event.stock());
+    putString(into, event.businessUnitCode());
+    putString(into, event.location());
+
+    int bodyLength = into.position() - bodyStart;
+    into.putInt(start, bodyLength);
+    into.putInt(checksum(into, bodyStart, bodyLength));
+  }
+
+  /**
+   * Decodes the record at the buffer position and advances past it, or returns {@code false}
+   * without moving when the buffer does not hold a complete, intact record.
+   */
+  static boolean decode(ByteBuffer from, Decoded into) {
+    int start = from.position();
+    if (from.remaining() < HEADER) {
+      return false;
+    }
+    int bodyLength = from.getInt(start);
+    if (bodyLength <= 0 || bodyLength > MAX_RECORD || from.remaining() < HEADER + bodyLength + TRAILER) {
+      return false;
+    }
+    int bodyStart = start + HEADER;
+    if (from.getInt(bodyStart + bodyLength) != checksum(from, bodyStart, bodyLength)) {
+      return false;
+    }
+
+    from.position(bodyStart);
+    into.sequence = from.getLong();
+    WarehouseEvent.Type type = TYPES[from.get()];
+    long seconds = from.getLong();
+    int nanos = from.getInt();
+    int capacity = from.getInt();
+    int stock = from.getInt();
+    String businessUnitCode = getString(from);
+    String location = getString(from);
+    into.event =
+        new WarehouseEvent(
+            type,
+            businessUnitCode,
+            location,
+            capacity == NULL_INT ? null : capacity,
+            stock == NULL_INT ? null : stock,
+            seconds == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+    from.position(bodyStart + bodyLength + TRAILER);
+    return true;
+  }
+
+  static final class Decoded {
+    long sequence;
+    WarehouseEvent event;
+  }
+
+  private static void putString(ByteBuffer into, String value) {
+    if (value == null) {
+      into.putShort((short) -1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    into.putShort((short) bytes.length);
+    into.put(bytes);
+  }
+
+  private static String getString(ByteBuffer from) {
+    int length = from.getShort();
+    if (length < 0) {
+      return null;
+    }
+    String value;
+    if (from.hasArray()) {
+      value = new String(from.array(), from.arrayOffset() + from.position(), length, StandardCharsets.UTF_8);
+    } else {
+      byte[] bytes = new byte[length];
+      from.get(from.position(), bytes);
+      value = new String(bytes, StandardCharsets.UTF_8);
+    }
+    from.position(from.position() + length);
+    return value;
+  }
+
+  private static int checksum(ByteBuffer buffer, int offset, int length) {
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.slice(offset, length));
+    return (int) crc.getValue();
+  }
+}
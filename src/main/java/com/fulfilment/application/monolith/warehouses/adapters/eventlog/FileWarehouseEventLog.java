@@ -0,0 +1,444 @@
+package com.fulfilment.application.monolith.warehouses.adapters.eventlog;
+
+import com.fulfilment.application.monolith.stores.AfterCommitExecutor;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventFeed;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventLog;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Append-only warehouse lifecycle log in a local file, one writer per directory.
+ *
+ * <p>An event takes its place in the log while its transaction is still running, and is written
+ * once that transaction commits and every event placed before it is resolved; a rolled back
+ * transaction gives its place up. A transaction changing a warehouse has read the version an
+ * earlier one committed, so each warehouse's events follow the order its versions were committed
+ * in, while independent transactions may land in either order. Events get consecutive sequence
+ * numbers as they are written.
+ *
+ * <p>A single writer thread writes whatever is ready and forces it to disk with one fdatasync
+ * before projections see it (group commit), so the log survives a crash as well as a shutdown.
+ * The committing thread only waits for the batch holding its event, which keeps the projections
+ * current for the caller's next read.
+ *
+ * <p>Every {@code warehouse.event-log.snapshot-every} events a compact {@link Snapshot} of the
+ * active warehouses is written in the background, so opening the log and subscribing a
+ * projection read the snapshot plus the tail instead of the whole history. An empty log is
+ * seeded with a {@code CREATED} event for each active warehouse in the database, so warehouses
+ * that existed before the log are in it too. Rows written behind the application's back once
+ * the log exists, e.g. by a bulk load, only appear after starting from an empty directory.
+ */
+@ApplicationScoped
+public class FileWarehouseEventLog implements WarehouseEventLog, WarehouseEventFeed {
+
+  static final String LOG_FILE = "events.log";
+
+  private static final Logger LOGGER = Logger.getLogger(FileWarehouseEventLog.class.getName());
+  private static final int READ_BUFFER = 1 << 20;
+  // bounds how long a committed transaction waits behind one still running that placed its event first
+  private static final long WRITE_WAIT_SECONDS = 10;
+
+  @ConfigProperty(name = "warehouse.event-log.directory", defaultValue = "data/warehouse-events")
+  Path directory;
+
+  @ConfigProperty(name = "warehouse.event-log.snapshot-every", defaultValue = "100000")
+  long snapshotEvery;
+
+  @Inject AfterCommitExecutor afterCommitExecutor;
+  @Inject WarehouseStore warehouseStore;
+
+  // guards the file and what is derived from it
+  private final Object lock = new Object();
+  // events in the order they took their place, waiting for their transactions; guarded by itself
+  private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+  private final ByteBuffer writeBuffer = ByteBuffer.allocate(EventCodec.MAX_RECORD);
+  private final List<Projection> subscribers = new CopyOnWriteArrayList<>();
+  // the last event of every active warehouse, what the next snapshot is made of
+  private final Map<String, Snapshot.Entry> active = new HashMap<>();
+
+  private FileChannel channel;
+  private FileLock fileLock;
+  private ExecutorService snapshotWriter;
+  private Thread writer;
+  private boolean closing;
+  private long nextSequence = 1;
+  // end of the last intact record
+  private long size;
+  private long sinceSnapshot;
+
+  @PostConstruct
+  void open() {
+    try {
+      Files.createDirectories(directory);
+      channel =
+          FileChannel.open(
+              directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      try {
+        fileLock = channel.tryLock();
+      } catch (OverlappingFileLockException e) {
+        // held by this process already
+      }
+      if (fileLock == null) {
+        channel.close();
+        throw new IllegalStateException("Warehouse event log " + directory + " is in use by another process");
+      }
+
+      Snapshot snapshot = Snapshot.latest(directory);
+      long from = 0;
+      if (snapshot != null) {
+        snapshot.entries.forEach(e -> track(e.sequence(), e.event()));
+        nextSequence = snapshot.sequence + 1;
+        from = snapshot.logOffset;
+      }
+      size = read(from, channel.size(), this::track);
+      if (size < channel.size()) {
+        LOGGER.warnf("Truncating %d bytes of torn records from %s", channel.size() - size, directory.resolve(LOG_FILE));
+        channel.truncate(size);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open warehouse event log " + directory, e);
+    }
+
+    snapshotWriter =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread thread = new Thread(r, "warehouse-event-snapshot");
+              thread.setDaemon(true);
+              return thread;
+            });
+    writer = new Thread(this::writeLoop, "warehouse-event-writer");
+    writer.setDaemon(true);
+    writer.start();
+
+    if (size == 0 && nextSequence == 1) {
+      seed(activeWarehouses());
+    }
+  }
+
+  /** The warehouses an empty log starts from. */
+  List<Warehouse> activeWarehouses() {
+    return QuarkusTransaction.requiringNew().call(warehouseStore::getAll);
+  }
+
+  private void seed(List<Warehouse> warehouses) {
+    List<Pending> seeded = new ArrayList<>(warehouses.size());
+    warehouses.stream()
+        .sorted(Comparator.comparing((Warehouse w) -> w.createdAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+        .forEach(w -> seeded.add(place(WarehouseEvent.of(WarehouseEvent.Type.CREATED, w, w.createdAt))));
+    seeded.forEach(p -> resolve(p, true));
+    if (!seeded.isEmpty()) {
+      await(seeded.get(seeded.size() - 1));
+      LOGGER.infof("Seeded warehouse event log %s with %d active warehouses", directory, seeded.size());
+    }
+  }
+
+  @PreDestroy
+  void close() throws IOException, InterruptedException {
+    synchronized (pending) {
+      closing = true;
+      pending.notifyAll();
+    }
+    writer.join(TimeUnit.SECONDS.toMillis(30));
+    snapshotWriter.shutdown();
+    snapshotWriter.awaitTermination(30, TimeUnit.SECONDS);
+    synchronized (lock) {
+      fileLock.release();
+      channel.close();
+    }
+  }
+
+  @Override
+  public void append(WarehouseEvent event) {
+    Pending placed = place(event);
+    afterCommitExecutor.runAfterCompletion(
+        "warehouse-event-log append",
+        () -> {
+          resolve(placed, true);
+          await(placed);
+        },
+        () -> resolve(placed, false));
+  }
+
+  /** Appends {@code event} outside of a transaction and returns its sequence once it is on disk. */
+  long write(WarehouseEvent event) throws IOException {
+    Pending placed = place(event);
+    resolve(placed, true);
+    try {
+      return placed.written.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while appending to " + directory, e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+    }
+  }
+
+  Pending place(WarehouseEvent event) {
+    Pending placed = new Pending(event);
+    synchronized (pending) {
+      pending.addLast(placed);
+    }
+    return placed;
+  }
+
+  void resolve(Pending placed, boolean committed) {
+    synchronized (pending) {
+      placed.committed = committed;
+      pending.notifyAll();
+    }
+  }
+
+  private void await(Pending placed) {
+    WarehouseEvent event = placed.event;
+    try {
+      placed.written.get(WRITE_WAIT_SECONDS, TimeUnit.SECONDS);
+    } catch (TimeoutException e) {
+      // still written once the transactions before it finish
+      LOGGER.warnf("%s of %s is not in the event log yet", event.type(), event.businessUnitCode());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      // the transaction is committed already, the event is lost rather than the change
+      LOGGER.errorf(e.getCause(), "Could not append %s of %s to the event log", event.type(), event.businessUnitCode());
+    }
+  }
+
+  private void writeLoop() {
+    List<Pending> batch = new ArrayList<>();
+    while (true) {
+      synchronized (pending) {
+        while (!closing && !ready()) {
+          try {
+            pending.wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        while (ready()) {
+          batch.add(pending.removeFirst());
+        }
+        if (batch.isEmpty()) {
+          if (!pending.isEmpty()) {
+            LOGGER.warnf("Closing the event log with %d events of unfinished transactions", pending.size());
+          }
+          return;
+        }
+      }
+      write(batch);
+      batch.clear();
+    }
+  }
+
+  // guarded by pending
+  private boolean ready() {
+    return !pending.isEmpty() && pending.peekFirst().committed != null;
+  }
+
+  private void write(List<Pending> batch) {
+    List<Pending> written = new ArrayList<>(batch.size());
+    synchronized (lock) {
+      long sequence = nextSequence;
+      long position = size;
+      try {
+        for (Pending placed : batch) {
+          if (!placed.committed) {
+            continue;
+          }
+          writeBuffer.clear();
+          EventCodec.encode(sequence, placed.event, writeBuffer);
+          writeBuffer.flip();
+          while (writeBuffer.hasRemaining()) {
+            position += channel.write(writeBuffer, position);
+          }
+          placed.sequence = sequence++;
+          placed.end = position;
+          written.add(placed);
+        }
+        if (written.isEmpty()) {
+          return;
+        }
+        // on disk before a projection or a snapshot builds on it; fdatasync also persists the new
+        // length, which is all the metadata a reader needs
+        channel.force(false);
+      } catch (IOException | RuntimeException e) {
+        // the next batch goes where this one started
+        batch.forEach(p -> p.written.completeExceptionally(e));
+        return;
+      }
+      size = position;
+
+      for (Pending placed : written) {
+        track(placed.sequence, placed.event);
+        for (Projection subscriber : subscribers) {
+          notify(subscriber, placed.sequence, placed.event);
+        }
+        if (++sinceSnapshot >= snapshotEvery) {
+          sinceSnapshot = 0;
+          scheduleSnapshot(placed.end);
+        }
+      }
+    }
+    written.forEach(p -> p.written.complete(p.sequence));
+  }
+
+  @Override
+  public long subscribe(Projection projection) {
+    try {
+      Snapshot snapshot = Snapshot.latest(directory);
+      long from = 0;
+      long lastSeen = 0;
+      if (snapshot != null) {
+        for (Snapshot.Entry entry : snapshot.entries) {
+          projection.apply(entry.sequence(), entry.event());
+        }
+        from = snapshot.logOffset;
+        lastSeen = snapshot.sequence;
+      }
+
+      // catch up without blocking writers, then take the few records appended meanwhile under the lock
+      long[] last = {lastSeen};
+      Projection tracking =
+          (sequence, event) -> {
+            if (sequence > last[0]) {
+              projection.apply(sequence, event);
+              last[0] = sequence;
+            }
+          };
+      long end;
+      synchronized (lock) {
+        end = size;
+      }
+      from = read(from, end, tracking);
+      synchronized (lock) {
+        read(from, size, tracking);
+        subscribers.add(projection);
+        return nextSequence - 1;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot replay warehouse event log " + directory, e);
+    }
+  }
+
+  @Override
+  public long follow(Projection projection) {
+    synchronized (lock) {
+      subscribers.add(projection);
+      return nextSequence - 1;
+    }
+  }
+
+  @Override
+  public void unsubscribe(Projection projection) {
+    subscribers.remove(projection);
+  }
+
+  /**
+   * Feeds the intact records between the two offsets to {@code sink} and returns the offset
+   * after the last of them. Positional reads, so appends are not disturbed.
+   */
+  long read(long from, long to, Projection sink) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER);
+    EventCodec.Decoded decoded = new EventCodec.Decoded();
+    long position = from;
+    long consumed = from;
+    while (position < to) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        break;
+      }
+      position += read;
+      buffer.flip();
+      if (position > to) {
+        buffer.limit(buffer.limit() - (int) (position - to));
+        position = to;
+      }
+      while (EventCodec.decode(buffer, decoded)) {
+        sink.apply(decoded.sequence, decoded.event);
+      }
+      consumed = position - buffer.remaining();
+      if (buffer.remaining() == buffer.capacity()) {
+        // a full buffer that does not decode: a corrupt record, everything after it is unreadable
+        break;
+      }
+      buffer.compact();
+    }
+    return consumed;
+  }
+
+  private void track(long sequence, WarehouseEvent event) {
+    nextSequence = sequence + 1;
+    if (event.type() == WarehouseEvent.Type.ARCHIVED) {
+      active.remove(event.businessUnitCode());
+    } else {
+      active.put(event.businessUnitCode(), new Snapshot.Entry(sequence, event));
+    }
+  }
+
+  private void notify(Projection subscriber, long sequence, WarehouseEvent event) {
+    try {
+      subscriber.apply(sequence, event);
+    } catch (RuntimeException e) {
+      LOGGER.warnf(e, "Projection %s failed on event %d", subscriber, sequence);
+    }
+  }
+
+  // at the event tracked last, which ends at logOffset
+  private void scheduleSnapshot(long logOffset) {
+    List<Snapshot.Entry> entries = new ArrayList<>(active.values());
+    entries.sort(Comparator.comparingLong(Snapshot.Entry::sequence));
+    Snapshot snapshot = new Snapshot(nextSequence - 1, logOffset, entries);
+    snapshotWriter.execute(
+        () -> {
+          try {
+            snapshot.write(directory);
+          } catch (IOException e) {
+            LOGGER.warnf(e, "Could not write warehouse event snapshot at %d", snapshot.sequence);
+          }
+        });
+  }
+
+  static final class Pending {
+
+    final WarehouseEvent event;
+    final CompletableFuture<Long> written = new CompletableFuture<>();
+    // null while its transaction runs, guarded by the pending queue
+    Boolean committed;
+    long sequence;
+    // log offset after the record
+    long end;
+
+    Pending(WarehouseEvent event) {
+      this.event = event;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.fulfilment.application.monolith.warehouses.adapters.eventlog;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.jboss.logging.Logger;
+
+/**
+ * The last event of every warehouse active at {@code sequence}, and the log offset right after
+ * that event: a reader restores the entries and continues reading the log from the offset.
+ * Written next to the log as {@code snapshot-<sequence>.bin}, through a temporary file so a
+ * reader never sees a partial one.
+ */
+final class Snapshot {
+
+  record Entry(long sequence, WarehouseEvent event) {}
+
+  private static final Logger LOGGER = Logger.getLogger(Snapshot.class.getName());
+
+  private static final String PREFIX = "snapshot-";
+  private static final String SUFFIX = ".bin";
+  private static final int MAGIC = 0x57485331; // "WHS1"
+  private static final int HEADER = Integer.BYTES + 2 * Long.BYTES + Integer.BYTES;
+  // the previous snapshot stays around in case the newest one turns out to be unreadable
+  private static final int KEEP = 2;
+
+  final long sequence;
+  final long logOffset;
+  final List<Entry> entries;
+
+  Snapshot(long sequence, long logOffset, List<Entry> entries) {
+    this.sequence = sequence;
+    this.logOffset = logOffset;
+    this.entries = entries;
+  }
+
+  void write(Path directory) throws IOException {
+    Path target = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+    Path temporary = directory.resolve(target.getFileName() + ".tmp");
+
+    ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+    try (FileChannel channel =
+        FileChannel.open(
+            temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      buffer.putInt(MAGIC).putLong(sequence).putLong(logOffset).putInt(entries.size());
+      for (Entry entry : entries) {
+        if (buffer.remaining() < EventCodec.MAX_RECORD) {
+          drain(buffer, channel);
+        }
+        EventCodec.encode(entry.sequence(), entry.event(), buffer);
+      }
+      drain(buffer, channel);
+      channel.force(true);
+    }
+    Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+    List<Path> snapshots = list(directory);
+    for (int i = KEEP; i < snapshots.size(); i++) {
+      Files.deleteIfExists(snapshots.get(i));
+    }
+  }
+
+  /** The newest readable snapshot, {@code null} when there is none. */
+  static Snapshot latest(Path directory) throws IOException {
+    for (Path file : list(directory)) {
+      Snapshot snapshot = read(file);
+      if (snapshot != null) {
+        return snapshot;
+      }
+      LOGGER.warnf("Skipping unreadable warehouse event snapshot %s", file);
+    }
+    return null;
+  }
+
+  private static Snapshot read(Path file) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+    if (buffer.remaining() < HEADER || buffer.getInt() != MAGIC) {
+      return null;
+    }
+    long sequence = buffer.getLong();
+    long logOffset = buffer.getLong();
+    int count = buffer.getInt();
+
+    List<Entry> entries = new ArrayList<>(count);
+    EventCodec.Decoded decoded = new EventCodec.Decoded();
+    for (int i = 0; i < count; i++) {
+      if (!EventCodec.decode(buffer, decoded)) {
+        return null;
+      }
+      entries.add(new Entry(decoded.sequence, decoded.event));
+    }
+    return new Snapshot(sequence, logOffset, entries);
+  }
+
+  // newest first
+  private static List<Path> list(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(f -> f.getFileName().toString().startsWith(PREFIX) && f.getFileName().toString().endsWith(SUFFIX))
+          .sorted(Comparator.comparing((Path f) -> f.getFileName().toString()).reversed())
+          .toList();
+    }
+  }
+
+  private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -1,30 +1,73 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.common.ConditionalRequests;
+import com.fulfilment.application.monolith.common.ReadOnly;
+import com.fulfilment.application.monolith.warehouses.adapters.database.ActiveWarehouseLookup;
+import com.fulfilment.application.monolith.warehouses.adapters.database.ShardedWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseValidator;
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkWarehouseChange;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.BulkWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
 import com.warehouse.api.WarehouseResource;
 import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseArchival;
+import com.warehouse.api.beans.WarehouseBulkResult;
+import com.warehouse.api.beans.WarehouseVersion;
+import io.vertx.core.http.HttpServerResponse;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.RedirectionException;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RequestScoped
 public class WarehouseResourceImpl implements WarehouseResource {
 
-  @Inject WarehouseRepository warehouseRepository;
+  @Inject ShardedWarehouseStore warehouseStore;
+  @Inject ActiveWarehouseLookup activeWarehouseLookup;
 
   @Inject CreateWarehouseUseCase createWarehouseUseCase;
   @Inject ReplaceWarehouseUseCase replaceWarehouseUseCase;
   @Inject ArchiveWarehouseUseCase archiveWarehouseUseCase;
+  @Inject BulkWarehouseUseCase bulkWarehouseUseCase;
+
+  @Context HttpHeaders headers;
+  @Context HttpServerResponse httpResponse;
 
   @Override
-  public List<Warehouse> listAllWarehousesUnits() {
-    return warehouseRepository.getAll().stream().map(this::toWarehouseResponse).toList();
+  @ReadOnly
+  public List<Warehouse> listAllWarehousesUnits(String asOf) {
+    var warehouses =
+            asOf == null || asOf.isBlank()
+                    ? warehouseStore.getAll()
+                    : warehouseStore.findAsOf(parseInstant(asOf.trim()));
+    return warehouses.stream().map(this::toWarehouseResponse).toList();
+  }
+
+  @Override
+  @ReadOnly
+  public List<WarehouseVersion> getTheVersionHistoryOfAWarehouseUnit(String businessUnitCode) {
+    String code = requireNonBlank(businessUnitCode, "Warehouse businessUnitCode was not set.");
+
+    var versions = warehouseStore.findHistory(code);
+    if (versions.isEmpty()) {
+      throw new WebApplicationException("Warehouse not found: " + code, 404);
+    }
+    return versions.stream().map(this::toVersionResponse).toList();
   }
 
   @Override
@@ -39,14 +82,31 @@ public class WarehouseResourceImpl implements WarehouseResource {
   }
 
   @Override
+  @ReadOnly
   public Warehouse getAWarehouseUnitByID(String id) {
     String code = requireNonBlank(id, "Warehouse id was not set.");
 
-    var warehouse = warehouseRepository.findByBusinessUnitCode(code);
+    if (ConditionalRequests.hasValidators(headers)) {
+      WarehouseValidator validator = warehouseStore.findActiveValidator(code);
+      if (validator != null && validator.version() != null) {
+        Response notModified =
+                ConditionalRequests.notModified(
+                        headers, code, validator.version(), ConditionalRequests.lastModified(validator.createdAt(), null));
+        if (notModified != null) {
+          // the generated interface returns the bean, so the 304 travels as an exception
+          throw new RedirectionException(notModified);
+        }
+      }
+    }
+
+    // concurrent GETs of a hot warehouse share one query
+    var warehouse = activeWarehouseLookup.find(code);
     if (warehouse == null || warehouse.archivedAt != null) {
       throw new WebApplicationException("Warehouse not found: " + id, 404);
     }
 
+    writeValidators(warehouse);
+
     return toWarehouseResponse(warehouse);
   }
 
@@ -55,12 +115,12 @@ public class WarehouseResourceImpl implements WarehouseResource {
   public void archiveAWarehouseUnitByID(String id) {
     String code = requireNonBlank(id, "Warehouse id was not set.");
 
-    var warehouse = warehouseRepository.findByBusinessUnitCode(code);
+    var warehouse = warehouseStore.findByBusinessUnitCode(code);
     if (warehouse == null || warehouse.archivedAt != null) {
       throw new WebApplicationException("Active warehouse not found: " + id, 404);
     }
 
-    archiveWarehouseUseCase.archive(warehouse);
+    archiveWarehouseUseCase.archive(warehouse, ConditionalRequests.expectedVersion(headers, code));
   }
 
   @Override
@@ -72,16 +132,45 @@ public class WarehouseResourceImpl implements WarehouseResource {
 
     // enforce path param as the identifier to replace
     domain.businessUnitCode = code;
+    // If-Match carries the version being replaced (checked by the use case)
+    domain.version = ConditionalRequests.expectedVersion(headers, code);
+
+    // the stored state of the new version, without reading it back
+    var replaced = replaceWarehouseUseCase.replace(domain);
 
-    replaceWarehouseUseCase.replace(domain);
+    writeValidators(replaced);
 
-    // return updated state from DB (source of truth)
-    var updated = warehouseRepository.findByBusinessUnitCode(domain.businessUnitCode);
-    if (updated == null || updated.archivedAt != null) {
-      throw new WebApplicationException("Warehouse not found after replacement.", 500);
+    return toWarehouseResponse(replaced);
+  }
+
+  @Override
+  @Transactional
+  public WarehouseBulkResult archiveWarehouseUnitsInBulk(@NotNull WarehouseArchival data) {
+    if (data == null) {
+      throw new WebApplicationException("Request body was not set.", 422);
     }
+    return toBulkResult(bulkWarehouseUseCase.archiveMatching(data.getLocation(), data.getBusinessUnitCodePrefix()));
+  }
 
-    return toWarehouseResponse(updated);
+  @Override
+  @Transactional
+  public WarehouseBulkResult replaceWarehouseUnitsInBulk(@NotNull List<Warehouse> data) {
+    if (data == null) {
+      throw new WebApplicationException("Request body was not set.", 422);
+    }
+    return toBulkResult(bulkWarehouseUseCase.replaceAll(data.stream().map(this::toDomainWarehouse).toList()));
+  }
+
+  private void writeValidators(com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
+    if (warehouse.version != null) {
+      httpResponse.putHeader(
+              HttpHeaders.ETAG,
+              ConditionalRequests.entityTag(warehouse.businessUnitCode, warehouse.version).toString());
+    }
+    Date lastModified = ConditionalRequests.lastModified(warehouse.createdAt, warehouse.archivedAt);
+    if (lastModified != null) {
+      httpResponse.putHeader(HttpHeaders.LAST_MODIFIED, ConditionalRequests.httpDate(lastModified));
+    }
   }
 
   private Warehouse toWarehouseResponse(
@@ -95,6 +184,53 @@ public class WarehouseResourceImpl implements WarehouseResource {
     return response;
   }
 
+  private WarehouseBulkResult toBulkResult(BulkWarehouseChange change) {
+    var result = new WarehouseBulkResult();
+    result.setArchived(change.archived().size());
+    result.setCreated(change.created().size());
+    result.setBusinessUnitCodes(
+            Stream.concat(change.archived().stream(), change.created().stream())
+                    .map(w -> w.businessUnitCode)
+                    .distinct()
+                    .toList());
+    result.setLocations(
+            Stream.concat(change.archived().stream(), change.created().stream())
+                    .map(w -> w.location)
+                    .distinct()
+                    .toList());
+    return result;
+  }
+
+  private WarehouseVersion toVersionResponse(
+          com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
+
+    var response = new WarehouseVersion();
+    response.setBusinessUnitCode(warehouse.businessUnitCode);
+    response.setLocation(warehouse.location);
+    response.setCapacity(warehouse.capacity);
+    response.setStock(warehouse.stock);
+    response.setCreatedAt(warehouse.createdAt == null ? null : warehouse.createdAt.toString());
+    response.setArchivedAt(warehouse.archivedAt == null ? null : warehouse.archivedAt.toString());
+    return response;
+  }
+
+  // timestamps are stored as local date-times of the server's zone, see ConditionalRequests.lastModified
+  private LocalDateTime parseInstant(String value) {
+    try {
+      return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    } catch (DateTimeParseException notOffset) {
+      try {
+        return LocalDateTime.parse(value);
+      } catch (DateTimeParseException notLocal) {
+        try {
+          return LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException notDate) {
+          throw new WebApplicationException("asOf is not an ISO-8601 date-time: " + value, 400);
+        }
+      }
+    }
+  }
+
   private com.fulfilment.application.monolith.warehouses.domain.models.Warehouse toDomainWarehouse(Warehouse data) {
     if (data == null) {
       throw new WebApplicationException("Request body was not set.", 422);
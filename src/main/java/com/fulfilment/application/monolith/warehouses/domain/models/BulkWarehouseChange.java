@@ -0,0 +1,6 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import java.util.List;
+
+/** What a bulk operation did: the versions it archived and the ones it created in their place. */
+public record BulkWarehouseChange(List<Warehouse> archived, List<Warehouse> created) {}
@@ -16,4 +16,8 @@ public class Warehouse {
   public LocalDateTime createdAt;
 
   public LocalDateTime archivedAt;
+
+  // optimistic-locking version of the stored row; on a replacement request it carries the
+  // version the caller expects to replace (If-Match)
+  public Long version;
 }
@@ -0,0 +1,28 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * A step in the lifecycle of a business unit. The warehouse values are those of the version the
+ * event is about: the new one for {@code CREATED} and {@code REPLACED}, the archived one for
+ * {@code ARCHIVED}.
+ */
+public record WarehouseEvent(
+    Type type,
+    String businessUnitCode,
+    String location,
+    Integer capacity,
+    Integer stock,
+    LocalDateTime occurredAt) {
+
+  public enum Type {
+    CREATED,
+    REPLACED,
+    ARCHIVED
+  }
+
+  public static WarehouseEvent of(Type type, Warehouse warehouse, LocalDateTime occurredAt) {
+    return new WarehouseEvent(
+        type, warehouse.businessUnitCode, warehouse.location, warehouse.capacity, warehouse.stock, occurredAt);
+  }
+}
@@ -3,5 +3,10 @@ package com.fulfilment.application.monolith.warehouses.domain.ports;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 
 public interface ArchiveWarehouseOperation {
-  void archive(Warehouse warehouse);
+  default void archive(Warehouse warehouse) {
+    archive(warehouse, null);
+  }
+
+  /** Archives {@code warehouse} if it is still at {@code expectedVersion}; {@code null} skips the check. */
+  void archive(Warehouse warehouse, Long expectedVersion);
 }
@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkWarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.List;
+
+/** Archives and replaces many warehouses in one go: every change is made, or none. */
+public interface BulkWarehouseOperation {
+
+  /** Archives the active warehouses at {@code location} and/or with a business unit code starting with {@code businessUnitCodePrefix}. */
+  BulkWarehouseChange archiveMatching(String location, String businessUnitCodePrefix);
+
+  /** Replaces the active warehouse of each business unit code, with the rules of {@link ReplaceWarehouseOperation}. */
+  BulkWarehouseChange replaceAll(List<Warehouse> replacements);
+}
@@ -3,5 +3,6 @@ package com.fulfilment.application.monolith.warehouses.domain.ports;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 
 public interface ReplaceWarehouseOperation {
-  void replace(Warehouse warehouse);
+  /** Replaces the active warehouse and returns the new version as stored. */
+  Warehouse replace(Warehouse warehouse);
 }
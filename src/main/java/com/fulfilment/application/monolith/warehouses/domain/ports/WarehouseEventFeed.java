@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+
+public interface WarehouseEventFeed {
+
+  interface Projection {
+    void apply(long sequence, WarehouseEvent event);
+  }
+
+  /**
+   * Brings {@code projection} up to date and keeps it there: it first receives the latest
+   * snapshot, as the last event of every active warehouse, then each later event in sequence
+   * order, including the ones appended from now on. Returns the last sequence it has seen.
+   */
+  long subscribe(Projection projection);
+
+  /**
+   * Like {@link #subscribe} without the catch-up: {@code projection} only receives the events
+   * appended from now on. Returns the last sequence already in the log.
+   */
+  long follow(Projection projection);
+
+  void unsubscribe(Projection projection);
+}
@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+
+public interface WarehouseEventLog {
+
+  // for callers that do not record the lifecycle
+  WarehouseEventLog NONE = event -> {};
+
+  /** Records {@code event} once the surrounding transaction commits, dropped if it rolls back. */
+  void append(WarehouseEvent event);
+}
@@ -1,6 +1,8 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface WarehouseStore {
@@ -16,4 +18,60 @@ public interface WarehouseStore {
   Warehouse findByBusinessUnitCode(String buCode);
 
   Warehouse findAnyByBusinessUnitCode(String buCode);
+
+  /** Whether the business unit code was ever used, by an active or an archived warehouse. */
+  default boolean existsByBusinessUnitCode(String buCode) {
+    return findAnyByBusinessUnitCode(buCode) != null;
+  }
+
+  /** The active warehouses at {@code location}, what the capacity checks of a location need. */
+  default List<Warehouse> findActiveAtLocation(String location) {
+    return getAll().stream().filter(w -> location.equals(w.location)).toList();
+  }
+
+  /**
+   * The active warehouses at {@code location} whose business unit code starts with {@code
+   * businessUnitCodePrefix}; a {@code null} criterion matches any.
+   */
+  default List<Warehouse> findActiveMatching(String location, String businessUnitCodePrefix) {
+    return getAll().stream()
+            .filter(w -> location == null || location.equals(w.location))
+            .filter(w -> businessUnitCodePrefix == null || w.businessUnitCode.startsWith(businessUnitCodePrefix))
+            .toList();
+  }
+
+  /** The active warehouses of {@code buCodes}; codes without one are left out. */
+  default List<Warehouse> findActiveByBusinessUnitCodes(Collection<String> buCodes) {
+    return buCodes.stream().map(this::findByBusinessUnitCode).filter(w -> w != null).toList();
+  }
+
+  /**
+   * Archives every one of {@code warehouses} at {@code archivedAt}, or none of them: fails like
+   * {@link #update} when one was changed concurrently.
+   */
+  default void archiveAll(List<Warehouse> warehouses, LocalDateTime archivedAt) {
+    for (Warehouse warehouse : warehouses) {
+      warehouse.archivedAt = archivedAt;
+      update(warehouse);
+    }
+  }
+
+  default void createAll(List<Warehouse> warehouses) {
+    warehouses.forEach(this::create);
+  }
+
+  /**
+   * Archives {@code current}, its {@code archivedAt} set, and creates {@code replacement} in its
+   * place. What links to the archived version moves over to the new one.
+   */
+  default void replace(Warehouse current, Warehouse replacement) {
+    update(current);
+    create(replacement);
+  }
+
+  /** {@link #replace} for many business units, each replacement matched to its current version by business unit code. */
+  default void replaceAll(List<Warehouse> currents, List<Warehouse> replacements, LocalDateTime archivedAt) {
+    archiveAll(currents, archivedAt);
+    createAll(replacements);
+  }
 }
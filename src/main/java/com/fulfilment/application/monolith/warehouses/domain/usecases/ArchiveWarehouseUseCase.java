@@ -1,31 +1,50 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
+import com.fulfilment.application.monolith.common.TimedUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventLog;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.WebApplicationException;
+import jakarta.inject.Inject;
 import java.time.LocalDateTime;
 
 @ApplicationScoped
+@TimedUseCase
 public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
+  private final WarehouseEventLog eventLog;
 
   public ArchiveWarehouseUseCase(WarehouseStore warehouseStore) {
+    this(warehouseStore, WarehouseEventLog.NONE);
+  }
+
+  @Inject
+  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore, WarehouseEventLog eventLog) {
     this.warehouseStore = warehouseStore;
+    this.eventLog = eventLog;
   }
 
   @Override
-  public void archive(Warehouse warehouse) {
+  @WithSpan
+  public void archive(Warehouse warehouse, Long expectedVersion) {
     if (warehouse == null) {
-      throw new WebApplicationException("Warehouse was not provided.", 422);
+      throw new DomainViolationException(Reason.MISSING_FIELD, "Warehouse was not provided.", 422);
     }
     if (warehouse.archivedAt != null) {
-      throw new WebApplicationException("Warehouse is already archived.", 409);
+      throw new DomainViolationException(Reason.ALREADY_ARCHIVED, "Warehouse is already archived.", 409);
     }
 
+    // If-Match: refuse to archive a version the caller has not seen
+    WarehouseUseCaseSupport.requireExpectedVersion(expectedVersion, warehouse);
+
     warehouse.archivedAt = LocalDateTime.now();
     warehouseStore.update(warehouse);
+    eventLog.append(WarehouseEvent.of(WarehouseEvent.Type.ARCHIVED, warehouse, warehouse.archivedAt));
   }
 }
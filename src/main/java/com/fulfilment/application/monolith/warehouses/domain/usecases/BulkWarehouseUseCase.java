@@ -0,0 +1,161 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
+import com.fulfilment.application.monolith.common.TimedUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkWarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.BulkWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventLog;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Archiving and replacement for many business units at once, e.g. when a site closes. The rules
+ * are those of {@link ArchiveWarehouseUseCase} and {@link ReplaceWarehouseUseCase}, but the
+ * store is asked once per operation and the limits of a location are checked once, against the
+ * state after every replacement.
+ */
+@ApplicationScoped
+@TimedUseCase
+public class BulkWarehouseUseCase implements BulkWarehouseOperation {
+
+  private final WarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+  private final WarehouseEventLog eventLog;
+
+  public BulkWarehouseUseCase(WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    this(warehouseStore, locationResolver, WarehouseEventLog.NONE);
+  }
+
+  @Inject
+  public BulkWarehouseUseCase(
+          WarehouseStore warehouseStore, LocationResolver locationResolver, WarehouseEventLog eventLog) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+    this.eventLog = eventLog;
+  }
+
+  @Override
+  @WithSpan
+  public BulkWarehouseChange archiveMatching(String location, String businessUnitCodePrefix) {
+    String atLocation = blankToNull(location);
+    String prefix = blankToNull(businessUnitCodePrefix);
+    if (atLocation == null && prefix == null) {
+      throw new DomainViolationException(
+              Reason.MISSING_FIELD, "A location or a businessUnitCode prefix must be set.", 422);
+    }
+    if (atLocation != null && locationResolver.resolveByIdentifier(atLocation) == null) {
+      throw new DomainViolationException(
+              Reason.UNKNOWN_LOCATION, "Invalid warehouse location: " + atLocation, 422);
+    }
+
+    List<Warehouse> archived = warehouseStore.findActiveMatching(atLocation, prefix);
+    if (archived.isEmpty()) {
+      return new BulkWarehouseChange(List.of(), List.of());
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    warehouseStore.archiveAll(archived, now);
+    archived.forEach(w -> eventLog.append(WarehouseEvent.of(WarehouseEvent.Type.ARCHIVED, w, now)));
+    return new BulkWarehouseChange(archived, List.of());
+  }
+
+  @Override
+  @WithSpan
+  public BulkWarehouseChange replaceAll(List<Warehouse> replacements) {
+    if (replacements == null || replacements.isEmpty()) {
+      throw new DomainViolationException(Reason.MISSING_FIELD, "No replacements were given.", 422);
+    }
+
+    Map<String, Warehouse> byCode = new LinkedHashMap<>();
+    for (Warehouse replacement : replacements) {
+      WarehouseUseCaseSupport.validateRequiredFields(replacement);
+      WarehouseUseCaseSupport.normalizeWarehouse(replacement);
+      if (byCode.put(replacement.businessUnitCode, replacement) != null) {
+        throw new DomainViolationException(
+                Reason.INVALID_VALUE,
+                "Warehouse businessUnitCode is replaced more than once: " + replacement.businessUnitCode,
+                422);
+      }
+    }
+
+    Map<String, Warehouse> currentByCode = new LinkedHashMap<>();
+    for (Warehouse current : warehouseStore.findActiveByBusinessUnitCodes(byCode.keySet())) {
+      currentByCode.put(current.businessUnitCode, current);
+    }
+    List<String> missing = byCode.keySet().stream().filter(code -> !currentByCode.containsKey(code)).toList();
+    if (!missing.isEmpty()) {
+      throw new DomainViolationException(
+              Reason.NOT_FOUND, "Active warehouse not found for businessUnitCode=" + String.join(",", missing), 404);
+    }
+
+    Map<String, Location> targets = new LinkedHashMap<>();
+    for (Warehouse replacement : byCode.values()) {
+      WarehouseUseCaseSupport.validateReplacement(replacement, currentByCode.get(replacement.businessUnitCode));
+      Location target =
+              targets.computeIfAbsent(
+                      replacement.location, l -> WarehouseUseCaseSupport.requireLocation(locationResolver, replacement));
+      WarehouseUseCaseSupport.validateCapacityNotExceedingLocation(replacement, target);
+    }
+    targets.forEach((location, target) -> validateLocationAfterReplacements(location, target, byCode));
+
+    // --- archive + create (history) ---
+    LocalDateTime now = LocalDateTime.now();
+
+    List<Warehouse> created = new ArrayList<>(byCode.size());
+    for (Warehouse replacement : byCode.values()) {
+      Warehouse current = currentByCode.get(replacement.businessUnitCode);
+      Warehouse warehouse = new Warehouse();
+      warehouse.businessUnitCode = replacement.businessUnitCode;
+      warehouse.location = replacement.location;
+      warehouse.capacity = replacement.capacity;
+      warehouse.stock = replacement.stock;
+      warehouse.createdAt = now;
+      warehouse.version = current.version == null ? null : current.version + 1;
+      created.add(warehouse);
+    }
+    List<Warehouse> archived = new ArrayList<>(currentByCode.values());
+    warehouseStore.replaceAll(archived, created, now);
+
+    created.forEach(w -> eventLog.append(WarehouseEvent.of(WarehouseEvent.Type.REPLACED, w, now)));
+    return new BulkWarehouseChange(archived, created);
+  }
+
+  // the warehouses at the location once every replacement is made: the ones being replaced leave it
+  private void validateLocationAfterReplacements(String location, Location target, Map<String, Warehouse> byCode) {
+    List<Warehouse> before = warehouseStore.findActiveAtLocation(location);
+
+    List<Warehouse> after = new ArrayList<>();
+    before.stream().filter(w -> !byCode.containsKey(w.businessUnitCode)).forEach(after::add);
+    byCode.values().stream().filter(w -> location.equals(w.location)).forEach(after::add);
+
+    // as for a single replacement, a location already over its limit may keep what it has
+    if (after.size() > before.size() && after.size() > target.maxNumberOfWarehouses) {
+      throw new DomainViolationException(
+              Reason.LOCATION_FULL,
+              "Max number of warehouses reached for location: " + location,
+              409);
+    }
+    if (WarehouseUseCaseSupport.sumCapacityAtLocation(after, location) > target.maxCapacity) {
+      throw new DomainViolationException(
+              Reason.LOCATION_CAPACITY_EXCEEDED,
+              "Location capacity exceeded for location: " + location,
+              409);
+    }
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+}
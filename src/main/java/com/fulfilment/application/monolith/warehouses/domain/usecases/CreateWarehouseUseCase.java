@@ -1,37 +1,54 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
+import com.fulfilment.application.monolith.common.TimedUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventLog;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.WebApplicationException;
+import jakarta.inject.Inject;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @ApplicationScoped
+@TimedUseCase
 public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
+  private final WarehouseEventLog eventLog;
 
   public CreateWarehouseUseCase(WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    this(warehouseStore, locationResolver, WarehouseEventLog.NONE);
+  }
+
+  @Inject
+  public CreateWarehouseUseCase(
+          WarehouseStore warehouseStore, LocationResolver locationResolver, WarehouseEventLog eventLog) {
     this.warehouseStore = warehouseStore;
     this.locationResolver = locationResolver;
+    this.eventLog = eventLog;
   }
 
   @Override
+  @WithSpan
   public void create(Warehouse warehouse) {
     WarehouseUseCaseSupport.validateRequiredFields(warehouse);
 
     WarehouseUseCaseSupport.normalizeWarehouse(warehouse);
 
     // Business Unit Code must be unique
-    Warehouse existing = warehouseStore.findAnyByBusinessUnitCode(warehouse.businessUnitCode);
-    if (existing != null) {
-      throw new WebApplicationException(
-              "Warehouse businessUnitCode already exists: " + warehouse.businessUnitCode, 409);
+    if (warehouseStore.existsByBusinessUnitCode(warehouse.businessUnitCode)) {
+      throw new DomainViolationException(
+              Reason.DUPLICATE_BUSINESS_UNIT,
+              "Warehouse businessUnitCode already exists: " + warehouse.businessUnitCode,
+              409);
     }
 
     // Location must exist
@@ -41,26 +58,31 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
     WarehouseUseCaseSupport.validateCapacityAndStock(warehouse, location);
 
     // Validate feasibility in that location (count + summed capacity)
-    List<Warehouse> activeWarehouses = warehouseStore.getAll();
+    List<Warehouse> activeWarehouses = warehouseStore.findActiveAtLocation(warehouse.location);
     long activeCountAtLocation =
             WarehouseUseCaseSupport.countActiveAtLocation(activeWarehouses, warehouse.location);
 
     if (activeCountAtLocation >= location.maxNumberOfWarehouses) {
-      throw new WebApplicationException(
-              "Max number of warehouses reached for location: " + warehouse.location, 409);
+      throw new DomainViolationException(
+              Reason.LOCATION_FULL,
+              "Max number of warehouses reached for location: " + warehouse.location,
+              409);
     }
 
     int totalCapacityAtLocation =
             WarehouseUseCaseSupport.sumCapacityAtLocation(activeWarehouses, warehouse.location);
 
     if (totalCapacityAtLocation + warehouse.capacity > location.maxCapacity) {
-      throw new WebApplicationException(
-              "Location capacity exceeded for location: " + warehouse.location, 409);
+      throw new DomainViolationException(
+              Reason.LOCATION_CAPACITY_EXCEEDED,
+              "Location capacity exceeded for location: " + warehouse.location,
+              409);
     }
 
     warehouse.createdAt = LocalDateTime.now();
     warehouse.archivedAt = null;
 
     warehouseStore.create(warehouse);
+    eventLog.append(WarehouseEvent.of(WarehouseEvent.Type.CREATED, warehouse, warehouse.createdAt));
   }
 }
@@ -1,28 +1,44 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
+import com.fulfilment.application.monolith.common.TimedUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventLog;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.WebApplicationException;
+import jakarta.inject.Inject;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @ApplicationScoped
+@TimedUseCase
 public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
+  private final WarehouseEventLog eventLog;
 
   public ReplaceWarehouseUseCase(WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    this(warehouseStore, locationResolver, WarehouseEventLog.NONE);
+  }
+
+  @Inject
+  public ReplaceWarehouseUseCase(
+          WarehouseStore warehouseStore, LocationResolver locationResolver, WarehouseEventLog eventLog) {
     this.warehouseStore = warehouseStore;
     this.locationResolver = locationResolver;
+    this.eventLog = eventLog;
   }
 
   @Override
-  public void replace(Warehouse newWarehouse) {
+  @WithSpan
+  public Warehouse replace(Warehouse newWarehouse) {
     WarehouseUseCaseSupport.validateRequiredFields(newWarehouse);
 
     // normalize
@@ -30,36 +46,32 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
     Warehouse current = warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
     if (current == null) {
-      throw new WebApplicationException(
-              "Active warehouse not found for businessUnitCode=" + newWarehouse.businessUnitCode, 404);
+      throw new DomainViolationException(
+              Reason.NOT_FOUND,
+              "Active warehouse not found for businessUnitCode=" + newWarehouse.businessUnitCode,
+              404);
     }
 
+    // If-Match: the caller must be replacing the version it has seen
+    WarehouseUseCaseSupport.requireExpectedVersion(newWarehouse.version, current);
+
     // Location must exist
     Location targetLocation = WarehouseUseCaseSupport.requireLocation(locationResolver, newWarehouse);
 
     // --- replacement validations ---
-    // Null-safe stock/capacity comparisons
-    int currentStock = current.stock == null ? 0 : current.stock;
-
-    // 1) New capacity must accommodate old stock
-    if (newWarehouse.capacity < currentStock) {
-      throw new WebApplicationException("New capacity must accommodate existing stock.", 409);
-    }
-
-    // 2) Stock must match the previous warehouse
-    if (!newWarehouse.stock.equals(current.stock)) {
-      throw new WebApplicationException("New warehouse stock must match current warehouse stock.", 409);
-    }
+    WarehouseUseCaseSupport.validateReplacement(newWarehouse, current);
 
-    List<Warehouse> activeWarehouses = warehouseStore.getAll();
+    List<Warehouse> activeWarehouses = warehouseStore.findActiveAtLocation(newWarehouse.location);
     boolean movingLocation = !newWarehouse.location.equals(current.location);
 
     long countAtTarget =
             WarehouseUseCaseSupport.countActiveAtLocation(activeWarehouses, newWarehouse.location);
 
     if (movingLocation && countAtTarget >= targetLocation.maxNumberOfWarehouses) {
-      throw new WebApplicationException(
-              "Max number of warehouses reached for location: " + newWarehouse.location, 409);
+      throw new DomainViolationException(
+              Reason.LOCATION_FULL,
+              "Max number of warehouses reached for location: " + newWarehouse.location,
+              409);
     }
 
     // ensure a single warehouse can't exceed the location cap
@@ -77,15 +89,16 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
     }
 
     if (resultingCapacityAtTarget > targetLocation.maxCapacity) {
-      throw new WebApplicationException(
-              "Location capacity exceeded for location: " + newWarehouse.location, 409);
+      throw new DomainViolationException(
+              Reason.LOCATION_CAPACITY_EXCEEDED,
+              "Location capacity exceeded for location: " + newWarehouse.location,
+              409);
     }
 
     // --- archive + create (history) ---
     LocalDateTime now = LocalDateTime.now();
 
     current.archivedAt = now;
-    warehouseStore.update(current);
 
     Warehouse created = new Warehouse();
     created.businessUnitCode = newWarehouse.businessUnitCode;
@@ -94,7 +107,12 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
     created.stock = newWarehouse.stock;
     created.createdAt = now;
     created.archivedAt = null;
+    // continue the version lineage of the BU code so validators never repeat across replacements
+    created.version = current.version == null ? null : current.version + 1;
 
-    warehouseStore.create(created);
+    // the fulfilment assignments of the archived version follow it to the new one
+    warehouseStore.replace(current, created);
+    eventLog.append(WarehouseEvent.of(WarehouseEvent.Type.REPLACED, created, now));
+    return created;
   }
 }
@@ -1,9 +1,10 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.common.DomainViolationException;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
-import jakarta.ws.rs.WebApplicationException;
 import java.util.List;
 import java.util.Objects;
 
@@ -13,25 +14,29 @@ final class WarehouseUseCaseSupport {
 
   static void validateRequiredFields(Warehouse warehouse) {
     if (warehouse == null) {
-      throw new WebApplicationException("Request body was not set.", 422);
+      throw new DomainViolationException(Reason.MISSING_FIELD, "Request body was not set.", 422);
     }
     if (warehouse.businessUnitCode == null || warehouse.businessUnitCode.isBlank()) {
-      throw new WebApplicationException("Warehouse businessUnitCode was not set on request.", 422);
+      throw new DomainViolationException(
+              Reason.MISSING_FIELD, "Warehouse businessUnitCode was not set on request.", 422);
     }
     if (warehouse.location == null || warehouse.location.isBlank()) {
-      throw new WebApplicationException("Warehouse location was not set on request.", 422);
+      throw new DomainViolationException(
+              Reason.MISSING_FIELD, "Warehouse location was not set on request.", 422);
     }
     if (warehouse.capacity == null) {
-      throw new WebApplicationException("Warehouse capacity was not set on request.", 422);
+      throw new DomainViolationException(
+              Reason.MISSING_FIELD, "Warehouse capacity was not set on request.", 422);
     }
     if (warehouse.stock == null) {
-      throw new WebApplicationException("Warehouse stock was not set on request.", 422);
+      throw new DomainViolationException(
+              Reason.MISSING_FIELD, "Warehouse stock was not set on request.", 422);
     }
     if (warehouse.capacity <= 0) {
-      throw new WebApplicationException("Warehouse capacity must be > 0.", 422);
+      throw new DomainViolationException(Reason.INVALID_VALUE, "Warehouse capacity must be > 0.", 422);
     }
     if (warehouse.stock < 0) {
-      throw new WebApplicationException("Warehouse stock must be >= 0.", 422);
+      throw new DomainViolationException(Reason.INVALID_VALUE, "Warehouse stock must be >= 0.", 422);
     }
   }
 
@@ -43,22 +48,55 @@ final class WarehouseUseCaseSupport {
   static Location requireLocation(LocationResolver locationResolver, Warehouse warehouse) {
     Location location = locationResolver.resolveByIdentifier(warehouse.location);
     if (location == null) {
-      throw new WebApplicationException("Invalid warehouse location: " + warehouse.location, 422);
+      throw new DomainViolationException(
+              Reason.UNKNOWN_LOCATION, "Invalid warehouse location: " + warehouse.location, 422);
     }
     return location;
   }
 
   static void validateCapacityAndStock(Warehouse warehouse, Location location) {
     if (warehouse.capacity < warehouse.stock) {
-      throw new WebApplicationException("Warehouse capacity must accommodate stock.", 409);
+      throw new DomainViolationException(
+              Reason.CAPACITY_BELOW_STOCK, "Warehouse capacity must accommodate stock.", 409);
     }
     validateCapacityNotExceedingLocation(warehouse, location);
   }
 
   static void validateCapacityNotExceedingLocation(Warehouse warehouse, Location location) {
     if (warehouse.capacity > location.maxCapacity) {
-      throw new WebApplicationException(
-              "Warehouse capacity cannot exceed location max capacity.", 409);
+      throw new DomainViolationException(
+              Reason.WAREHOUSE_EXCEEDS_LOCATION,
+              "Warehouse capacity cannot exceed location max capacity.",
+              409);
+    }
+  }
+
+  /** What a replacement must keep from the version it replaces: room for its stock, and the stock itself. */
+  static void validateReplacement(Warehouse replacement, Warehouse current) {
+    // Null-safe stock/capacity comparisons
+    int currentStock = current.stock == null ? 0 : current.stock;
+
+    // 1) New capacity must accommodate old stock
+    if (replacement.capacity < currentStock) {
+      throw new DomainViolationException(
+              Reason.CAPACITY_BELOW_STOCK, "New capacity must accommodate existing stock.", 409);
+    }
+
+    // 2) Stock must match the previous warehouse
+    if (!replacement.stock.equals(current.stock)) {
+      throw new DomainViolationException(
+              Reason.STOCK_MISMATCH,
+              "New warehouse stock must match current warehouse stock.",
+              409);
+    }
+  }
+
+  static void requireExpectedVersion(Long expectedVersion, Warehouse current) {
+    if (expectedVersion != null && !expectedVersion.equals(current.version)) {
+      throw new DomainViolationException(
+              Reason.VERSION_MISMATCH,
+              "Warehouse version mismatch for businessUnitCode=" + current.businessUnitCode,
+              412);
     }
   }
 
@@ -0,0 +1,50 @@
+-- Identifiers are unquoted, matching the entity field names Hibernate maps them from.
+-- Sequences are bumped by 50, the allocation size of Hibernate's pooled id optimizer.
+
+create sequence store_seq start with 1 increment by 50;
+create sequence product_seq start with 1 increment by 50;
+create sequence warehouse_seq start with 1 increment by 50;
+create sequence fulfilment_assignment_seq start with 1 increment by 50;
+
+create table store (
+    id bigint not null,
+    name varchar(40),
+    quantityProductsInStock integer not null,
+    version bigint not null,
+    constraint store_pkey primary key (id),
+    constraint store_name_key unique (name)
+);
+
+create table product (
+    id bigint not null,
+    name varchar(40),
+    description varchar(255),
+    price numeric(10, 2),
+    stock integer not null,
+    version bigint not null,
+    constraint product_pkey primary key (id),
+    constraint product_name_key unique (name)
+);
+
+create table warehouse (
+    id bigint not null,
+    businessUnitCode varchar(255),
+    location varchar(255),
+    capacity integer,
+    stock integer,
+    createdAt timestamp(6),
+    archivedAt timestamp(6),
+    version bigint,
+    constraint warehouse_pkey primary key (id)
+);
+
+create table fulfilment_assignment (
+    id bigint not null,
+    storeId bigint not null,
+    productId bigint not null,
+    warehouseId bigint not null,
+    createdAt timestamp(6) not null,
+    constraint fulfilment_assignment_pkey primary key (id),
+    -- also the index for the storeId and (storeId, productId) lookups
+    constraint uq_store_product_warehouse unique (storeId, productId, warehouseId)
+);
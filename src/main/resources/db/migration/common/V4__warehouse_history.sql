@@ -0,0 +1,16 @@
+-- Archived warehouse versions, moved out of warehouse so the active rows stay a small, hot table.
+-- Rows keep the id they had in warehouse.
+create table warehouse_history (
+    id bigint not null,
+    businessUnitCode varchar(255) not null,
+    location varchar(255),
+    capacity integer,
+    stock integer,
+    createdAt timestamp(6),
+    archivedAt timestamp(6) not null,
+    version bigint,
+    constraint warehouse_history_pkey primary key (id)
+);
+
+-- latest archived version of a business unit
+create index warehouse_history_bu_idx on warehouse_history (businessUnitCode, archivedAt desc);
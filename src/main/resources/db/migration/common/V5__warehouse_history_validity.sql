@@ -0,0 +1,4 @@
+-- Versions of one business unit never overlap, so ordering by createdAt is ordering by validity.
+-- The history of a code and its version at an instant are both a descent of this index.
+drop index warehouse_history_bu_idx;
+create index warehouse_history_bu_created_idx on warehouse_history (businessUnitCode, createdAt desc);
@@ -0,0 +1,14 @@
+-- Assignments follow their warehouse to its replacement; the link they had to each archived
+-- version is kept here. warehouseId is the id of that version, now a row of warehouse_history.
+create table fulfilment_assignment_history (
+    assignmentId bigint not null,
+    storeId bigint not null,
+    productId bigint not null,
+    warehouseId bigint not null,
+    createdAt timestamp(6) not null,
+    movedAt timestamp(6) not null,
+    constraint fulfilment_assignment_history_pkey primary key (assignmentId, warehouseId)
+);
+
+-- the links of an archived warehouse version
+create index fulfilment_assignment_history_warehouse_idx on fulfilment_assignment_history (warehouseId);
@@ -0,0 +1,9 @@
+-- H2 has neither partial nor INCLUDE indexes: archivedAt and capacity become trailing key
+-- columns instead, and the single-active-row rule stays enforced by the use cases only.
+create index warehouse_bu_active_idx on warehouse (businessUnitCode, archivedAt);
+
+create index warehouse_location_active_idx on warehouse (location, archivedAt, capacity);
+
+create index fulfilment_assignment_warehouse_product_idx on fulfilment_assignment (warehouseId, productId);
+
+create index fulfilment_assignment_store_warehouse_idx on fulfilment_assignment (storeId, warehouseId);
@@ -0,0 +1,2 @@
+-- H2 has no range types: versions archived after the instant, then filtered on createdAt
+create index warehouse_history_validity_idx on warehouse_history (archivedAt, createdAt);
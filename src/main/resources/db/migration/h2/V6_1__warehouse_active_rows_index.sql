@@ -0,0 +1,3 @@
+-- Stands in for the partial indexes of PostgreSQL when listing the active warehouses: H2 looks
+-- up "archivedAt is null" in an index on the column.
+create index warehouse_archived_at_idx on warehouse (archivedAt);
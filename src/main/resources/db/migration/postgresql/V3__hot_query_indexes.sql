@@ -0,0 +1,15 @@
+-- At most one active row per business unit, enforced by the database rather than by the
+-- check-then-insert in the use cases. Also serves findByBusinessUnitCode and the active listing.
+create unique index warehouse_active_bu_uidx on warehouse (businessUnitCode) where archivedAt is null;
+
+-- findAnyByBusinessUnitCode looks at history rows too
+create index warehouse_bu_idx on warehouse (businessUnitCode);
+
+-- count and sum(capacity) of the active warehouses at a location, answered from the index alone
+create index warehouse_active_location_idx on warehouse (location) include (capacity) where archivedAt is null;
+
+-- countDistinctProductsForWarehouse and isProductAlreadyUsedByWarehouse
+create index fulfilment_assignment_warehouse_product_idx on fulfilment_assignment (warehouseId, productId);
+
+-- isWarehouseAlreadyUsedByStore
+create index fulfilment_assignment_store_warehouse_idx on fulfilment_assignment (storeId, warehouseId);
@@ -0,0 +1,3 @@
+-- Lets the history migration find the archived rows left in warehouse without a scan; the index
+-- is empty once they have been moved.
+create index warehouse_archived_idx on warehouse (id) where archivedAt is not null;
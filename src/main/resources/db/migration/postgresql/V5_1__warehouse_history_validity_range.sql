@@ -0,0 +1,3 @@
+-- Versions valid at an instant across all business units: a containment search on the
+-- [createdAt, archivedAt) range, which a B-tree on either bound cannot answer on its own
+create index warehouse_history_validity_idx on warehouse_history using gist (tsrange(createdAt, archivedAt));
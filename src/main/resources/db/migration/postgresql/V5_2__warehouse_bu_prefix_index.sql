@@ -0,0 +1,3 @@
+-- Bulk archiving by business unit code prefix: LIKE 'prefix%' can only use a B-tree whose
+-- ordering is byte-wise, which the collation of warehouse_active_bu_uidx need not be
+create index warehouse_active_bu_prefix_idx on warehouse (businessUnitCode text_pattern_ops) where archivedAt is null;
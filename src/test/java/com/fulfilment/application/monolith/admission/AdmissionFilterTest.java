@@ -0,0 +1,91 @@
+package com.fulfilment.application.monolith.admission;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.fulfilment.grpc.AssignRequest;
+import com.fulfilment.application.monolith.fulfilment.grpc.FulfilmentRouting;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class AdmissionFilterTest {
+
+  @Inject AdmissionControl admission;
+
+  @GrpcClient("fulfilment") FulfilmentRouting client;
+
+  @Test
+  void rejectsListingsOverTheBulkLimitWithoutStarvingOtherGroups() {
+    AimdLimiter bulk = admission.limiter(EndpointGroup.BULK);
+    int held = 0;
+    while (bulk.tryAcquire()) {
+      held++;
+    }
+    try {
+      given()
+          .when()
+          .get("/warehouse")
+          .then()
+          .statusCode(503)
+          .header("Retry-After", "1")
+          .body("reason", equalTo("overloaded"));
+
+      // reads have a limit of their own
+      given().when().get("/store/1").then().statusCode(not(503));
+    } finally {
+      for (int i = 0; i < held; i++) {
+        bulk.abandon();
+      }
+    }
+
+    given().when().get("/warehouse").then().statusCode(200);
+  }
+
+  @Test
+  void rejectsGrpcCallsOverTheWritesLimit() {
+    AimdLimiter writes = admission.limiter(EndpointGroup.WRITES);
+    int held = 0;
+    while (writes.tryAcquire()) {
+      held++;
+    }
+    AssignRequest request =
+        AssignRequest.newBuilder().setStoreId(1).setProductId(1).setWarehouseBusinessUnitCode("MWH.001").build();
+    try {
+      StatusRuntimeException rejected =
+          assertThrows(StatusRuntimeException.class, () -> client.assign(request).await().atMost(Duration.ofSeconds(10)));
+      assertEquals(Status.Code.UNAVAILABLE, rejected.getStatus().getCode());
+      assertEquals("1", rejected.getTrailers().get(AdmissionGrpcInterceptor.RETRY_AFTER));
+    } finally {
+      for (int i = 0; i < held; i++) {
+        writes.abandon();
+      }
+    }
+    assertEquals(0, writes.inFlight());
+  }
+
+  @Test
+  void classifiesByMethodAndPath() {
+    assertEquals(EndpointGroup.BULK, admission.classify("GET", "/warehouse"));
+    assertEquals(EndpointGroup.READS, admission.classify("GET", "/warehouse/MWH.001"));
+    assertEquals(EndpointGroup.WRITES, admission.classify("POST", "/warehouse"));
+    assertNull(admission.classify("GET", "/changes"));
+    // served from memory
+    assertEquals(EndpointGroup.READS, admission.classify("GET", "/warehouse-summary"));
+    assertEquals(EndpointGroup.WRITES, admission.classifyCall("fulfilment.grpc.v1.FulfilmentRouting/AssignBatch"));
+    assertEquals(EndpointGroup.READS, admission.classifyCall("fulfilment.grpc.v1.FulfilmentRouting/Route"));
+    // trailing slashes reach the same resources
+    assertEquals(EndpointGroup.BULK, admission.classify("GET", "/warehouse/"));
+    assertEquals(EndpointGroup.BULK, admission.classify("GET", "/warehouse//"));
+    assertNull(admission.classify("GET", "/changes/"));
+  }
+}
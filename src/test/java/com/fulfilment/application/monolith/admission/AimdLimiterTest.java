@@ -0,0 +1,97 @@
+package com.fulfilment.application.monolith.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AimdLimiterTest {
+
+  private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(300);
+
+  @Test
+  void rejectsOnceTheLimitIsInFlight() {
+    AimdLimiter limiter = new AimdLimiter(2, 1, 10, 0.5, THRESHOLD);
+
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    assertFalse(limiter.tryAcquire());
+
+    limiter.abandon();
+    assertTrue(limiter.tryAcquire());
+  }
+
+  @Test
+  void growsWithFastResponses() {
+    AimdLimiter limiter = new AimdLimiter(4, 1, 10, 0.5, THRESHOLD);
+    long now = System.nanoTime();
+
+    for (int i = 0; i < 4; i++) {
+      fillAndRelease(limiter, FAST, now);
+    }
+
+    assertEquals(6, limiter.limit());
+  }
+
+  @Test
+  void doesNotGrowWhileMostlyIdle() {
+    AimdLimiter limiter = new AimdLimiter(8, 1, 10, 0.5, THRESHOLD);
+    long now = System.nanoTime();
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(limiter.tryAcquire());
+      limiter.release(FAST, false, now);
+    }
+
+    assertEquals(8, limiter.limit());
+  }
+
+  @Test
+  void backsOffOncePerThresholdOnSlowOrFailedResponses() {
+    AimdLimiter limiter = new AimdLimiter(8, 1, 10, 0.5, THRESHOLD);
+    long now = System.nanoTime() + THRESHOLD;
+
+    for (int i = 0; i < 4; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    limiter.release(SLOW, false, now);
+    limiter.release(SLOW, false, now + 1);
+    limiter.release(FAST, true, now + 2);
+    assertEquals(4, limiter.limit());
+
+    limiter.release(FAST, true, now + THRESHOLD);
+    assertEquals(2, limiter.limit());
+    assertEquals(0, limiter.inFlight());
+  }
+
+  @Test
+  void staysWithinBounds() {
+    AimdLimiter limiter = new AimdLimiter(2, 2, 3, 0.5, THRESHOLD);
+    long now = System.nanoTime() + THRESHOLD;
+
+    for (int i = 0; i < 5; i++) {
+      assertTrue(limiter.tryAcquire());
+      limiter.release(SLOW, false, now + i * THRESHOLD);
+    }
+    assertEquals(2, limiter.limit());
+
+    for (int i = 0; i < 50; i++) {
+      fillAndRelease(limiter, FAST, now);
+    }
+    assertEquals(3, limiter.limit());
+  }
+
+  private static void fillAndRelease(AimdLimiter limiter, long latency, long now) {
+    int permits = 0;
+    while (limiter.tryAcquire()) {
+      permits++;
+    }
+    for (int i = 0; i < permits; i++) {
+      limiter.release(latency, false, now);
+    }
+  }
+}
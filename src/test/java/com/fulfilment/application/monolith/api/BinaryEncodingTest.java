@@ -0,0 +1,98 @@
+package com.fulfilment.application.monolith.api;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+import io.quarkus.test.junit.QuarkusTest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class BinaryEncodingTest {
+
+  @Test
+  void jsonStaysTheDefault() {
+    given().when().get("/warehouse").then().statusCode(200).contentType("application/json");
+    given().accept("*/*").when().get("/product").then().statusCode(200).contentType("application/json");
+  }
+
+  @Test
+  void encodesWarehousesAsCbor() throws Exception {
+    byte[] body =
+        given()
+            .accept(ApiMediaTypes.CBOR)
+            .when()
+            .get("/warehouse")
+            .then()
+            .statusCode(200)
+            .contentType(ApiMediaTypes.CBOR)
+            .extract()
+            .asByteArray();
+
+    List<Map<String, Object>> warehouses =
+        CborMessageBodyWriter.MAPPER.readValue(body, new TypeReference<List<Map<String, Object>>>() {});
+    assertTrue(warehouses.stream().anyMatch(w -> "MWH.012".equals(w.get("businessUnitCode"))), warehouses::toString);
+  }
+
+  @Test
+  void encodesWarehousesAsSmallerProtobuf() throws Exception {
+    byte[] body =
+        given()
+            .accept(ApiMediaTypes.PROTOBUF)
+            .when()
+            .get("/warehouse")
+            .then()
+            .statusCode(200)
+            .contentType(ApiMediaTypes.PROTOBUF)
+            .extract()
+            .asByteArray();
+    byte[] json = given().when().get("/warehouse").then().statusCode(200).extract().asByteArray();
+
+    // WarehouseList: items in field 1, business_unit_code in field 2 of each
+    assertTrue(strings(body, 2).contains("MWH.012"));
+    assertTrue(body.length < json.length, body.length + " >= " + json.length);
+  }
+
+  @Test
+  void encodesASingleProductAsProtobuf() throws Exception {
+    byte[] body =
+        given()
+            .accept(ApiMediaTypes.PROTOBUF)
+            .when()
+            .get("/product/2")
+            .then()
+            .statusCode(200)
+            .contentType(ApiMediaTypes.PROTOBUF)
+            .extract()
+            .asByteArray();
+
+    UnknownFieldSet product = UnknownFieldSet.parseFrom(body);
+    assertEquals(2L, product.getField(1).getVarintList().get(0));
+    assertEquals("KALLAX", product.getField(2).getLengthDelimitedList().get(0).toStringUtf8());
+  }
+
+  @Test
+  void refusesProtobufForAFulfilmentRoute() {
+    given()
+        .accept(ApiMediaTypes.PROTOBUF)
+        .when()
+        .get("/fulfilment/stores/1/products/1/warehouses")
+        .then()
+        .statusCode(406);
+  }
+
+  private static List<String> strings(byte[] list, int field) throws Exception {
+    List<String> values = new ArrayList<>();
+    for (ByteString item : UnknownFieldSet.parseFrom(list).getField(1).getLengthDelimitedList()) {
+      UnknownFieldSet message = UnknownFieldSet.parseFrom(item);
+      message.getField(field).getLengthDelimitedList().forEach(v -> values.add(v.toStringUtf8()));
+    }
+    return values;
+  }
+}
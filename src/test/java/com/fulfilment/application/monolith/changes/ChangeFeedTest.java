@@ -0,0 +1,152 @@
+package com.fulfilment.application.monolith.changes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class ChangeFeedTest {
+
+  private final FakeWarehouseEventFeed warehouseEvents = new FakeWarehouseEventFeed();
+
+  @Test
+  void deliversEveryChangeInOrderToThousandsOfSubscribers() throws Exception {
+    ChangeFeed feed = feed(10_000, 256, ChangeFeed.SlowConsumerPolicy.DISCONNECT);
+    List<AssertSubscriber<ChangeEvent>> subscribers = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      subscribers.add(feed.subscribe(null, c -> true).subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE)));
+    }
+
+    ExecutorService publishers = Executors.newFixedThreadPool(4);
+    for (int i = 0; i < 100; i++) {
+      String key = Integer.toString(i);
+      publishers.execute(() -> feed.publish(ChangeEvent.STORE, "CREATED", key, null, LocalDateTime.now(), null));
+    }
+    publishers.shutdown();
+    assertTrue(publishers.awaitTermination(30, TimeUnit.SECONDS));
+
+    List<Long> expected = LongStream.rangeClosed(1, 100).boxed().toList();
+    for (AssertSubscriber<ChangeEvent> subscriber : subscribers) {
+      subscriber.awaitItems(100, Duration.ofSeconds(10)).assertNotTerminated();
+      assertEquals(expected, subscriber.getItems().stream().map(ChangeEvent::sequence).toList());
+    }
+  }
+
+  @Test
+  void resumesAfterASequenceAndFilters() {
+    ChangeFeed feed = feed(100, 256, ChangeFeed.SlowConsumerPolicy.DISCONNECT);
+    feed.publish(ChangeEvent.STORE, "CREATED", "1", null, LocalDateTime.now(), null);
+    warehouseEvents.append(WarehouseEvent.Type.CREATED, "MWH.1", "ZWOLLE-001");
+    warehouseEvents.append(WarehouseEvent.Type.CREATED, "MWH.2", "AMSTERDAM-001");
+    warehouseEvents.append(WarehouseEvent.Type.ARCHIVED, "MWH.1", "ZWOLLE-001");
+
+    AssertSubscriber<ChangeEvent> subscriber =
+        feed.subscribe(1L, c -> ChangeEvent.WAREHOUSE.equals(c.entity()) && "ZWOLLE-001".equals(c.location()))
+            .subscribe()
+            .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+    feed.publish(ChangeEvent.STORE, "DELETED", "1", null, LocalDateTime.now(), null);
+    warehouseEvents.append(WarehouseEvent.Type.CREATED, "MWH.3", "ZWOLLE-001");
+
+    assertEquals(List.of(2L, 4L, 6L), subscriber.getItems().stream().map(ChangeEvent::sequence).toList());
+    assertEquals("ARCHIVED", subscriber.getItems().get(1).type());
+    assertEquals("MWH.1", subscriber.getItems().get(1).key());
+  }
+
+  @Test
+  void cannotResumeFromChangesNoLongerRetained() {
+    ChangeFeed feed = feed(2, 256, ChangeFeed.SlowConsumerPolicy.DISCONNECT);
+    for (int i = 0; i < 4; i++) {
+      feed.publish(ChangeEvent.STORE, "UPDATED", "1", null, LocalDateTime.now(), null);
+    }
+
+    assertFalse(feed.canResumeFrom(1));
+    assertTrue(feed.canResumeFrom(2));
+    assertTrue(feed.canResumeFrom(4));
+    // ahead of the feed, e.g. issued before a restart
+    assertFalse(feed.canResumeFrom(5));
+    feed.subscribe(1L, c -> true)
+        .subscribe()
+        .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+        .assertFailedWith(IllegalStateException.class);
+  }
+
+  @Test
+  void disconnectsASlowConsumerOnceItsBufferIsFull() {
+    ChangeFeed feed = feed(100, 4, ChangeFeed.SlowConsumerPolicy.DISCONNECT);
+    AssertSubscriber<ChangeEvent> slow = feed.subscribe(null, c -> true).subscribe().withSubscriber(AssertSubscriber.create(0));
+    for (int i = 0; i < 10; i++) {
+      feed.publish(ChangeEvent.STORE, "UPDATED", "1", null, LocalDateTime.now(), null);
+    }
+
+    // the buffered changes are still delivered, then the stream ends so the client resumes from 4
+    slow.request(10);
+    assertEquals(List.of(1L, 2L, 3L, 4L), slow.getItems().stream().map(ChangeEvent::sequence).toList());
+    slow.assertCompleted();
+    assertEquals(1.0, feed.registry.counter("changes.slow_consumer", "action", "disconnect").count());
+  }
+
+  @Test
+  void dropsChangesForASlowConsumerOnceItsBufferIsFull() {
+    ChangeFeed feed = feed(100, 4, ChangeFeed.SlowConsumerPolicy.DROP);
+    AssertSubscriber<ChangeEvent> slow = feed.subscribe(null, c -> true).subscribe().withSubscriber(AssertSubscriber.create(0));
+    for (int i = 0; i < 10; i++) {
+      feed.publish(ChangeEvent.STORE, "UPDATED", "1", null, LocalDateTime.now(), null);
+    }
+
+    slow.request(10);
+    feed.publish(ChangeEvent.STORE, "UPDATED", "1", null, LocalDateTime.now(), null);
+    assertEquals(List.of(1L, 2L, 3L, 4L, 11L), slow.getItems().stream().map(ChangeEvent::sequence).toList());
+    slow.assertNotTerminated();
+    assertEquals(6.0, feed.registry.counter("changes.slow_consumer", "action", "drop").count());
+  }
+
+  private ChangeFeed feed(int retained, int bufferSize, ChangeFeed.SlowConsumerPolicy slowConsumer) {
+    ChangeFeed feed = new ChangeFeed();
+    feed.retained = retained;
+    feed.bufferSize = bufferSize;
+    feed.slowConsumer = slowConsumer;
+    feed.registry = new SimpleMeterRegistry();
+    feed.warehouseEvents = warehouseEvents;
+    feed.start();
+    return feed;
+  }
+
+  private static final class FakeWarehouseEventFeed implements WarehouseEventFeed {
+
+    private Projection projection;
+    private long sequence;
+
+    void append(WarehouseEvent.Type type, String businessUnitCode, String location) {
+      projection.apply(++sequence, new WarehouseEvent(type, businessUnitCode, location, 40, 10, LocalDateTime.now()));
+    }
+
+    @Override
+    public long subscribe(Projection projection) {
+      return follow(projection);
+    }
+
+    @Override
+    public long follow(Projection projection) {
+      this.projection = projection;
+      return sequence;
+    }
+
+    @Override
+    public void unsubscribe(Projection projection) {
+      this.projection = null;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.fulfilment.application.monolith.changes;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class ChangeResourceTest {
+
+  @TestHTTPResource("/changes")
+  URI changes;
+
+  @Test
+  void streamsCommittedStoreChanges() throws Exception {
+    int id =
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"CHANGES-1\",\"quantityProductsInStock\":3}")
+            .when()
+            .post("/store")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+
+    // resuming from 0 replays the retained changes, so the create above is in the stream; stores
+    // have no location, which therefore does not filter them out
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create(changes + "?after=0&entity=store&location=ZWOLLE-001"))
+            .header("Accept", "text/event-stream")
+            .build();
+    String data =
+        HttpClient.newHttpClient()
+            .sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+            .thenApply(
+                response -> {
+                  try (Stream<String> lines = response.body()) {
+                    return lines.filter(l -> l.startsWith("data:") && l.contains("CHANGES-1")).findFirst().orElse(null);
+                  }
+                })
+            .get(10, TimeUnit.SECONDS);
+
+    assertNotNull(data);
+    assertTrue(data.contains("\"entity\":\"store\""), data);
+    assertTrue(data.contains("\"type\":\"CREATED\""), data);
+
+    given().when().delete("/store/" + id).then().statusCode(204);
+  }
+
+  @Test
+  void rejectsAnInvalidResumePoint() {
+    given().queryParam("after", "abc").when().get("/changes").then().statusCode(400);
+    given().header("Last-Event-ID", "-1").when().get("/changes").then().statusCode(400);
+  }
+
+  @Test
+  void refusesToResumeAheadOfTheFeed() {
+    given().queryParam("after", Long.MAX_VALUE).when().get("/changes").then().statusCode(410);
+  }
+
+  @Test
+  void rejectsAnUnknownEntity() {
+    given().queryParam("entity", "product").when().get("/changes").then().statusCode(400);
+  }
+}
@@ -0,0 +1,89 @@
+package com.fulfilment.application.monolith.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.common.DomainViolationException.Reason;
+import jakarta.ws.rs.RedirectionException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+class ErrorMapperTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void mapsRuntimeExceptionToServerError() throws Exception {
+    ErrorMapper mapper = new ErrorMapper();
+
+    Response response = mapper.toResponse(new RuntimeException("boom"));
+    JsonNode entity = objectMapper.readTree((String) response.getEntity());
+
+    assertEquals(500, response.getStatus());
+    assertEquals("java.lang.RuntimeException", entity.get("exceptionType").asText());
+    assertEquals(500, entity.get("code").asInt());
+    assertEquals("boom", entity.get("error").asText());
+  }
+
+  @Test
+  void mapsWebApplicationExceptionStatus() throws Exception {
+    ErrorMapper mapper = new ErrorMapper();
+
+    WebApplicationException exception = new WebApplicationException("bad", 400);
+    Response response = mapper.toResponse(exception);
+    JsonNode entity = objectMapper.readTree((String) response.getEntity());
+
+    assertEquals(400, response.getStatus());
+    assertEquals("jakarta.ws.rs.WebApplicationException", entity.get("exceptionType").asText());
+    assertEquals(400, entity.get("code").asInt());
+    assertEquals("bad", entity.get("error").asText());
+  }
+
+  @Test
+  void mapsDomainViolationWithReasonAndEscapedMessage() throws Exception {
+    ErrorMapper mapper = new ErrorMapper();
+
+    DomainViolationException exception =
+        new DomainViolationException(Reason.UNKNOWN_LOCATION, "Invalid \"location\"\n: X\\1", 422);
+    // same type and status twice: the second goes through the cached prefix
+    mapper.toResponse(exception);
+    Response response = mapper.toResponse(exception);
+    JsonNode entity = objectMapper.readTree((String) response.getEntity());
+
+    assertEquals(422, response.getStatus());
+    assertEquals(DomainViolationException.class.getName(), entity.get("exceptionType").asText());
+    assertEquals("unknown_location", entity.get("reason").asText());
+    assertEquals("Invalid \"location\"\n: X\\1", entity.get("error").asText());
+  }
+
+  @Test
+  void passesRedirectionsThrough() {
+    Response notModified = Response.notModified().build();
+
+    assertSame(notModified, new ErrorMapper().toResponse(new RedirectionException(notModified)));
+  }
+
+  @Test
+  void domainViolationsDoNotCaptureStackTraces() {
+    DomainViolationException exception = new DomainViolationException(Reason.NOT_FOUND, "missing", 404);
+
+    assertEquals(0, exception.getStackTrace().length);
+  }
+
+  @Test
+  void samplerLimitsEventsPerSecondAndReportsSuppressedCount() {
+    LogSampler sampler = new LogSampler(2);
+
+    assertEquals(0, sampler.tryAcquire());
+    assertEquals(0, sampler.tryAcquire());
+    long third = sampler.tryAcquire();
+
+    // unless the second rolled over in between, the third event is suppressed
+    if (third != 0) {
+      assertEquals(LogSampler.SUPPRESSED, third);
+    }
+  }
+}
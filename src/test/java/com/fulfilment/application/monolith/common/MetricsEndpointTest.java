@@ -0,0 +1,39 @@
+package com.fulfilment.application.monolith.common;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.CoreMatchers.containsString;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class MetricsEndpointTest {
+
+  @Test
+  public void shouldExportUseCaseRejectionsByReason() {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"businessUnitCode\":\"TEST_METRICS\",\"location\":\"NOWHERE-001\",\"capacity\":10,\"stock\":1}")
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(422);
+
+    given()
+        .when()
+        .get("/q/metrics")
+        .then()
+        .statusCode(200)
+        .body(
+            allOf(
+                containsString("usecase_duration_seconds_count{outcome=\"rejected\",reason=\"unknown_location\",usecase=\"CreateWarehouseUseCase\""),
+                containsString("repository_query_seconds_count{"),
+                containsString("method=\"existsByBusinessUnitCode\""),
+                containsString("http_server_requests_seconds_bucket{"),
+                containsString("uri=\"/warehouse\""),
+                containsString("hibernate_query_executions_total"),
+                containsString("agroal_awaiting_count")));
+  }
+}
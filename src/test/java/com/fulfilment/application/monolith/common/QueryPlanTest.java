@@ -0,0 +1,186 @@
+package com.fulfilment.application.monolith.common;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.fulfilment.FulfilmentAssignmentRepository;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Every query the repositories issue on a hot path must be answerable from an index. The
+ * repository methods are called while {@link RecordingStatementInspector} records, and the SQL
+ * Hibernate rendered for them is explained with sample values bound to its parameters; the
+ * changes they make are rolled back. With the seed data any table fits in a page and a
+ * sequential scan is always cheapest, so on PostgreSQL sequential scans are disabled for the
+ * transaction: the planner then only falls back to one when no index applies, which is what
+ * this test catches.
+ */
+@QuarkusTest
+public class QueryPlanTest {
+
+  private static final LocalDateTime INSTANT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  @Inject EntityManager em;
+  @Inject WarehouseRepository warehouseRepository;
+  @Inject FulfilmentAssignmentRepository assignmentRepository;
+  @Inject ProductRepository productRepository;
+
+  @Test
+  public void everyRepositoryQueryUsesAnIndex() {
+    QuarkusTransaction.begin();
+    try {
+      boolean postgres = databaseProduct().toLowerCase().contains("postgres");
+      if (postgres) {
+        em.createNativeQuery("set local enable_seqscan = off").executeUpdate();
+      }
+
+      Set<String> statements = new LinkedHashSet<>(record());
+      for (String sql : statements) {
+        if (readsNoRows(sql)) {
+          continue;
+        }
+        String plan = explain(sql);
+        if (postgres) {
+          assertFalse(plan.contains("Seq Scan"), () -> sql + " scans the table:\n" + plan);
+          assertTrue(plan.contains("Index"), () -> sql + " uses no index:\n" + plan);
+        } else {
+          assertFalse(plan.contains("tableScan"), () -> sql + " scans the table:\n" + plan);
+        }
+      }
+    } finally {
+      QuarkusTransaction.rollback();
+    }
+  }
+
+  private List<String> record() {
+    RecordingStatementInspector.start();
+    List<String> statements;
+    try {
+      warehouseRepository.getAll();
+      warehouseRepository.findByBusinessUnitCode("MWH.001");
+      warehouseRepository.findActiveDbByBusinessUnitCode("MWH.001");
+      // a code without an active row reaches the history
+      warehouseRepository.findAnyByBusinessUnitCode("MWH.UNKNOWN");
+      warehouseRepository.existsByBusinessUnitCode("MWH.001");
+      warehouseRepository.findActiveValidator("MWH.001");
+      warehouseRepository.findActiveAtLocation("ZWOLLE-001");
+      warehouseRepository.findActiveMatching("ZWOLLE-001", "MWH.");
+      warehouseRepository.findActiveMatching(null, "MWH.");
+      warehouseRepository.findActiveByBusinessUnitCodes(List.of("MWH.001", "MWH.012"));
+      warehouseRepository.findHistory("MWH.001");
+      warehouseRepository.findAsOf(INSTANT);
+
+      // the writes, on a warehouse of this transaction's own
+      Warehouse warehouse = warehouse("QUERY_PLAN");
+      warehouseRepository.create(warehouse);
+      em.flush();
+      warehouse.stock = 2;
+      warehouseRepository.update(warehouse);
+      // the update moved the version on
+      warehouse.version++;
+      warehouse.archivedAt = INSTANT;
+      Warehouse replacement = warehouse("QUERY_PLAN");
+      // also moves the fulfilment assignments, see FulfilmentAssignmentRepository.onWarehousesReplaced
+      warehouseRepository.replace(warehouse, replacement);
+      em.flush();
+
+      assignmentRepository.existsAssignment(1L, 1L, 1L);
+      assignmentRepository.countDistinctWarehousesForStoreProduct(1L, 1L);
+      assignmentRepository.countDistinctWarehousesForStore(1L);
+      assignmentRepository.countDistinctProductsForWarehouse(1L);
+      assignmentRepository.isWarehouseAlreadyUsedByStore(1L, 1L);
+      assignmentRepository.isProductAlreadyUsedByWarehouse(1L, 1L);
+      assignmentRepository.findWarehouseCodes(1L, 1L);
+      assignmentRepository.countStoresAndProductsByWarehouse();
+
+      // version projections for conditional GETs
+      Store.findVersionById(1L);
+      productRepository.findVersionById(1L);
+    } finally {
+      statements = RecordingStatementInspector.stop();
+    }
+    return statements;
+  }
+
+  private static Warehouse warehouse(String businessUnitCode) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = "ZWOLLE-001";
+    warehouse.capacity = 10;
+    warehouse.stock = 1;
+    return warehouse;
+  }
+
+  // id allocations and inserts of given values, nothing to look up
+  private static boolean readsNoRows(String sql) {
+    String lower = sql.toLowerCase();
+    return StatementBudget.allocatesIds(sql) || (lower.startsWith("insert ") && !lower.contains(" select "));
+  }
+
+  private String explain(String sql) {
+    return em.unwrap(Session.class)
+        .doReturningWork(
+            connection -> {
+              List<Integer> types = parameterTypes(connection, sql);
+              try (PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+                for (int i = 0; i < types.size(); i++) {
+                  explain.setObject(i + 1, sample(connection, types.get(i)));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                  while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                  }
+                }
+                return plan.toString();
+              }
+            });
+  }
+
+  private static List<Integer> parameterTypes(Connection connection, String sql) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      ParameterMetaData parameters = statement.getParameterMetaData();
+      List<Integer> types = new ArrayList<>(parameters.getParameterCount());
+      for (int i = 1; i <= parameters.getParameterCount(); i++) {
+        types.add(parameters.getParameterType(i));
+      }
+      return types;
+    }
+  }
+
+  // a value of the parameter's type; which one does not change the access path
+  private static Object sample(Connection connection, int type) throws SQLException {
+    return switch (type) {
+      case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT, Types.NUMERIC, Types.DECIMAL -> 1L;
+      case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE, Types.DATE -> Timestamp.valueOf(INSTANT);
+      case Types.BOOLEAN, Types.BIT -> Boolean.FALSE;
+      case Types.ARRAY -> connection.createArrayOf("bigint", new Long[] {1L, 2L});
+      default -> "MWH.001";
+    };
+  }
+
+  private String databaseProduct() {
+    return em.unwrap(Session.class).doReturningWork(c -> c.getMetaData().getDatabaseProductName());
+  }
+}
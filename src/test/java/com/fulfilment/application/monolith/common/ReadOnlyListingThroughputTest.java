@@ -0,0 +1,93 @@
+package com.fulfilment.application.monolith.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreResource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * GET /store with the read path in a regular transaction and with {@link ReadOnly}, timed, with
+ * the bytes allocated per listing. Excluded from the default build (it only prints numbers); run
+ * it with {@code mvn test -Dsurefire.excludedGroups= -Dgroups=throughput}.
+ */
+@QuarkusTest
+@Tag("throughput")
+public class ReadOnlyListingThroughputTest {
+
+  private static final int STORES = 5_000;
+  private static final int WARMUP = 50;
+  private static final int MEASURED = 200;
+
+  @Inject StoreResource storeResource;
+  @Inject WritableListing writableListing;
+
+  @BeforeEach
+  void seed() {
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              for (int i = 0; i < STORES; i++) {
+                Store store = new Store();
+                store.name = "TEST_LIST_" + i;
+                store.quantityProductsInStock = i;
+                store.persist();
+              }
+            });
+  }
+
+  @AfterEach
+  void clean() {
+    QuarkusTransaction.requiringNew().run(() -> Store.delete("name like ?1", "TEST_LIST_%"));
+  }
+
+  @Test
+  public void compareRegularAndReadOnlyListings() {
+    int expected = storeResource.get().size();
+
+    measure("regular", writableListing::stores, expected);
+    measure("read-only", storeResource::get, expected);
+  }
+
+  private static void measure(String mode, Supplier<List<Store>> listing, int expected) {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    for (int i = 0; i < WARMUP; i++) {
+      assertEquals(expected, listing.get().size());
+    }
+
+    long thread = Thread.currentThread().getId();
+    long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED; i++) {
+      listing.get();
+    }
+    long nanos = System.nanoTime() - start;
+    long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+    System.out.printf(
+        "%-9s %d stores: %8.2f ms/listing, %10d bytes allocated/listing%n",
+        mode, expected, nanos / 1e6 / MEASURED, allocated / MEASURED);
+  }
+
+  @ApplicationScoped
+  public static class WritableListing {
+
+    // what GET /store did before it was @ReadOnly
+    @Transactional
+    List<Store> stores() {
+      return Store.listAll(Sort.by("name"));
+    }
+  }
+}
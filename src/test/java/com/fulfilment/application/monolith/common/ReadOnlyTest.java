@@ -0,0 +1,108 @@
+package com.fulfilment.application.monolith.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.stores.Store;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class ReadOnlyTest {
+
+  @Inject ReadPath readPath;
+  @Inject ReadOnlyConnections readOnlyConnections;
+
+  @Test
+  public void readPathsLoadReadOnlyAndNeverFlush() {
+    String name = storeName(1L);
+    ReadPath.Observed observed = readPath.loadAndModifyStore(1L);
+
+    assertTrue(observed.entityReadOnly());
+    assertEquals(FlushMode.MANUAL, observed.flushMode());
+    assertTrue(observed.readOnlyConnections());
+    // the change to the loaded entity was not written
+    assertEquals(name, storeName(1L));
+  }
+
+  @Test
+  public void hasNoEffectInsideARunningTransaction() {
+    String name = storeName(1L);
+    ReadPath.Observed observed;
+    QuarkusTransaction.begin();
+    try {
+      observed = readPath.loadAndModifyStore(1L);
+    } finally {
+      // the write decides how it reads, and this one throws its change away
+      QuarkusTransaction.rollback();
+    }
+
+    assertFalse(observed.entityReadOnly());
+    assertFalse(observed.readOnlyConnections());
+    assertEquals(name, storeName(1L));
+  }
+
+  @Test
+  public void pooledConnectionsAreMarkedOnlyForReadPaths() {
+    // H2 reports whether the database is read-only rather than the hint, so use a stub
+    AtomicBoolean readOnly = new AtomicBoolean();
+    Connection connection =
+        (Connection)
+            Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) ->
+                    switch (method.getName()) {
+                      case "setReadOnly" -> {
+                        readOnly.set((Boolean) args[0]);
+                        yield null;
+                      }
+                      case "isReadOnly" -> readOnly.get();
+                      default -> throw new UnsupportedOperationException(method.getName());
+                    });
+
+    readOnlyConnections.onConnectionAcquire(connection);
+    assertFalse(readOnly.get());
+
+    readPath.run(() -> readOnlyConnections.onConnectionAcquire(connection));
+    assertTrue(readOnly.get());
+
+    readOnlyConnections.onConnectionReturn(connection);
+    assertFalse(readOnly.get());
+  }
+
+  private static String storeName(Long id) {
+    return QuarkusTransaction.requiringNew().call(() -> Store.<Store>findById(id).name);
+  }
+
+  @ApplicationScoped
+  public static class ReadPath {
+
+    record Observed(boolean entityReadOnly, FlushMode flushMode, boolean readOnlyConnections) {}
+
+    @Inject EntityManager em;
+
+    @ReadOnly
+    Observed loadAndModifyStore(Long id) {
+      Session session = em.unwrap(Session.class);
+      Store store = session.find(Store.class, id);
+      store.name = "CHANGED BY A READ";
+      return new Observed(session.isReadOnly(store), session.getHibernateFlushMode(), ReadOnlyInterceptor.isActive());
+    }
+
+    @ReadOnly
+    void run(Runnable task) {
+      task.run();
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.common;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Picked up by Hibernate ORM for the default persistence unit; records while a StatementBudget or
+// the QueryPlanTest runs
+@PersistenceUnitExtension
+public class RecordingStatementInspector implements StatementInspector {
+
+  private static final ConcurrentLinkedQueue<String> recorded = new ConcurrentLinkedQueue<>();
+  private static volatile boolean recording;
+
+  @Override
+  public String inspect(String sql) {
+    if (recording) {
+      recorded.add(sql);
+    }
+    return sql;
+  }
+
+  static void start() {
+    recorded.clear();
+    recording = true;
+  }
+
+  static List<String> stop() {
+    recording = false;
+    return new ArrayList<>(recorded);
+  }
+}
@@ -0,0 +1,103 @@
+package com.fulfilment.application.monolith.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private final ExecutorService pool = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  void waitersGetTheLoadersException() throws Exception {
+    SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+    CountDownLatch release = new CountDownLatch(1);
+    IllegalStateException failure = new IllegalStateException("db down");
+
+    Future<?> leader =
+        pool.submit(
+            () ->
+                flight.load(
+                    "MWH.001",
+                    () -> {
+                      await(release);
+                      throw failure;
+                    }));
+    Future<String> waiter = pool.submit(() -> flight.load("MWH.001", () -> "not run"));
+    awaitWaiters(flight, "MWH.001", 1);
+    release.countDown();
+
+    assertSame(failure, assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+    assertSame(failure, assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS)).getCause());
+  }
+
+  @Test
+  void waitersGiveUpAfterTheTimeout() throws Exception {
+    SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMillis(50));
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> leader =
+        pool.submit(
+            () ->
+                flight.load(
+                    "MWH.001",
+                    () -> {
+                      started.countDown();
+                      await(release);
+                      return "loaded";
+                    }));
+    started.await(5, TimeUnit.SECONDS);
+
+    WebApplicationException timeout =
+        assertThrows(WebApplicationException.class, () -> flight.load("MWH.001", () -> "not run"));
+    assertEquals(503, timeout.getResponse().getStatus());
+
+    release.countDown();
+    assertEquals("loaded", leader.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void completedLoadsAreNotKept() {
+    SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofSeconds(5));
+    AtomicInteger loads = new AtomicInteger();
+
+    flight.load("MWH.001", loads::incrementAndGet);
+    flight.load("MWH.001", loads::incrementAndGet);
+
+    assertEquals(2, loads.get());
+  }
+
+  static void awaitWaiters(SingleFlight<String, ?> flight, String key, int waiters) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (flight.waiters(key) < waiters) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("only " + flight.waiters(key) + " of " + waiters + " waiters joined");
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
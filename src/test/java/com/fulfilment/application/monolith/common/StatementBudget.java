@@ -0,0 +1,63 @@
+package com.fulfilment.application.monolith.common;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.List;
+
+/**
+ * Fails a test when a request prepares more SQL statements than its budget, e.g. when a per-row
+ * lookup sneaks into a listing. Counts with Hibernate's statistics as exported on /q/metrics, so
+ * it works against a packaged application too; in a {@code @QuarkusTest} the failure also lists
+ * the statements (see {@link RecordingStatementInspector}).
+ *
+ * <p>The count covers everything the application prepared meanwhile, so requests under budget
+ * must not run concurrently with other database work. Where the statements are recorded, fetches
+ * of a new block of sequence ids are left out: one in 50 inserts pays for them, so whether a
+ * request does depends on the tests that ran before it.
+ */
+public final class StatementBudget {
+
+  private static final String PREPARED = "hibernate_statements_total{";
+
+  private StatementBudget() {}
+
+  public static void assertAtMost(int budget, String operation, Runnable request) {
+    long before = preparedStatements();
+    RecordingStatementInspector.start();
+    List<String> statements;
+    try {
+      request.run();
+    } finally {
+      statements = RecordingStatementInspector.stop();
+    }
+    long used = preparedStatements() - before - statements.stream().filter(StatementBudget::allocatesIds).count();
+
+    if (used > budget) {
+      StringBuilder message =
+          new StringBuilder(operation).append(" prepared ").append(used).append(" statements, budget is ").append(budget);
+      statements.forEach(sql -> message.append("\n  ").append(sql));
+      fail(message.toString());
+    }
+  }
+
+  static boolean allocatesIds(String sql) {
+    String lower = sql.toLowerCase();
+    return lower.startsWith("select next value for ") || lower.startsWith("select nextval(");
+  }
+
+  static long preparedStatements() {
+    String metrics = given().when().get("/q/metrics").then().statusCode(200).extract().asString();
+    long prepared = -1;
+    for (String line : metrics.split("\n")) {
+      if (line.startsWith(PREPARED) && line.contains("status=\"prepared\"")) {
+        prepared = Math.max(prepared, 0) + (long) Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+      }
+    }
+    if (prepared < 0) {
+      // a budget that cannot count would pass whatever the request does
+      fail("No " + PREPARED + "status=\"prepared\"} on /q/metrics, are Hibernate metrics enabled?");
+    }
+    return prepared;
+  }
+}
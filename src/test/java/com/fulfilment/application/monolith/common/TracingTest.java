@@ -0,0 +1,137 @@
+package com.fulfilment.application.monolith.common;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class TracingTest {
+
+  @Inject InMemorySpanExporter exporter;
+  @Inject EntityManager em;
+
+  @BeforeEach
+  @Transactional
+  void clean() {
+    em.createQuery("delete from FulfilmentAssignment").executeUpdate();
+    em.createQuery("delete from Product p where p.name like 'TEST_%'").executeUpdate();
+    em.createQuery("delete from Store s where s.name like 'TEST_%'").executeUpdate();
+    em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+    exporter.reset();
+  }
+
+  @Test
+  public void fulfilmentAssignmentTracesUseCaseRepositoryAndSql() throws Exception {
+    Long[] ids = createAssignable();
+
+    given()
+        .contentType(ContentType.JSON)
+        .when()
+        .post("/fulfilment/stores/{s}/products/{p}/warehouses/TEST_TRACE", ids[0], ids[1])
+        .then()
+        .statusCode(201);
+
+    SpanData assign = awaitSpan(s -> s.getName().equals("FulfilmentAssignmentService.assign"));
+    SpanData server =
+        awaitSpan(s -> s.getKind() == SpanKind.SERVER && s.getTraceId().equals(assign.getTraceId()));
+    assertEquals(server.getSpanId(), assign.getParentSpanId());
+
+    SpanData lookup =
+        awaitSpan(s -> s.getName().equals("WarehouseRepository.findActiveDbByBusinessUnitCode"));
+    assertEquals(assign.getSpanId(), lookup.getParentSpanId());
+
+    List<String> checks =
+        List.of(
+            "FulfilmentAssignmentRepository.existsAssignment",
+            "FulfilmentAssignmentRepository.countDistinctWarehousesForStoreProduct",
+            "FulfilmentAssignmentRepository.countDistinctWarehousesForStore",
+            "FulfilmentAssignmentRepository.countDistinctProductsForWarehouse");
+    for (String name : checks) {
+      SpanData check = awaitSpan(s -> s.getName().equals(name));
+      assertEquals(assign.getSpanId(), check.getParentSpanId(), name);
+      // every repository span wraps the SQL it ran
+      awaitSpan(s -> s.getKind() == SpanKind.CLIENT && check.getSpanId().equals(s.getParentSpanId()));
+      assertTrue(check.getEndEpochNanos() <= assign.getEndEpochNanos(), name);
+    }
+  }
+
+  @Test
+  public void legacySyncRunsInLinkedSpanAfterCommit() throws Exception {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\":\"TEST_TRACE_STORE\",\"quantityProductsInStock\":3}")
+        .when()
+        .post("/store")
+        .then()
+        .statusCode(201);
+
+    SpanData sync = awaitSpan(s -> s.getName().equals("legacy-store-sync create"));
+    assertFalse(sync.getLinks().isEmpty());
+
+    String originTrace = sync.getLinks().get(0).getSpanContext().getTraceId();
+    SpanData server = awaitSpan(s -> s.getKind() == SpanKind.SERVER && s.getTraceId().equals(originTrace));
+    // its own trace, so the deferred work does not stretch the request span
+    assertFalse(sync.getTraceId().equals(server.getTraceId()));
+  }
+
+  @Test
+  public void warehouseListRecordsRowCount() throws Exception {
+    given().when().get("/warehouse").then().statusCode(200);
+
+    SpanData getAll = awaitSpan(s -> s.getName().equals("WarehouseRepository.getAll"));
+    Long rows = getAll.getAttributes().get(AttributeKey.longKey("db.row_count"));
+    assertTrue(rows != null && rows >= 0);
+  }
+
+  private SpanData awaitSpan(Predicate<SpanData> predicate) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (System.currentTimeMillis() < deadline) {
+      for (SpanData span : exporter.getFinishedSpanItems()) {
+        if (predicate.test(span)) {
+          return span;
+        }
+      }
+      Thread.sleep(50);
+    }
+    throw new AssertionError("no matching span among " + exporter.getFinishedSpanItems().size() + " exported");
+  }
+
+  @Transactional
+  Long[] createAssignable() {
+    Store store = new Store("TEST_TRACE");
+    store.persist();
+
+    Product product = new Product("TEST_TRACE");
+    product.stock = 1;
+    em.persist(product);
+
+    DbWarehouse warehouse = new DbWarehouse();
+    warehouse.businessUnitCode = "TEST_TRACE";
+    warehouse.location = "AMSTERDAM-001";
+    warehouse.capacity = 50;
+    warehouse.stock = 10;
+    warehouse.createdAt = LocalDateTime.now();
+    em.persist(warehouse);
+    em.flush();
+    return new Long[] {store.id, product.id};
+  }
+}
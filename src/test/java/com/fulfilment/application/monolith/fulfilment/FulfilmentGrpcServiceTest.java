@@ -0,0 +1,185 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.fulfilment.grpc.AssignBatchReply;
+import com.fulfilment.application.monolith.fulfilment.grpc.AssignRequest;
+import com.fulfilment.application.monolith.fulfilment.grpc.Assignment;
+import com.fulfilment.application.monolith.fulfilment.grpc.FulfilmentRouting;
+import com.fulfilment.application.monolith.fulfilment.grpc.RouteReply;
+import com.fulfilment.application.monolith.fulfilment.grpc.RouteRequest;
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class FulfilmentGrpcServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @GrpcClient("fulfilment") FulfilmentRouting client;
+
+    @Inject EntityManager em;
+    @Inject FulfilmentAssignmentRepository assignmentRepo;
+
+    @BeforeEach
+    void clean() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            assignmentRepo.deleteAll();
+            em.createQuery("delete from Product p where p.name like 'TEST_%'").executeUpdate();
+            Store.delete("name like ?1", "TEST_%");
+            em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+        });
+    }
+
+    @Test
+    void assignsLikeTheRestEndpoint() {
+        Long storeId = createStore("S1");
+        Long productId = createProduct("P1");
+        createWarehouse("W1");
+
+        Assignment assignment =
+                client.assign(request(storeId, productId, "TEST_W1")).await().atMost(TIMEOUT);
+
+        assertEquals(storeId, assignment.getStoreId());
+        assertEquals("TEST_W1", assignment.getWarehouseBusinessUnitCode());
+        assertTrue(assignmentRepo.existsAssignment(storeId, productId, warehouseId("TEST_W1")));
+    }
+
+    @Test
+    void mapsRejectionsToStatusCodes() {
+        Long storeId = createStore("S1");
+        Long productId = createProduct("P1");
+        createWarehouse("W1");
+        client.assign(request(storeId, productId, "TEST_W1")).await().atMost(TIMEOUT);
+
+        StatusRuntimeException duplicate = assertThrows(
+                StatusRuntimeException.class,
+                () -> client.assign(request(storeId, productId, "TEST_W1")).await().atMost(TIMEOUT));
+        assertEquals(Status.Code.FAILED_PRECONDITION, duplicate.getStatus().getCode());
+        assertTrue(duplicate.getStatus().getDescription().startsWith("assignment_exists"));
+
+        StatusRuntimeException missing = assertThrows(
+                StatusRuntimeException.class,
+                () -> client.assign(request(storeId, productId, "TEST_NOPE")).await().atMost(TIMEOUT));
+        assertEquals(Status.Code.NOT_FOUND, missing.getStatus().getCode());
+
+        StatusRuntimeException invalid = assertThrows(
+                StatusRuntimeException.class,
+                () -> client.assign(request(0L, productId, "TEST_W1")).await().atMost(TIMEOUT));
+        assertEquals(Status.Code.INVALID_ARGUMENT, invalid.getStatus().getCode());
+    }
+
+    @Test
+    void batchReportsAnOutcomePerRequest() {
+        Long storeId = createStore("S1");
+        Long productId = createProduct("P1");
+        createWarehouse("W1");
+        createWarehouse("W2");
+        createWarehouse("W3");
+
+        AssignBatchReply reply = client.assignBatch(Multi.createFrom().items(
+                        request(storeId, productId, "TEST_W1"),
+                        request(storeId, productId, "TEST_W2"),
+                        request(storeId, productId, "TEST_W3"))) // third warehouse for same store+product
+                .await()
+                .atMost(TIMEOUT);
+
+        assertEquals(2, reply.getAssigned());
+        assertEquals(1, reply.getRejected());
+        assertEquals(201, reply.getOutcomes(1).getStatus());
+        assertEquals(409, reply.getOutcomes(2).getStatus());
+        assertEquals("store_product_warehouse_limit", reply.getOutcomes(2).getReason());
+    }
+
+    @Test
+    void routesEveryLookupOnTheStream() {
+        Long storeId = createStore("S1");
+        Long p1 = createProduct("P1");
+        Long p2 = createProduct("P2");
+        createWarehouse("W1");
+        createWarehouse("W2");
+        client.assignBatch(Multi.createFrom().items(
+                        request(storeId, p1, "TEST_W2"), request(storeId, p1, "TEST_W1")))
+                .await()
+                .atMost(TIMEOUT);
+
+        List<RouteReply> replies = client.route(Multi.createFrom().items(
+                        RouteRequest.newBuilder().setStoreId(storeId).setProductId(p1).build(),
+                        RouteRequest.newBuilder().setStoreId(storeId).setProductId(p2).build()))
+                .collect()
+                .asList()
+                .await()
+                .atMost(TIMEOUT);
+
+        assertEquals(2, replies.size());
+        assertEquals(List.of("TEST_W1", "TEST_W2"), replies.get(0).getWarehouseBusinessUnitCodesList());
+        assertEquals(p2, replies.get(1).getProductId());
+        assertTrue(replies.get(1).getWarehouseBusinessUnitCodesList().isEmpty());
+    }
+
+    private static AssignRequest request(Long storeId, Long productId, String warehouseBuCode) {
+        return AssignRequest.newBuilder()
+                .setStoreId(storeId)
+                .setProductId(productId)
+                .setWarehouseBusinessUnitCode(warehouseBuCode)
+                .build();
+    }
+
+    private Long warehouseId(String buCode) {
+        return QuarkusTransaction.requiringNew().call(() -> em
+                .createQuery("select w.id from DbWarehouse w where w.businessUnitCode = :bu", Long.class)
+                .setParameter("bu", buCode)
+                .getSingleResult());
+    }
+
+    private Long createStore(String name) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Store s = new Store();
+            s.name = "TEST_" + name;
+            s.quantityProductsInStock = 0;
+            s.persist();
+            return s.id;
+        });
+    }
+
+    private Long createProduct(String name) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Product p = new Product();
+            p.name = "TEST_" + name;
+            p.description = "d";
+            p.price = BigDecimal.TEN;
+            p.stock = 1;
+            em.persist(p);
+            return p.id;
+        });
+    }
+
+    private void createWarehouse(String buCode) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            DbWarehouse w = new DbWarehouse();
+            w.businessUnitCode = "TEST_" + buCode;
+            w.location = "AMSTERDAM-001";
+            w.capacity = 50;
+            w.stock = 10;
+            w.createdAt = LocalDateTime.now();
+            em.persist(w);
+        });
+    }
+}
@@ -1,7 +1,10 @@
 package com.fulfilment.application.monolith.fulfilment;
 
 import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.Matchers.contains;
 
+import com.fulfilment.application.monolith.common.StatementBudget;
 import com.fulfilment.application.monolith.products.Product;
 import com.fulfilment.application.monolith.stores.Store;
 import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
@@ -12,6 +15,8 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -25,13 +30,15 @@ class FulfilmentResourceTest {
     @BeforeEach
     @Transactional
     void clean() {
-        // Always clean only the bonus feature table
+        // Always clean only the bonus feature tables
         assignmentRepo.deleteAll();
+        em.createNativeQuery("delete from fulfilment_assignment_history").executeUpdate();
 
         // Clean ONLY test-created rows (do NOT touch seed data)
         em.createQuery("delete from Product p where p.name like 'TEST_%'").executeUpdate();
         Store.delete("name like ?1", "TEST_%");
         em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+        em.createQuery("delete from DbWarehouseHistory h where h.businessUnitCode like 'TEST_%'").executeUpdate();
 
         em.flush();
     }
@@ -89,6 +96,101 @@ class FulfilmentResourceTest {
         postAssign(storeId, p6, "W1", 409); // 6th product type for same warehouse
     }
 
+    @Test
+    void shouldListActiveWarehousesForStoreProduct() {
+        Long storeId = createStore("S1");
+        Long productId = createProduct("P1");
+        createWarehouse("W2");
+        createWarehouse("W1");
+
+        postAssign(storeId, productId, "W2", 201);
+        postAssign(storeId, productId, "W1", 201);
+
+        given()
+                .when()
+                .get("/fulfilment/stores/{s}/products/{p}/warehouses", storeId, productId)
+                .then()
+                .statusCode(200)
+                .body("", contains("TEST_W1", "TEST_W2"));
+    }
+
+    @Test
+    void shouldStayWithinStatementBudgets() {
+        Long storeId = createStore("S1");
+        Long productId = createProduct("P1");
+        createWarehouse("W1");
+
+        // lookups of store, product and warehouse, the four rule checks, the duplicate check
+        // and the insert (plus a sequence fetch): anything per-row would blow through this
+        StatementBudget.assertAtMost(12, "assign", () -> postAssign(storeId, productId, "W1", 201));
+        StatementBudget.assertAtMost(
+                1,
+                "route",
+                () -> given().when()
+                        .get("/fulfilment/stores/{s}/products/{p}/warehouses", storeId, productId)
+                        .then()
+                        .statusCode(200));
+    }
+
+    @Test
+    void shouldMoveAssignmentsToTheReplacementWithinStatementBudget() {
+        Long productId = createProduct("P1");
+        createWarehouse("W1");
+        Long archivedId = assignToManyStores("TEST_W1", productId, 2000);
+
+        // the replacement as before, plus two statements for the assignments whatever their number
+        StatementBudget.assertAtMost(
+                8,
+                "replace warehouse with assignments",
+                () -> given()
+                        .contentType(ContentType.JSON)
+                        .body("{\"location\":\"AMSTERDAM-001\",\"capacity\":40,\"stock\":10}")
+                        .when()
+                        .post("/warehouse/TEST_W1/replacement")
+                        .then()
+                        .statusCode(200));
+
+        Long replacementId = warehouseRepo.findActiveDbByBusinessUnitCode("TEST_W1").id;
+        assertEquals(0, assignmentRepo.count("warehouseId", archivedId));
+        assertEquals(2000, assignmentRepo.count("warehouseId", replacementId));
+        assertEquals(
+                2000L,
+                ((Number) em.createNativeQuery(
+                                        "select count(*) from fulfilment_assignment_history where warehouseId = ?1")
+                                .setParameter(1, archivedId)
+                                .getSingleResult())
+                        .longValue());
+
+        given()
+                .when()
+                .get("/fulfilment/stores/{s}/products/{p}/warehouses", 1999, productId)
+                .then()
+                .statusCode(200)
+                .body("", contains("TEST_W1"));
+    }
+
+    @Test
+    void shouldMoveTheAssignmentsOfEachReplacedWarehouseToItsOwnReplacement() {
+        Long productId = createProduct("P1");
+        createWarehouse("W1");
+        createWarehouse("W2");
+        Long archivedW1 = assignToManyStores("TEST_W1", productId, 3);
+        Long archivedW2 = assignToManyStores("TEST_W2", productId, 2);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("[{\"businessUnitCode\":\"TEST_W1\",\"location\":\"AMSTERDAM-001\",\"capacity\":20,\"stock\":10},"
+                        + "{\"businessUnitCode\":\"TEST_W2\",\"location\":\"AMSTERDAM-001\",\"capacity\":20,\"stock\":10}]")
+                .when()
+                .post("/warehouse/replacements")
+                .then()
+                .statusCode(200);
+
+        assertEquals(0, assignmentRepo.count("warehouseId in ?1", List.of(archivedW1, archivedW2)));
+        assertEquals(3, assignmentRepo.count("warehouseId", warehouseRepo.findActiveDbByBusinessUnitCode("TEST_W1").id));
+        assertEquals(2, assignmentRepo.count("warehouseId", warehouseRepo.findActiveDbByBusinessUnitCode("TEST_W2").id));
+    }
+
     private void postAssign(Long storeId, Long productId, String warehouseBuCode, int expectedStatus) {
         String bu = warehouseBuCode.startsWith("TEST_") ? warehouseBuCode : "TEST_" + warehouseBuCode;
 
@@ -123,6 +225,18 @@ class FulfilmentResourceTest {
         return p.id;
     }
 
+    // straight to the table: the stores only need ids, there is no foreign key to them
+    @Transactional
+    Long assignToManyStores(String buCode, Long productId, int stores) {
+        Long warehouseId = warehouseRepo.findActiveDbByBusinessUnitCode(buCode).id;
+        LocalDateTime now = LocalDateTime.now();
+        for (long storeId = 0; storeId < stores; storeId++) {
+            assignmentRepo.persist(new FulfilmentAssignment(storeId, productId, warehouseId, now));
+        }
+        em.flush();
+        return warehouseId;
+    }
+
     @Transactional
     void createWarehouse(String buCode) {
         DbWarehouse w = new DbWarehouse();
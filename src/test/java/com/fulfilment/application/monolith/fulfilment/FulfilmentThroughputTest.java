@@ -0,0 +1,139 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fulfilment.application.monolith.fulfilment.grpc.AssignBatchReply;
+import com.fulfilment.application.monolith.fulfilment.grpc.AssignRequest;
+import com.fulfilment.application.monolith.fulfilment.grpc.FulfilmentRouting;
+import com.fulfilment.application.monolith.fulfilment.grpc.RouteRequest;
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Same assignments and lookups through REST and through gRPC, timed. Excluded from the default
+ * build (it only prints numbers); run it with {@code mvn test -Dsurefire.excludedGroups=
+ * -Dgroups=throughput}.
+ */
+@QuarkusTest
+@Tag("throughput")
+class FulfilmentThroughputTest {
+
+    private static final int STORES = 200;
+    private static final int LOOKUPS = 5_000;
+
+    @GrpcClient("fulfilment") FulfilmentRouting client;
+
+    @Inject EntityManager em;
+    @Inject FulfilmentAssignmentRepository assignmentRepo;
+
+    private final List<Long> restStores = new ArrayList<>();
+    private final List<Long> grpcStores = new ArrayList<>();
+    private Long productId;
+
+    @BeforeEach
+    void seed() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            assignmentRepo.deleteAll();
+            em.createQuery("delete from Product p where p.name like 'TEST_%'").executeUpdate();
+            Store.delete("name like ?1", "TEST_%");
+            em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+
+            Product product = new Product();
+            product.name = "TEST_P";
+            product.description = "d";
+            product.price = BigDecimal.TEN;
+            product.stock = 1;
+            em.persist(product);
+            productId = product.id;
+
+            // a warehouse fulfils at most 5 product types, but any number of stores
+            DbWarehouse warehouse = new DbWarehouse();
+            warehouse.businessUnitCode = "TEST_W";
+            warehouse.location = "AMSTERDAM-001";
+            warehouse.capacity = 50;
+            warehouse.stock = 10;
+            warehouse.createdAt = LocalDateTime.now();
+            em.persist(warehouse);
+
+            restStores.clear();
+            grpcStores.clear();
+            for (int i = 0; i < STORES * 2; i++) {
+                Store store = new Store();
+                store.name = "TEST_S" + i;
+                store.quantityProductsInStock = 0;
+                store.persist();
+                (i < STORES ? restStores : grpcStores).add(store.id);
+            }
+        });
+    }
+
+    @Test
+    void compareRestAndGrpc() {
+        long start = System.nanoTime();
+        for (Long storeId : restStores) {
+            given().contentType(ContentType.JSON)
+                    .when()
+                    .post("/fulfilment/stores/{s}/products/{p}/warehouses/TEST_W", storeId, productId)
+                    .then()
+                    .statusCode(201);
+        }
+        report("assign", "REST", STORES, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        AssignBatchReply reply = client.assignBatch(Multi.createFrom().iterable(grpcStores).map(storeId -> AssignRequest
+                        .newBuilder()
+                        .setStoreId(storeId)
+                        .setProductId(productId)
+                        .setWarehouseBusinessUnitCode("TEST_W")
+                        .build()))
+                .await()
+                .atMost(Duration.ofMinutes(1));
+        report("assign", "gRPC batch", STORES, System.nanoTime() - start);
+        assertEquals(STORES, reply.getAssigned());
+
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            given().when()
+                    .get("/fulfilment/stores/{s}/products/{p}/warehouses", restStores.get(i % STORES), productId)
+                    .then()
+                    .statusCode(200);
+        }
+        report("route", "REST", LOOKUPS, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        int routed = client.route(Multi.createFrom().range(0, LOOKUPS).map(i -> RouteRequest.newBuilder()
+                        .setStoreId(grpcStores.get(i % STORES))
+                        .setProductId(productId)
+                        .build()))
+                .collect()
+                .asList()
+                .await()
+                .atMost(Duration.ofMinutes(1))
+                .size();
+        report("route", "gRPC stream", LOOKUPS, System.nanoTime() - start);
+        assertEquals(LOOKUPS, routed);
+    }
+
+    private static void report(String operation, String transport, int calls, long nanos) {
+        System.out.printf(
+                "%-6s %-12s %6d calls in %6d ms, %8.0f/s%n",
+                operation, transport, calls, nanos / 1_000_000, calls / (nanos / 1e9));
+    }
+}
@@ -3,7 +3,11 @@ package com.fulfilment.application.monolith.location;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class LocationGatewayTest {
 
@@ -55,4 +59,23 @@ public class LocationGatewayTest {
     assertNotNull(location);
     assertEquals("AMSTERDAM-001", location.identification);
   }
+
+  @Test
+  void testWhenCatalogConfiguredShouldResolveItsLocations(@TempDir Path dir) throws Exception {
+    // given
+    Path file = dir.resolve("locations.csv");
+    Files.writeString(file, "identification,maxNumberOfWarehouses,maxCapacity\nGEN-00001,4,900\n");
+    LocationGateway locationGateway = new LocationGateway();
+    locationGateway.catalog = Optional.of(file);
+    locationGateway.loadCatalog();
+
+    // when
+    Location location = locationGateway.resolveByIdentifier("GEN-00001");
+
+    // then
+    assertNotNull(location);
+    assertEquals(4, location.maxNumberOfWarehouses);
+    assertEquals(900, location.maxCapacity);
+    assertNotNull(locationGateway.resolveByIdentifier("ZWOLLE-001"));
+  }
 }
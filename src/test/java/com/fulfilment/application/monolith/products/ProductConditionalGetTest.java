@@ -0,0 +1,84 @@
+package com.fulfilment.application.monolith.products;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class ProductConditionalGetTest {
+
+  private static final String PATH = "product";
+
+  @Test
+  public void shouldAnswerNotModifiedUntilTheProductChanges() {
+    Long id =
+        given()
+            .contentType("application/json")
+            .body("{\"name\":\"TEST_ETAG\",\"stock\":3}")
+            .when()
+            .post(PATH)
+            .then()
+            .statusCode(201)
+            .extract()
+            .jsonPath()
+            .getLong("id");
+
+    String etag =
+        given()
+            .when()
+            .get(PATH + "/" + id)
+            .then()
+            .statusCode(200)
+            .header("ETag", notNullValue())
+            .extract()
+            .header("ETag");
+
+    given()
+        .header("If-None-Match", etag)
+        .when()
+        .get(PATH + "/" + id)
+        .then()
+        .statusCode(304)
+        .header("ETag", equalTo(etag))
+        .body(equalTo(""));
+
+    given()
+        .contentType("application/json")
+        .body("{\"name\":\"TEST_ETAG\",\"stock\":4}")
+        .when()
+        .put(PATH + "/" + id)
+        .then()
+        .statusCode(200);
+
+    String changed =
+        given()
+            .header("If-None-Match", etag)
+            .when()
+            .get(PATH + "/" + id)
+            .then()
+            .statusCode(200)
+            .header("ETag", not(equalTo(etag)))
+            .body("stock", equalTo(4))
+            .extract()
+            .header("ETag");
+
+    assertNotEquals(etag, changed);
+
+    given().when().delete(PATH + "/" + id).then().statusCode(204);
+  }
+
+  @Test
+  public void shouldReturnNotFoundForConditionalGetOfMissingProduct() {
+    given()
+        .header("If-None-Match", "\"999999-0\"")
+        .when()
+        .get(PATH + "/999999")
+        .then()
+        .statusCode(404);
+  }
+}
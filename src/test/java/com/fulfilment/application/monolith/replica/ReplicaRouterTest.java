@@ -0,0 +1,69 @@
+package com.fulfilment.application.monolith.replica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class ReplicaRouterTest {
+
+  @Test
+  void parsesWalPositions() {
+    assertEquals(0x16_B374D848L, ReplicaFreshness.parseLsn("16/B374D848"));
+    assertEquals(0L, ReplicaFreshness.parseLsn("0/0"));
+  }
+
+  @Test
+  void replicaIsFreshAsOfTheLastPrimarySampleItReplayed() {
+    ReplicaFreshness freshness = new ReplicaFreshness();
+    freshness.primaryAt(1_000, 100);
+    freshness.primaryAt(2_000, 200);
+    freshness.primaryAt(3_000, 300);
+
+    freshness.replicaReplayed(99);
+    assertEquals(Long.MIN_VALUE, freshness.freshAsOf());
+
+    freshness.replicaReplayed(250);
+    assertEquals(2_000, freshness.freshAsOf());
+
+    // an idle primary: the position does not move, the replica stays fresh
+    freshness.primaryAt(4_000, 300);
+    freshness.replicaReplayed(300);
+    assertEquals(4_000, freshness.freshAsOf());
+  }
+
+  @Test
+  void routesToTheReplicaOnlyWhenItIsCaughtUp() {
+    ReplicaRouter router = new ReplicaRouter();
+    router.enabled = true;
+    router.maxLag = Duration.ofSeconds(1);
+    assertFalse(router.canServe(0), "never checked");
+
+    long now = System.currentTimeMillis();
+    router.freshness().primaryAt(now, 500);
+    router.freshness().replicaReplayed(500);
+    assertTrue(router.canServe(0));
+    assertTrue(router.canServe(now - 10), "the client's write was replayed");
+    assertFalse(router.canServe(now + 10), "the client's write is newer than the replica");
+
+    ReplicaRouter lagging = new ReplicaRouter();
+    lagging.enabled = true;
+    lagging.maxLag = Duration.ofSeconds(1);
+    lagging.freshness().primaryAt(now - 5_000, 400);
+    lagging.freshness().primaryAt(now, 500);
+    lagging.freshness().replicaReplayed(450);
+    assertFalse(lagging.canServe(0), "five seconds behind");
+  }
+
+  @Test
+  void disabledRouterKeepsEverythingOnThePrimary() {
+    ReplicaRouter router = new ReplicaRouter();
+    router.maxLag = Duration.ofSeconds(1);
+    router.freshness().primaryAt(System.currentTimeMillis(), 1);
+    router.freshness().replicaReplayed(1);
+
+    assertFalse(router.canServe(0));
+  }
+}
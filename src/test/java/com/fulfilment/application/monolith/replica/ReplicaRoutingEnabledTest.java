@@ -0,0 +1,97 @@
+package com.fulfilment.application.monolith.replica;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.arc.Arc;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Routing on, with an embedded database standing in for the replica. It does not replicate, so
+ * a row only the replica holds shows which datasource served a read.
+ */
+@QuarkusTest
+@TestProfile(ReplicaRoutingEnabledTest.WithReplica.class)
+class ReplicaRoutingEnabledTest {
+
+  public static class WithReplica implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of(
+          "quarkus.datasource.replica.db-kind", "h2",
+          "quarkus.datasource.replica.jdbc.url", "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+          "quarkus.flyway.replica.migrate-at-start", "true",
+          "quarkus.flyway.replica.clean-at-start", "true",
+          "quarkus.flyway.replica.locations", "db/migration/common,db/migration/h2",
+          "replica.enabled", "true",
+          // H2 has no WAL to compare: the test says how fresh the replica is
+          "replica.check-interval", "1h",
+          "replica.max-lag", "1h");
+    }
+  }
+
+  private static final long STORE_ID = 9_001;
+
+  @Inject ReplicaRouter router;
+
+  @AfterEach
+  void clean() throws SQLException {
+    execute("delete from store where id = " + STORE_ID);
+  }
+
+  @Test
+  void readPathsGoToTheReplicaOnceItIsFresh() throws SQLException {
+    execute(
+        "insert into store (id, name, quantityProductsInStock, version) values ("
+            + STORE_ID
+            + ", 'TEST_ON_REPLICA', 1, 0)");
+
+    // never known to be fresh: the primary, which does not have the row
+    given().when().get("/store/" + STORE_ID).then().statusCode(404);
+
+    long now = System.currentTimeMillis();
+    router.freshness().primaryAt(now, 1);
+    router.freshness().replicaReplayed(1);
+    given().when().get("/store/" + STORE_ID).then().statusCode(200).body("name", equalTo("TEST_ON_REPLICA"));
+
+    // a client that wrote since stays on the primary
+    given()
+        .cookie(ReadYourWritesFilter.COOKIE, String.valueOf(now + 60_000))
+        .when()
+        .get("/store/" + STORE_ID)
+        .then()
+        .statusCode(404);
+
+    // writes always go to the primary
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"businessUnitCode\":\"TEST_REPLICA\",\"location\":\"AMSTERDAM-002\",\"capacity\":10,\"stock\":2}")
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(200);
+    given().when().delete("/warehouse/TEST_REPLICA").then().statusCode(204);
+  }
+
+  private static void execute(String sql) throws SQLException {
+    // looked up here: the datasource only exists in this profile
+    AgroalDataSource replica =
+        Arc.container().select(AgroalDataSource.class, new DataSource.DataSourceLiteral("replica")).get();
+    try (Connection connection = replica.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate(sql);
+    }
+  }
+}
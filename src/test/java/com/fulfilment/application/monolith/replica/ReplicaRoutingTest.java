@@ -0,0 +1,42 @@
+package com.fulfilment.application.monolith.replica;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Routing off, the default: every session is opened on the default datasource. */
+@QuarkusTest
+class ReplicaRoutingTest {
+
+  @Inject EntityManager em;
+
+  @BeforeEach
+  @Transactional
+  void clean() {
+    em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+    em.createQuery("delete from DbWarehouseHistory h where h.businessUnitCode like 'TEST_%'").executeUpdate();
+  }
+
+  @Test
+  void readAndWritePathsRunOnThePrimary() {
+    given().when().get("/store/1").then().statusCode(200).body("name", equalTo("TONSTAD"));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"businessUnitCode\":\"TEST_REPLICA\",\"location\":\"AMSTERDAM-002\",\"capacity\":10,\"stock\":2}")
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(200);
+    given().when().get("/warehouse").then().statusCode(200).body("businessUnitCode", hasItem("TEST_REPLICA"));
+    given().when().delete("/warehouse/TEST_REPLICA").then().statusCode(204);
+  }
+}
@@ -0,0 +1,42 @@
+package com.fulfilment.application.monolith.sharding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ShardMapTest {
+
+  @Test
+  void regionIsTheLocationUpToItsLastDash() {
+    assertEquals("ZWOLLE", ShardMap.regionOf("ZWOLLE-001"));
+    assertEquals("DEN-HAAG", ShardMap.regionOf(" den-haag-002 "));
+    assertEquals("VETSBY", ShardMap.regionOf("VETSBY"));
+  }
+
+  @Test
+  void unmappedRegionsStayOnThePrimary() {
+    ShardMap map = ShardMap.parse("primary", List.of("eindhoven=south", "HELMOND = south", "ZWOLLE=north"));
+
+    assertEquals("south", map.shardOf("EINDHOVEN-001"));
+    assertEquals("south", map.shardOf("HELMOND-001"));
+    assertEquals("north", map.shardOf("ZWOLLE-002"));
+    assertEquals("primary", map.shardOf("AMSTERDAM-001"));
+    assertEquals("primary", map.shardOf(null));
+    assertEquals(List.of("primary", "north", "south"), map.shards());
+  }
+
+  @Test
+  void withoutEntriesThereIsOneShard() {
+    assertEquals(List.of("primary"), ShardMap.parse("primary", List.of()).shards());
+  }
+
+  @Test
+  void rejectsMalformedAndConflictingEntries() {
+    assertThrows(IllegalArgumentException.class, () -> ShardMap.parse("primary", List.of("EINDHOVEN")));
+    assertThrows(IllegalArgumentException.class, () -> ShardMap.parse("primary", List.of("EINDHOVEN=")));
+    assertThrows(
+        IllegalArgumentException.class, () -> ShardMap.parse("primary", List.of("EINDHOVEN=a", "EINDHOVEN=b")));
+  }
+}
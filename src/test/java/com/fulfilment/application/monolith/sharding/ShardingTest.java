@@ -0,0 +1,226 @@
+package com.fulfilment.application.monolith.sharding;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fulfilment.application.monolith.common.ReadOnly;
+import com.fulfilment.application.monolith.common.ReadOnlyInterceptor;
+import com.fulfilment.application.monolith.warehouses.adapters.database.ShardedWarehouseStore;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.arc.Arc;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Two embedded databases: EINDHOVEN and HELMOND on shard-b, every other region on the primary. */
+@QuarkusTest
+@TestProfile(ShardingTest.TwoShards.class)
+class ShardingTest {
+
+  public static class TwoShards implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of(
+          "quarkus.datasource.shard-b.db-kind", "h2",
+          "quarkus.datasource.shard-b.jdbc.url", "jdbc:h2:mem:shard-b;DB_CLOSE_DELAY=-1",
+          "quarkus.flyway.shard-b.migrate-at-start", "true",
+          "quarkus.flyway.shard-b.clean-at-start", "true",
+          "quarkus.flyway.shard-b.locations", "db/migration/common,db/migration/h2",
+          "sharding.regions", "EINDHOVEN=shard-b,HELMOND=shard-b");
+    }
+  }
+
+  @Inject AgroalDataSource primary;
+  @Inject ShardedWarehouseStore warehouseStore;
+  @Inject Shards shards;
+  @Inject ReadPath readPath;
+
+  AgroalDataSource shardB;
+
+  @BeforeEach
+  void clean() throws SQLException {
+    // looked up here rather than injected: the datasource only exists in this profile, and every
+    // test class is validated when the application is built for the default one
+    shardB = Arc.container().select(AgroalDataSource.class, new DataSource.DataSourceLiteral("shard-b")).get();
+    // the migrations seeded the shard too: it starts out empty instead
+    execute(shardB, "delete from fulfilment_assignment", "delete from warehouse_history", "delete from warehouse");
+    execute(
+        primary,
+        "delete from fulfilment_assignment",
+        "delete from warehouse_history where businessUnitCode like 'TEST_%'",
+        "delete from warehouse where businessUnitCode like 'TEST_%'");
+  }
+
+  @Test
+  void warehousesAreStoredOnTheShardOfTheirLocation() throws SQLException {
+    createWarehouse("TEST_EIN", "EINDHOVEN-001", 200);
+    createWarehouse("TEST_ZWO", "ZWOLLE-002", 200);
+
+    assertEquals(1, countWarehouses(shardB, "TEST_EIN"));
+    assertEquals(0, countWarehouses(primary, "TEST_EIN"));
+    assertEquals(1, countWarehouses(primary, "TEST_ZWO"));
+    assertEquals(0, countWarehouses(shardB, "TEST_ZWO"));
+
+    given()
+        .when()
+        .get("/warehouse")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", hasItems("MWH.001", "TEST_EIN", "TEST_ZWO"));
+    given().when().get("/warehouse/TEST_EIN").then().statusCode(200).body("location", equalTo("EINDHOVEN-001"));
+  }
+
+  @Test
+  void capacityIsCheckedOnTheShardOfTheLocation() {
+    // EINDHOVEN-001 takes two warehouses
+    createWarehouse("TEST_EIN1", "EINDHOVEN-001", 200);
+    createWarehouse("TEST_EIN2", "EINDHOVEN-001", 200);
+
+    createWarehouse("TEST_EIN3", "EINDHOVEN-001", 409).body("reason", equalTo("location_full"));
+  }
+
+  @Test
+  void replacementStaysWithinAShard() {
+    createWarehouse("TEST_EIN", "EINDHOVEN-001", 200);
+
+    replace("TEST_EIN", "ZWOLLE-002", 409).body("reason", equalTo("cross_shard"));
+    given().when().get("/warehouse/TEST_EIN").then().statusCode(200).body("location", equalTo("EINDHOVEN-001"));
+
+    replace("TEST_EIN", "HELMOND-001", 200);
+    given()
+        .when()
+        .get("/warehouse/TEST_EIN/history")
+        .then()
+        .statusCode(200)
+        .body("location", contains("HELMOND-001", "EINDHOVEN-001"));
+  }
+
+  @Test
+  void assignmentsFollowTheirWarehouseAndStoreLimitsSpanShards() throws SQLException {
+    createWarehouse("TEST_EIN", "EINDHOVEN-001", 200);
+
+    assign(1, 1, "TEST_EIN", 201);
+    assertEquals(1, countAssignments(shardB));
+    assertEquals(0, countAssignments(primary));
+    given()
+        .when()
+        .get("/fulfilment/stores/1/products/1/warehouses")
+        .then()
+        .statusCode(200)
+        .body("", contains("TEST_EIN"));
+
+    // store 2 already uses three warehouses on the primary, so a fourth on shard-b is refused
+    assign(2, 1, "MWH.001", 201);
+    assign(2, 2, "MWH.012", 201);
+    assign(2, 3, "MWH.023", 201);
+    assign(2, 2, "TEST_EIN", 409);
+  }
+
+  @Test
+  void aWriteReadsTheWarehouseItActsOnInItsOwnTransaction() {
+    createWarehouse("TEST_EIN", "EINDHOVEN-001", 200);
+
+    String bound =
+        QuarkusTransaction.requiringNew()
+            .call(
+                () -> {
+                  assertEquals("EINDHOVEN-001", warehouseStore.findByBusinessUnitCode("TEST_EIN").location);
+                  return shards.bound();
+                });
+    assertEquals("shard-b", bound);
+  }
+
+  @Test
+  void otherShardsAreReadAsPartOfTheReadPath() {
+    assertEquals(List.of(true, true), readPath.readOnlyOnEveryShard());
+  }
+
+  @ApplicationScoped
+  public static class ReadPath {
+
+    @Inject Shards shards;
+
+    @ReadOnly
+    public List<Boolean> readOnlyOnEveryShard() {
+      return shards.scatter(ReadOnlyInterceptor::isActive);
+    }
+  }
+
+  private ValidatableResponse createWarehouse(String code, String location, int status) {
+    return given()
+        .contentType(ContentType.JSON)
+        .body(
+            "{\"businessUnitCode\":\"" + code + "\",\"location\":\"" + location + "\",\"capacity\":20,\"stock\":5}")
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(status);
+  }
+
+  private ValidatableResponse replace(String code, String location, int status) {
+    return given()
+        .contentType(ContentType.JSON)
+        .body("{\"location\":\"" + location + "\",\"capacity\":20,\"stock\":5}")
+        .when()
+        .post("/warehouse/" + code + "/replacement")
+        .then()
+        .statusCode(status);
+  }
+
+  private void assign(long storeId, long productId, String warehouse, int status) {
+    given()
+        .contentType(ContentType.JSON)
+        .when()
+        .post("/fulfilment/stores/{s}/products/{p}/warehouses/{w}", storeId, productId, warehouse)
+        .then()
+        .statusCode(status);
+  }
+
+  private static void execute(AgroalDataSource dataSource, String... statements) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      for (String sql : statements) {
+        statement.executeUpdate(sql);
+      }
+    }
+  }
+
+  private static long countWarehouses(AgroalDataSource dataSource, String code) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement =
+            connection.prepareStatement("select count(*) from warehouse where businessUnitCode = ?")) {
+      statement.setString(1, code);
+      try (ResultSet result = statement.executeQuery()) {
+        result.next();
+        return result.getLong(1);
+      }
+    }
+  }
+
+  private static long countAssignments(AgroalDataSource dataSource) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery("select count(*) from fulfilment_assignment")) {
+      result.next();
+      return result.getLong(1);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package com.fulfilment.application.monolith.summary;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.hasItem;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class WarehouseSummaryResourceTest {
+
+  private static final String BU = "TEST_SUMMARY";
+
+  @Inject EntityManager em;
+  @Inject WarehouseSummaryView view;
+
+  @BeforeEach
+  void clean() {
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              em.createQuery("delete from FulfilmentAssignment").executeUpdate();
+              em.createNativeQuery("delete from fulfilment_assignment_history").executeUpdate();
+              em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+              em.createQuery("delete from DbWarehouseHistory h where h.businessUnitCode like 'TEST_%'").executeUpdate();
+              em.createQuery("delete from Store s where s.name like 'TEST_%'").executeUpdate();
+              em.createQuery("delete from Product p where p.name like 'TEST_%'").executeUpdate();
+            });
+    // those rows went behind the view's back
+    view.rebuild();
+  }
+
+  @Test
+  void followsTheWarehouseLifecycleAndItsAssignments() {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"businessUnitCode\":\"" + BU + "\",\"location\":\"AMSTERDAM-002\",\"capacity\":20,\"stock\":5}")
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(200);
+
+    given()
+        .when()
+        .get("/warehouse-summary/" + BU)
+        .then()
+        .statusCode(200)
+        .body("location", is("AMSTERDAM-002"))
+        .body("utilization", is(0.25f))
+        .body("locationMaxWarehouses", is(3))
+        .body("locationMaxCapacity", is(75))
+        .body("stores", is(0))
+        .body("products", is(0));
+
+    // own stores and product, other tests remove the seeded ones
+    int productId =
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"TEST_SUMMARY\",\"stock\":1}")
+            .when()
+            .post("/product")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+    for (String store : new String[] {"TEST_SUMMARY_1", "TEST_SUMMARY_2"}) {
+      int storeId =
+          given()
+              .contentType(ContentType.JSON)
+              .body("{\"name\":\"" + store + "\",\"quantityProductsInStock\":1}")
+              .when()
+              .post("/store")
+              .then()
+              .statusCode(201)
+              .extract()
+              .path("id");
+      given()
+          .contentType(ContentType.JSON)
+          .when()
+          .post("/fulfilment/stores/" + storeId + "/products/" + productId + "/warehouses/" + BU)
+          .then()
+          .statusCode(201);
+    }
+
+    given()
+        .when()
+        .get("/warehouse-summary/" + BU)
+        .then()
+        .statusCode(200)
+        .body("stores", is(2))
+        .body("products", is(1));
+
+    // counted the same way when built from the tables
+    view.rebuild();
+    given()
+        .when()
+        .get("/warehouse-summary/" + BU)
+        .then()
+        .statusCode(200)
+        .body("stores", is(2))
+        .body("products", is(1));
+
+    // the assignments move to the replacement
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"location\":\"AMSTERDAM-002\",\"capacity\":30,\"stock\":5}")
+        .when()
+        .post("/warehouse/" + BU + "/replacement")
+        .then()
+        .statusCode(200);
+
+    given()
+        .when()
+        .get("/warehouse-summary/" + BU)
+        .then()
+        .statusCode(200)
+        .body("capacity", is(30))
+        .body("stores", is(2))
+        .body("products", is(1));
+
+    given().when().delete("/warehouse/" + BU).then().statusCode(204);
+
+    given().when().get("/warehouse-summary/" + BU).then().statusCode(404);
+    given()
+        .queryParam("location", "AMSTERDAM-002")
+        .when()
+        .get("/warehouse-summary")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", not(hasItem(BU)));
+  }
+
+  @Test
+  void rebuildCorrectsWhatTheViewMissed() {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"businessUnitCode\":\"" + BU + "\",\"location\":\"AMSTERDAM-002\",\"capacity\":20,\"stock\":5}")
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(200);
+    // a change without an event, like one whose append failed
+    QuarkusTransaction.requiringNew()
+        .run(
+            () ->
+                em.createQuery("update DbWarehouse w set w.stock = 10 where w.businessUnitCode = :bu")
+                    .setParameter("bu", BU)
+                    .executeUpdate());
+    given().when().get("/warehouse-summary/" + BU).then().statusCode(200).body("stock", is(5));
+
+    double drift = drift();
+    view.rebuild();
+    given().when().get("/warehouse-summary/" + BU).then().statusCode(200).body("stock", is(10));
+    assertEquals(drift + 1, drift(), 0.0);
+  }
+
+  @Test
+  void listsTheSeededWarehouses() {
+    given()
+        .when()
+        .get("/warehouse-summary")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", hasItem("MWH.012"));
+  }
+
+  private static double drift() {
+    String metrics = given().when().get("/q/metrics").then().statusCode(200).extract().asString();
+    return metrics.lines()
+        .filter(line -> line.startsWith("warehouse_summary_drift_total"))
+        .mapToDouble(line -> Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)))
+        .sum();
+  }
+}
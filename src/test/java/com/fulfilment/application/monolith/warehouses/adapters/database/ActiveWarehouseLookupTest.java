@@ -0,0 +1,150 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+
+class ActiveWarehouseLookupTest {
+
+  private static final int READERS = 32;
+
+  @Test
+  void burstOfReadersRunsOneQuery() throws Exception {
+    AtomicInteger queries = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    Warehouse stored = new Warehouse();
+    stored.businessUnitCode = "MWH.001";
+
+    ActiveWarehouseLookup lookup =
+        lookup(
+            new WarehouseRepository() {
+              @Override
+              public Warehouse findByBusinessUnitCode(String buCode) {
+                queries.incrementAndGet();
+                try {
+                  // hold the query open until every reader has arrived
+                  release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                return stored;
+              }
+            },
+            () -> false);
+
+    ExecutorService pool = Executors.newFixedThreadPool(READERS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<Warehouse>> results = new ArrayList<>();
+      for (int i = 0; i < READERS; i++) {
+        results.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  return lookup.find(" MWH.001 ");
+                }));
+      }
+      start.countDown();
+      awaitWaiters(lookup, READERS - 1);
+      release.countDown();
+
+      for (Future<Warehouse> result : results) {
+        assertSame(stored, result.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, queries.get());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void fencedReaderDoesNotJoinAFlightThatMayReadFromTheReplica() throws Exception {
+    AtomicInteger queries = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    Warehouse replicaRow = new Warehouse();
+    Warehouse primaryRow = new Warehouse();
+    ThreadLocal<Boolean> fence = ThreadLocal.withInitial(() -> false);
+
+    ActiveWarehouseLookup lookup =
+        lookup(
+            new WarehouseRepository() {
+              @Override
+              public Warehouse findByBusinessUnitCode(String buCode) {
+                queries.incrementAndGet();
+                if (fence.get()) {
+                  return primaryRow;
+                }
+                try {
+                  // an unfenced reader's flight, on a replica that has not caught up yet
+                  release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                return replicaRow;
+              }
+            },
+            fence::get);
+
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      Future<Warehouse> unfenced = pool.submit(() -> lookup.find("MWH.001"));
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (queries.get() < 1 && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+
+      // the flight is still running: a joined reader would wait for it
+      Future<Warehouse> fenced =
+          pool.submit(
+              () -> {
+                fence.set(true);
+                return lookup.find("MWH.001");
+              });
+      assertSame(primaryRow, fenced.get(5, TimeUnit.SECONDS));
+      assertEquals(0, lookup.waiters("MWH.001"));
+
+      release.countDown();
+      assertSame(replicaRow, unfenced.get(5, TimeUnit.SECONDS));
+      assertEquals(2, queries.get());
+    } finally {
+      release.countDown();
+      pool.shutdownNow();
+    }
+  }
+
+  private static ActiveWarehouseLookup lookup(WarehouseRepository store, BooleanSupplier fenced) {
+    ActiveWarehouseLookup lookup =
+        new ActiveWarehouseLookup() {
+          @Override
+          boolean fenced() {
+            return fenced.getAsBoolean();
+          }
+        };
+    lookup.timeout = Duration.ofSeconds(5);
+    lookup.warehouseStore = store;
+    lookup.init();
+    return lookup;
+  }
+
+  private static void awaitWaiters(ActiveWarehouseLookup lookup, int waiters) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (lookup.waiters("MWH.001") < waiters) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("only " + lookup.waiters("MWH.001") + " of " + waiters + " readers joined");
+      }
+      Thread.sleep(1);
+    }
+  }
+}
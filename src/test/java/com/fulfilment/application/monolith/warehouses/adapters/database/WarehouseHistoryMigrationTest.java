@@ -0,0 +1,82 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class WarehouseHistoryMigrationTest {
+
+  @Inject EntityManager em;
+  @Inject WarehouseRepository warehouseRepository;
+  @Inject WarehouseHistoryMigration migration;
+
+  @BeforeEach
+  @Transactional
+  void clean() {
+    em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+    em.createQuery("delete from DbWarehouseHistory h where h.businessUnitCode like 'TEST_%'").executeUpdate();
+  }
+
+  @Test
+  public void archivingMovesTheRowOutOfTheHotTable() {
+    String body = "{\"businessUnitCode\":\"TEST_HOT\",\"location\":\"AMSTERDAM-002\",\"capacity\":10,\"stock\":0}";
+    given().contentType(ContentType.JSON).body(body).when().post("/warehouse").then().statusCode(200);
+
+    given().when().delete("/warehouse/TEST_HOT").then().statusCode(204);
+
+    assertEquals(0L, count("DbWarehouse", "TEST_HOT"));
+    assertEquals(1L, count("DbWarehouseHistory", "TEST_HOT"));
+    // the code stays taken through its history
+    given().contentType(ContentType.JSON).body(body).when().post("/warehouse").then().statusCode(409);
+  }
+
+  @Test
+  public void migrationMovesLegacyArchivedRowsAndKeepsTheActiveOne() {
+    LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+    persistLegacy("TEST_LEGACY", start, start.plusMonths(1));
+    persistLegacy("TEST_LEGACY", start.plusMonths(1), start.plusMonths(2));
+    persistLegacy("TEST_LEGACY", start.plusMonths(2), null);
+    persistLegacy("TEST_GONE", start, start.plusMonths(3));
+
+    migration.migrateAll();
+
+    assertEquals(1L, count("DbWarehouse", "TEST_LEGACY"));
+    assertEquals(2L, count("DbWarehouseHistory", "TEST_LEGACY"));
+    assertEquals(0L, count("DbWarehouse", "TEST_GONE"));
+    assertEquals(0, migration.migrateChunk());
+
+    Warehouse gone = warehouseRepository.findAnyByBusinessUnitCode("TEST_GONE");
+    assertNotNull(gone);
+    assertEquals(start.plusMonths(3), gone.archivedAt);
+  }
+
+  @Transactional
+  void persistLegacy(String code, LocalDateTime createdAt, LocalDateTime archivedAt) {
+    DbWarehouse w = new DbWarehouse();
+    w.businessUnitCode = code;
+    w.location = "HELMOND-001";
+    w.capacity = 10;
+    w.stock = 1;
+    w.createdAt = createdAt;
+    w.archivedAt = archivedAt;
+    em.persist(w);
+  }
+
+  @Transactional
+  long count(String entity, String code) {
+    return em.createQuery("select count(w) from " + entity + " w where w.businessUnitCode = :bu", Long.class)
+        .setParameter("bu", code)
+        .getSingleResult();
+  }
+}
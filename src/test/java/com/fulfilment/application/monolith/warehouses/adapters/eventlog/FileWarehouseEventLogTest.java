@@ -0,0 +1,175 @@
+package com.fulfilment.application.monolith.warehouses.adapters.eventlog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileWarehouseEventLogTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void replaysTheLogAfterReopening() throws Exception {
+    FileWarehouseEventLog log = open(1000);
+    log.write(event(Type.CREATED, "BU1", 1));
+    log.write(event(Type.CREATED, "BU2", 2));
+    log.write(event(Type.ARCHIVED, "BU1", 3));
+    log.close();
+
+    log = open(1000);
+    List<WarehouseEvent> replayed = new ArrayList<>();
+    assertEquals(3, log.subscribe((sequence, event) -> replayed.add(event)));
+    assertEquals(List.of(event(Type.CREATED, "BU1", 1), event(Type.CREATED, "BU2", 2), event(Type.ARCHIVED, "BU1", 3)), replayed);
+    assertEquals(4, log.write(event(Type.REPLACED, "BU2", 4)));
+    log.close();
+  }
+
+  @Test
+  void truncatesATornRecord() throws Exception {
+    FileWarehouseEventLog log = open(1000);
+    log.write(event(Type.CREATED, "BU1", 1));
+    log.write(event(Type.CREATED, "BU2", 2));
+    log.close();
+    Path file = directory.resolve(FileWarehouseEventLog.LOG_FILE);
+    long intact = Files.size(file);
+    // a crash in the middle of a write: a length prefix and part of the body
+    Files.write(file, new byte[] {0, 0, 0, 60, 0, 0, 0, 0, 0, 0}, StandardOpenOption.APPEND);
+
+    log = open(1000);
+    assertEquals(intact, Files.size(file));
+    assertEquals(3, log.write(event(Type.ARCHIVED, "BU1", 3)));
+    log.close();
+  }
+
+  @Test
+  void subscribersStartFromTheLatestSnapshot() throws Exception {
+    FileWarehouseEventLog log = open(2);
+    log.write(event(Type.CREATED, "BU1", 1));
+    log.write(event(Type.CREATED, "BU2", 2));
+    log.write(event(Type.ARCHIVED, "BU1", 3));
+    log.write(event(Type.CREATED, "BU3", 4));
+    log.write(event(Type.REPLACED, "BU2", 5));
+    // waits for the snapshot writer
+    log.close();
+
+    log = open(2);
+    List<Long> sequences = new ArrayList<>();
+    assertEquals(5, log.subscribe((sequence, event) -> sequences.add(sequence)));
+    // the snapshot at 4 holds BU2 and BU3 only, BU1 was archived before it
+    assertEquals(List.of(2L, 4L, 5L), sequences);
+    log.close();
+  }
+
+  @Test
+  void subscribersReceiveNewEvents() throws Exception {
+    FileWarehouseEventLog log = open(1000);
+    log.write(event(Type.CREATED, "BU1", 1));
+
+    List<Long> sequences = new ArrayList<>();
+    log.subscribe((sequence, event) -> sequences.add(sequence));
+    log.write(event(Type.CREATED, "BU2", 2));
+    assertEquals(List.of(1L, 2L), sequences);
+    log.close();
+  }
+
+  @Test
+  void followersOnlyReceiveNewEvents() throws Exception {
+    FileWarehouseEventLog log = open(1000);
+    log.write(event(Type.CREATED, "BU1", 1));
+
+    List<Long> sequences = new ArrayList<>();
+    assertEquals(1, log.follow((sequence, event) -> sequences.add(sequence)));
+    log.write(event(Type.CREATED, "BU2", 2));
+    assertEquals(List.of(2L), sequences);
+    log.close();
+  }
+
+  @Test
+  void writesEventsInTheOrderTheyTookTheirPlace() throws Exception {
+    FileWarehouseEventLog log = open(1000);
+    List<WarehouseEvent> written = new CopyOnWriteArrayList<>();
+    log.follow((sequence, event) -> written.add(event));
+
+    // the transaction that archived BU1 commits after the one that replaced the archived version
+    FileWarehouseEventLog.Pending archived = log.place(event(Type.ARCHIVED, "BU1", 1));
+    FileWarehouseEventLog.Pending replaced = log.place(event(Type.REPLACED, "BU1", 2));
+    FileWarehouseEventLog.Pending rolledBack = log.place(event(Type.CREATED, "BU2", 3));
+    log.resolve(replaced, true);
+    Thread.sleep(100);
+    assertTrue(written.isEmpty());
+
+    log.resolve(rolledBack, false);
+    log.resolve(archived, true);
+    assertEquals(2, replaced.written.get(5, TimeUnit.SECONDS));
+    assertEquals(List.of(event(Type.ARCHIVED, "BU1", 1), event(Type.REPLACED, "BU1", 2)), written);
+    assertEquals(3, log.write(event(Type.CREATED, "BU3", 4)));
+    log.close();
+  }
+
+  @Test
+  void seedsAnEmptyLogWithTheActiveWarehouses() throws Exception {
+    FileWarehouseEventLog log = open(1000, List.of(warehouse("BU2", 2), warehouse("BU1", 1)));
+    List<WarehouseEvent> replayed = new ArrayList<>();
+    assertEquals(2, log.subscribe((sequence, event) -> replayed.add(event)));
+    assertEquals(List.of(event(Type.CREATED, "BU1", 1), event(Type.CREATED, "BU2", 2)), replayed);
+    log.close();
+
+    // only once, what the log holds from then on is its own
+    log = open(1000, List.of(warehouse("BU3", 3)));
+    assertEquals(2, log.subscribe((sequence, event) -> {}));
+    log.close();
+  }
+
+  @Test
+  void allowsOneWriterPerDirectory() throws Exception {
+    FileWarehouseEventLog log = open(1000);
+    assertThrows(RuntimeException.class, () -> open(1000));
+    log.close();
+  }
+
+  private FileWarehouseEventLog open(long snapshotEvery) {
+    return open(snapshotEvery, List.of());
+  }
+
+  private FileWarehouseEventLog open(long snapshotEvery, List<Warehouse> existing) {
+    FileWarehouseEventLog log =
+        new FileWarehouseEventLog() {
+          @Override
+          List<Warehouse> activeWarehouses() {
+            return existing;
+          }
+        };
+    log.directory = directory;
+    log.snapshotEvery = snapshotEvery;
+    log.open();
+    return log;
+  }
+
+  private static Warehouse warehouse(String businessUnitCode, int minute) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = "ZWOLLE-001";
+    warehouse.capacity = 40;
+    warehouse.stock = 10;
+    warehouse.createdAt = LocalDateTime.of(2024, 1, 1, 12, minute);
+    return warehouse;
+  }
+
+  private static WarehouseEvent event(Type type, String businessUnitCode, int minute) {
+    return new WarehouseEvent(type, businessUnitCode, "ZWOLLE-001", 40, 10, LocalDateTime.of(2024, 1, 1, 12, minute));
+  }
+}
@@ -0,0 +1,158 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+
+import com.fulfilment.application.monolith.common.StatementBudget;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class WarehouseBulkTest {
+
+  private static final String PATH = "/warehouse";
+
+  @Inject EntityManager em;
+
+  @BeforeEach
+  @Transactional
+  void clean() {
+    em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+    em.createQuery("delete from DbWarehouseHistory h where h.businessUnitCode like 'TEST_%'").executeUpdate();
+  }
+
+  @Test
+  public void shouldArchiveEveryWarehouseWithThePrefix() {
+    create("TEST_BULK_1", "AMSTERDAM-002", 10, 2);
+    create("TEST_BULK_2", "EINDHOVEN-001", 10, 2);
+    // '_' is no wildcard in the prefix
+    create("TEST_BULKX2", "AMSTERDAM-002", 10, 2);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"businessUnitCodePrefix\":\"TEST_BULK_\"}")
+        .when()
+        .post(PATH + "/archivals")
+        .then()
+        .statusCode(200)
+        .body("archived", equalTo(2))
+        .body("created", equalTo(0))
+        .body("businessUnitCodes", containsInAnyOrder("TEST_BULK_1", "TEST_BULK_2"))
+        .body("locations", containsInAnyOrder("AMSTERDAM-002", "EINDHOVEN-001"));
+
+    given().when().get(PATH + "/TEST_BULK_1").then().statusCode(404);
+    given().when().get(PATH + "/TEST_BULK_2").then().statusCode(404);
+    given().when().get(PATH + "/TEST_BULKX2").then().statusCode(200);
+    given().when().get(PATH + "/TEST_BULK_1/history").then().statusCode(200).body("", hasSize(1));
+  }
+
+  @Test
+  public void shouldArchiveByLocationAndRejectMissingCriteria() {
+    create("TEST_BULK_1", "AMSTERDAM-002", 10, 2);
+    create("TEST_BULK_2", "EINDHOVEN-001", 10, 2);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"location\":\"AMSTERDAM-002\",\"businessUnitCodePrefix\":\"TEST_\"}")
+        .when()
+        .post(PATH + "/archivals")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCodes", containsInAnyOrder("TEST_BULK_1"));
+    given().when().get(PATH + "/TEST_BULK_2").then().statusCode(200);
+
+    given().contentType(ContentType.JSON).body("{}").when().post(PATH + "/archivals").then().statusCode(422);
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"location\":\"NOWHERE-001\"}")
+        .when()
+        .post(PATH + "/archivals")
+        .then()
+        .statusCode(422);
+  }
+
+  @Test
+  public void shouldSwapWarehousesBetweenFullLocations() {
+    // HELMOND-001 and VETSBY-001 take one warehouse each: one at a time, neither could move
+    create("TEST_BULK_A", "HELMOND-001", 30, 5);
+    create("TEST_BULK_B", "VETSBY-001", 40, 5);
+
+    StatementBudget.assertAtMost(
+        8,
+        "replace two warehouses",
+        () ->
+            given()
+                .contentType(ContentType.JSON)
+                .body(
+                    "[{\"businessUnitCode\":\"TEST_BULK_A\",\"location\":\"VETSBY-001\",\"capacity\":30,\"stock\":5},"
+                        + "{\"businessUnitCode\":\"TEST_BULK_B\",\"location\":\"HELMOND-001\",\"capacity\":40,\"stock\":5}]")
+                .when()
+                .post(PATH + "/replacements")
+                .then()
+                .statusCode(200)
+                .body("archived", equalTo(2))
+                .body("created", equalTo(2))
+                .body("locations", containsInAnyOrder("HELMOND-001", "VETSBY-001")));
+
+    given().when().get(PATH + "/TEST_BULK_A").then().statusCode(200).body("location", equalTo("VETSBY-001"));
+    given().when().get(PATH + "/TEST_BULK_B").then().statusCode(200).body("location", equalTo("HELMOND-001"));
+    given().when().get(PATH + "/TEST_BULK_A/history").then().statusCode(200).body("", hasSize(2));
+  }
+
+  @Test
+  public void shouldReplaceNothingWhenOneReplacementFails() {
+    create("TEST_BULK_A", "AMSTERDAM-002", 10, 2);
+    create("TEST_BULK_B", "AMSTERDAM-002", 10, 2);
+
+    // together they exceed the 75 of AMSTERDAM-002
+    given()
+        .contentType(ContentType.JSON)
+        .body(
+            "[{\"businessUnitCode\":\"TEST_BULK_A\",\"location\":\"AMSTERDAM-002\",\"capacity\":40,\"stock\":2},"
+                + "{\"businessUnitCode\":\"TEST_BULK_B\",\"location\":\"AMSTERDAM-002\",\"capacity\":40,\"stock\":2}]")
+        .when()
+        .post(PATH + "/replacements")
+        .then()
+        .statusCode(409)
+        .body("reason", equalTo("location_capacity_exceeded"));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body(
+            "[{\"businessUnitCode\":\"TEST_BULK_A\",\"location\":\"AMSTERDAM-002\",\"capacity\":20,\"stock\":2},"
+                + "{\"businessUnitCode\":\"TEST_BULK_MISSING\",\"location\":\"AMSTERDAM-002\",\"capacity\":20,\"stock\":2}]")
+        .when()
+        .post(PATH + "/replacements")
+        .then()
+        .statusCode(404);
+
+    given().when().get(PATH + "/TEST_BULK_A").then().statusCode(200).body("capacity", equalTo(10));
+    given().when().get(PATH + "/TEST_BULK_A/history").then().statusCode(200).body("", hasSize(1));
+  }
+
+  private void create(String code, String location, int capacity, int stock) {
+    given()
+        .contentType(ContentType.JSON)
+        .body(
+            "{\"businessUnitCode\":\""
+                + code
+                + "\",\"location\":\""
+                + location
+                + "\",\"capacity\":"
+                + capacity
+                + ",\"stock\":"
+                + stock
+                + "}")
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(200);
+  }
+}
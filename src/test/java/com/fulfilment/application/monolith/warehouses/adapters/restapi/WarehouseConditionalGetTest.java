@@ -0,0 +1,88 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class WarehouseConditionalGetTest {
+
+  private static final String PATH = "/warehouse";
+
+  @Test
+  public void shouldExposeValidatorsAndAnswerNotModified() {
+    ExtractableResponse<Response> first =
+        given()
+            .when()
+            .get(PATH + "/MWH.012")
+            .then()
+            .statusCode(200)
+            .header("ETag", notNullValue())
+            .header("Last-Modified", notNullValue())
+            .body(containsString("MWH.012"))
+            .extract();
+
+    given()
+        .header("If-None-Match", first.header("ETag"))
+        .when()
+        .get(PATH + "/MWH.012")
+        .then()
+        .statusCode(304)
+        .body(equalTo(""));
+
+    given()
+        .header("If-Modified-Since", first.header("Last-Modified"))
+        .when()
+        .get(PATH + "/MWH.012")
+        .then()
+        .statusCode(304);
+  }
+
+  @Test
+  public void shouldSendBodyWhenValidatorDoesNotMatch() {
+    given()
+        .header("If-None-Match", "\"MWH.012-999\"")
+        .when()
+        .get(PATH + "/MWH.012")
+        .then()
+        .statusCode(200)
+        .body(containsString("AMSTERDAM-001"));
+  }
+
+  @Test
+  public void shouldFailAReadWhoseIfMatchFails() {
+    String etag = given().when().get(PATH + "/MWH.012").then().statusCode(200).extract().header("ETag");
+
+    given()
+        .header("If-Match", "\"MWH.012-999\"")
+        .header("If-None-Match", "\"MWH.012-999\"")
+        .when()
+        .get(PATH + "/MWH.012")
+        .then()
+        .statusCode(412)
+        .body("reason", equalTo("version_mismatch"));
+
+    // the tag of another warehouse at the same version is not this one's
+    given()
+        .header("If-Match", etag.replace("MWH.012", "MWH.001"))
+        .when()
+        .get(PATH + "/MWH.012")
+        .then()
+        .statusCode(412);
+
+    // a list matches when one of its tags does
+    given()
+        .header("If-Match", "\"MWH.001-1\", " + etag)
+        .when()
+        .get(PATH + "/MWH.012")
+        .then()
+        .statusCode(200)
+        .body(containsString("AMSTERDAM-001"));
+  }
+}
@@ -4,7 +4,9 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.not;
 
+import com.fulfilment.application.monolith.common.StatementBudget;
 import io.quarkus.test.junit.QuarkusIntegrationTest;
+import io.restassured.http.ContentType;
 import org.junit.jupiter.api.Test;
 
 @QuarkusIntegrationTest
@@ -14,15 +16,53 @@ public class WarehouseEndpointIT {
 
   @Test
   public void testSimpleListWarehouses() {
-    given()
-            .when()
-            .get(PATH)
-            .then()
-            .statusCode(200)
-            .body(
-                    containsString("MWH.001"),
-                    containsString("MWH.012"),
-                    containsString("MWH.023"));
+    // one select however many warehouses there are
+    StatementBudget.assertAtMost(
+            1,
+            "list warehouses",
+            () ->
+                    given()
+                            .when()
+                            .get(PATH)
+                            .then()
+                            .statusCode(200)
+                            .body(
+                                    containsString("MWH.001"),
+                                    containsString("MWH.012"),
+                                    containsString("MWH.023")));
+  }
+
+  @Test
+  public void testCreateAndReplaceStayWithinStatementBudgets() {
+    // uniqueness check over both tables, the location's warehouses, a sequence fetch, the insert
+    StatementBudget.assertAtMost(
+            4,
+            "create warehouse",
+            () ->
+                    given()
+                            .contentType(ContentType.JSON)
+                            .body("{\"businessUnitCode\":\"MWH.BUDGET\",\"location\":\"VETSBY-001\",\"capacity\":50,\"stock\":10}")
+                            .when()
+                            .post(PATH)
+                            .then()
+                            .statusCode(200));
+
+    // lookup, the location's warehouses, archive (delete + history insert), a sequence fetch, the
+    // insert and the move of the assignments (history insert + update); the response is built
+    // from what was written, not read back
+    StatementBudget.assertAtMost(
+            8,
+            "replace warehouse",
+            () ->
+                    given()
+                            .contentType(ContentType.JSON)
+                            .body("{\"location\":\"VETSBY-001\",\"capacity\":60,\"stock\":10}")
+                            .when()
+                            .post(PATH + "/MWH.BUDGET/replacement")
+                            .then()
+                            .statusCode(200)
+                            .header("ETag", containsString("MWH.BUDGET-1"))
+                            .body(containsString("\"capacity\":60")));
   }
 
   @Test
@@ -41,12 +81,10 @@ public class WarehouseEndpointIT {
                     containsString("AMSTERDAM-001"),
                     containsString("TILBURG-001"));
 
-    // Archive the ZWOLLE-001 (id=1)
-    given()
-            .when()
-            .delete(PATH + "/1")
-            .then()
-            .statusCode(204);
+    // Archive MWH.001 at ZWOLLE-001: lookup, then the conditional delete and the history insert
+    // (a single statement on PostgreSQL)
+    StatementBudget.assertAtMost(
+            3, "archive warehouse", () -> given().when().delete(PATH + "/MWH.001").then().statusCode(204));
 
     // ZWOLLE-001 should be missing now
     given()
@@ -0,0 +1,97 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class WarehouseHistoryTest {
+
+  private static final String PATH = "/warehouse";
+  private static final String BU = "TEST_HISTORY";
+
+  @Inject EntityManager em;
+
+  @BeforeEach
+  @Transactional
+  void clean() {
+    em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+    em.createQuery("delete from DbWarehouseHistory h where h.businessUnitCode like 'TEST_%'").executeUpdate();
+  }
+
+  @Test
+  public void shouldListVersionsNewestFirstAndAnswerAsOf() throws Exception {
+    LocalDateTime beforeCreate = LocalDateTime.now();
+    Thread.sleep(5);
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"businessUnitCode\":\"" + BU + "\",\"location\":\"AMSTERDAM-002\",\"capacity\":10,\"stock\":2}")
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(200);
+    Thread.sleep(5);
+    LocalDateTime firstVersion = LocalDateTime.now();
+    Thread.sleep(5);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"location\":\"AMSTERDAM-002\",\"capacity\":20,\"stock\":2}")
+        .when()
+        .post(PATH + "/" + BU + "/replacement")
+        .then()
+        .statusCode(200);
+
+    given()
+        .when()
+        .get(PATH + "/" + BU + "/history")
+        .then()
+        .statusCode(200)
+        .body("$", hasSize(2))
+        .body("capacity", contains(20, 10))
+        .body("[0].archivedAt", nullValue())
+        .body("[1].archivedAt", notNullValue());
+
+    given()
+        .queryParam("asOf", firstVersion.toString())
+        .when()
+        .get(PATH)
+        .then()
+        .statusCode(200)
+        .body("findAll { it.businessUnitCode == '" + BU + "' }.capacity", contains(10));
+
+    given()
+        .queryParam("asOf", beforeCreate.toString())
+        .when()
+        .get(PATH)
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", not(hasItem(BU)));
+
+    given()
+        .when()
+        .get(PATH)
+        .then()
+        .statusCode(200)
+        .body("findAll { it.businessUnitCode == '" + BU + "' }.capacity", contains(20));
+  }
+
+  @Test
+  public void shouldRejectUnknownCodeAndMalformedAsOf() {
+    given().when().get(PATH + "/TEST_NEVER/history").then().statusCode(404);
+    given().queryParam("asOf", "yesterday").when().get(PATH).then().statusCode(400);
+  }
+}
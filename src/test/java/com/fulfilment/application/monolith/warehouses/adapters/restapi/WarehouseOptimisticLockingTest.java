@@ -0,0 +1,186 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class WarehouseOptimisticLockingTest {
+
+  private static final String PATH = "/warehouse";
+  private static final String BU = "TEST_OPT";
+
+  @Inject EntityManager em;
+
+  @BeforeEach
+  @Transactional
+  void clean() {
+    em.createQuery("delete from DbWarehouse w where w.businessUnitCode like 'TEST_%'").executeUpdate();
+    em.createQuery("delete from DbWarehouseHistory h where h.businessUnitCode like 'TEST_%'").executeUpdate();
+
+    DbWarehouse w = new DbWarehouse();
+    w.businessUnitCode = BU;
+    w.location = "EINDHOVEN-001";
+    w.capacity = 20;
+    w.stock = 5;
+    w.createdAt = LocalDateTime.now();
+    em.persist(w);
+  }
+
+  @Test
+  public void shouldRejectStaleIfMatchAndAcceptCurrentOne() {
+    String etag = given().when().get(PATH + "/" + BU).then().statusCode(200).extract().header("ETag");
+
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", "\"" + BU + "-42\"")
+        .body(replacementBody(30))
+        .when()
+        .post(PATH + "/" + BU + "/replacement")
+        .then()
+        .statusCode(412);
+
+    String replaced =
+        given()
+            .contentType(ContentType.JSON)
+            .header("If-Match", etag)
+            .body(replacementBody(30))
+            .when()
+            .post(PATH + "/" + BU + "/replacement")
+            .then()
+            .statusCode(200)
+            .body("capacity", equalTo(30))
+            .extract()
+            .header("ETag");
+
+    assertNotEquals(etag, replaced);
+
+    // the old validator is gone for archive too
+    given().header("If-Match", etag).when().delete(PATH + "/" + BU).then().statusCode(412);
+    given().header("If-Match", replaced).when().delete(PATH + "/" + BU).then().statusCode(204);
+  }
+
+  @Test
+  public void shouldMatchIfMatchAgainstTheWarehouseItNames() {
+    String etag = given().when().get(PATH + "/" + BU).then().statusCode(200).extract().header("ETag");
+    String version = etag.substring(etag.lastIndexOf('-') + 1, etag.length() - 1);
+
+    // another warehouse's tag at the same version
+    given()
+        .header("If-Match", "\"MWH.012-" + version + "\"")
+        .when()
+        .delete(PATH + "/" + BU)
+        .then()
+        .statusCode(412)
+        .body("reason", equalTo("version_mismatch"));
+    // a conditional write can only expect one version
+    given()
+        .header("If-Match", etag + ", \"" + BU + "-42\"")
+        .when()
+        .delete(PATH + "/" + BU)
+        .then()
+        .statusCode(412);
+
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", "\"MWH.012-1\", " + etag)
+        .body(replacementBody(30))
+        .when()
+        .post(PATH + "/" + BU + "/replacement")
+        .then()
+        .statusCode(200);
+  }
+
+  @Test
+  public void concurrentReplacementsWithSameIfMatchHaveSingleWinner() throws Exception {
+    String etag = given().when().get(PATH + "/" + BU).then().statusCode(200).extract().header("ETag");
+
+    int writers = 8;
+    ExecutorService pool = Executors.newFixedThreadPool(writers);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> results = new ArrayList<>();
+    try {
+      for (int i = 0; i < writers; i++) {
+        int capacity = 21 + i;
+        results.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  int status;
+                  // admission control may shed a writer before it reaches the version check; like a
+                  // client it tries again, so every writer ends with the answer to its If-Match
+                  while ((status = replace(etag, capacity)) == 503) {
+                    Thread.sleep(50);
+                  }
+                  return status;
+                }));
+      }
+      long started = System.nanoTime();
+      start.countDown();
+
+      int winners = 0;
+      for (Future<Integer> result : results) {
+        int status = result.get(30, TimeUnit.SECONDS);
+        if (status == 200) {
+          winners++;
+        } else {
+          // a loser learns it lost: the version moved on (412) or the row was taken (409), never a 500
+          assertTrue(status == 409 || status == 412, () -> "a losing replacement answered " + status);
+        }
+      }
+      assertEquals(1, winners);
+      // the losers fail fast on the version check instead of queueing on the winner's row lock
+      long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+      assertTrue(elapsed < 10_000, () -> "the replacements took " + elapsed + " ms");
+    } finally {
+      pool.shutdownNow();
+    }
+
+    // no lost update: exactly one active row, and one archived row per successful replacement
+    assertEquals(1L, countRows("DbWarehouse"));
+    assertEquals(1L, countRows("DbWarehouseHistory"));
+  }
+
+  @Transactional
+  long countRows(String entity) {
+    return em.createQuery(
+            "select count(w) from " + entity + " w where w.businessUnitCode = :bu", Long.class)
+        .setParameter("bu", BU)
+        .getSingleResult();
+  }
+
+  private int replace(String etag, int capacity) {
+    return given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body(replacementBody(capacity))
+        .when()
+        .post(PATH + "/" + BU + "/replacement")
+        .then()
+        .extract()
+        .statusCode();
+  }
+
+  private String replacementBody(int capacity) {
+    return "{\"location\":\"EINDHOVEN-001\",\"capacity\":" + capacity + ",\"stock\":5}";
+  }
+}
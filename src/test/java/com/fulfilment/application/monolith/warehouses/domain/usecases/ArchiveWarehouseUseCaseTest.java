@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.ws.rs.WebApplicationException;
 import java.util.ArrayList;
@@ -16,7 +17,8 @@ class ArchiveWarehouseUseCaseTest {
   @Test
   void archivesWarehouse() {
     InMemoryWarehouseStore store = new InMemoryWarehouseStore();
-    ArchiveWarehouseUseCase useCase = new ArchiveWarehouseUseCase(store);
+    List<WarehouseEvent> events = new ArrayList<>();
+    ArchiveWarehouseUseCase useCase = new ArchiveWarehouseUseCase(store, events::add);
 
     Warehouse warehouse = new Warehouse();
     warehouse.businessUnitCode = "BU1";
@@ -25,6 +27,9 @@ class ArchiveWarehouseUseCaseTest {
 
     assertEquals(1, store.updated.size());
     assertNotNull(store.updated.get(0).archivedAt);
+    assertEquals(1, events.size());
+    assertEquals(WarehouseEvent.Type.ARCHIVED, events.get(0).type());
+    assertEquals(store.updated.get(0).archivedAt, events.get(0).occurredAt());
   }
 
   @Test
@@ -42,6 +47,22 @@ class ArchiveWarehouseUseCaseTest {
     assertEquals(409, exception.getResponse().getStatus());
   }
 
+  @Test
+  void rejectsAVersionTheCallerHasNotSeen() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    ArchiveWarehouseUseCase useCase = new ArchiveWarehouseUseCase(store);
+
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = "BU1";
+    warehouse.version = 3L;
+
+    WebApplicationException exception = assertThrows(WebApplicationException.class,
+        () -> useCase.archive(warehouse, 2L));
+
+    assertEquals(412, exception.getResponse().getStatus());
+    assertEquals(0, store.updated.size());
+  }
+
   @Test
   void rejectsMissingWarehouse() {
     InMemoryWarehouseStore store = new InMemoryWarehouseStore();
@@ -0,0 +1,209 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkWarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class BulkWarehouseUseCaseTest {
+
+  private static final Map<String, Location> LOCATION_BY_ID =
+      Map.of(
+          "LOC1", new Location("LOC1", 1, 100),
+          "LOC2", new Location("LOC2", 1, 100),
+          "LOC3", new Location("LOC3", 3, 100));
+  private static final LocationResolver LOCATIONS = LOCATION_BY_ID::get;
+
+  @Test
+  void archivesTheWarehousesMatchingBothCriteria() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    store.add("MWH.1", "LOC3", 10, 1);
+    store.add("MWH.2", "LOC3", 10, 1);
+    store.add("OTHER.3", "LOC3", 10, 1);
+    store.add("MWH.4", "LOC1", 10, 1);
+    List<WarehouseEvent> events = new ArrayList<>();
+    BulkWarehouseUseCase useCase = new BulkWarehouseUseCase(store, LOCATIONS, events::add);
+
+    BulkWarehouseChange change = useCase.archiveMatching(" LOC3 ", "MWH.");
+
+    assertEquals(List.of("MWH.1", "MWH.2"), codes(change.archived()));
+    assertTrue(change.created().isEmpty());
+    assertEquals(2, store.updated.size());
+    assertNotNull(store.updated.get(0).archivedAt);
+    assertEquals(2, events.size());
+    assertEquals(WarehouseEvent.Type.ARCHIVED, events.get(0).type());
+    assertEquals(List.of("OTHER.3", "MWH.4"), codes(store.getAll()));
+  }
+
+  @Test
+  void archivesNothingWhenNothingMatches() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    store.add("MWH.1", "LOC1", 10, 1);
+    BulkWarehouseUseCase useCase = new BulkWarehouseUseCase(store, LOCATIONS);
+
+    BulkWarehouseChange change = useCase.archiveMatching(null, "NONE.");
+
+    assertTrue(change.archived().isEmpty());
+    assertTrue(store.updated.isEmpty());
+  }
+
+  @Test
+  void rejectsArchivingWithoutCriteriaOrWithAnUnknownLocation() {
+    BulkWarehouseUseCase useCase = new BulkWarehouseUseCase(new InMemoryWarehouseStore(), LOCATIONS);
+
+    assertEquals(422, status(() -> useCase.archiveMatching(" ", null)));
+    assertEquals(422, status(() -> useCase.archiveMatching("NOWHERE", null)));
+  }
+
+  @Test
+  void swapsWarehousesBetweenFullLocations() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    store.add("BU1", "LOC1", 40, 5).version = 2L;
+    store.add("BU2", "LOC2", 50, 5);
+    List<WarehouseEvent> events = new ArrayList<>();
+    BulkWarehouseUseCase useCase = new BulkWarehouseUseCase(store, LOCATIONS, events::add);
+
+    BulkWarehouseChange change =
+        useCase.replaceAll(List.of(replacement("BU1", "LOC2", 40, 5), replacement("BU2", " LOC1 ", 50, 5)));
+
+    assertEquals(List.of("BU1", "BU2"), codes(change.archived()));
+    assertEquals(List.of("BU1", "BU2"), codes(change.created()));
+    assertEquals("LOC2", change.created().get(0).location);
+    assertEquals("LOC1", change.created().get(1).location);
+    assertEquals(3L, change.created().get(0).version);
+    assertEquals(change.archived().get(0).archivedAt, change.created().get(0).createdAt);
+    // one look at each location, whatever the number of replacements
+    assertEquals(List.of("LOC2", "LOC1"), store.locationLookups);
+    assertEquals(2, events.size());
+    assertEquals(WarehouseEvent.Type.REPLACED, events.get(0).type());
+  }
+
+  @Test
+  void checksTheLocationAgainstAllReplacementsTogether() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    store.add("BU1", "LOC3", 40, 5);
+    store.add("BU2", "LOC3", 40, 5);
+    BulkWarehouseUseCase useCase = new BulkWarehouseUseCase(store, LOCATIONS);
+
+    // each fits next to the other's current capacity, not next to its replacement
+    WebApplicationException exception =
+        assertThrows(
+            WebApplicationException.class,
+            () -> useCase.replaceAll(List.of(replacement("BU1", "LOC3", 55, 5), replacement("BU2", "LOC3", 55, 5))));
+
+    assertEquals(409, exception.getResponse().getStatus());
+    assertTrue(store.updated.isEmpty());
+    assertTrue(store.created.isEmpty());
+  }
+
+  @Test
+  void rejectsMovingIntoAFullLocation() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    store.add("BU1", "LOC1", 40, 5);
+    store.add("BU2", "LOC2", 40, 5);
+    BulkWarehouseUseCase useCase = new BulkWarehouseUseCase(store, LOCATIONS);
+
+    WebApplicationException exception =
+        assertThrows(WebApplicationException.class, () -> useCase.replaceAll(List.of(replacement("BU1", "LOC2", 40, 5))));
+
+    assertEquals(409, exception.getResponse().getStatus());
+  }
+
+  @Test
+  void rejectsInvalidReplacementLists() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    store.add("BU1", "LOC1", 40, 5);
+    BulkWarehouseUseCase useCase = new BulkWarehouseUseCase(store, LOCATIONS);
+
+    assertEquals(422, status(() -> useCase.replaceAll(List.of())));
+    assertEquals(
+        422, status(() -> useCase.replaceAll(List.of(replacement("BU1", "LOC1", 40, 5), replacement("BU1", "LOC1", 45, 5)))));
+    assertEquals(404, status(() -> useCase.replaceAll(List.of(replacement("BU9", "LOC1", 40, 5)))));
+    assertEquals(409, status(() -> useCase.replaceAll(List.of(replacement("BU1", "LOC1", 40, 6)))));
+    assertEquals(422, status(() -> useCase.replaceAll(List.of(replacement("BU1", "NOWHERE", 40, 5)))));
+    assertTrue(store.updated.isEmpty());
+  }
+
+  private static int status(Runnable call) {
+    return assertThrows(WebApplicationException.class, call::run).getResponse().getStatus();
+  }
+
+  private static Warehouse replacement(String code, String location, int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = code;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+
+  private static List<String> codes(List<Warehouse> warehouses) {
+    return warehouses.stream().map(w -> w.businessUnitCode).toList();
+  }
+
+  private static final class InMemoryWarehouseStore implements WarehouseStore {
+
+    private final List<Warehouse> warehouses = new ArrayList<>();
+    private final List<Warehouse> created = new ArrayList<>();
+    private final List<Warehouse> updated = new ArrayList<>();
+    private final List<String> locationLookups = new ArrayList<>();
+
+    Warehouse add(String code, String location, int capacity, int stock) {
+      Warehouse warehouse = replacement(code, location, capacity, stock);
+      warehouses.add(warehouse);
+      return warehouse;
+    }
+
+    @Override
+    public List<Warehouse> getAll() {
+      return new ArrayList<>(warehouses);
+    }
+
+    @Override
+    public List<Warehouse> findActiveAtLocation(String location) {
+      locationLookups.add(location);
+      return WarehouseStore.super.findActiveAtLocation(location);
+    }
+
+    @Override
+    public void create(Warehouse warehouse) {
+      warehouses.add(warehouse);
+      created.add(warehouse);
+    }
+
+    @Override
+    public void update(Warehouse warehouse) {
+      updated.add(warehouse);
+      if (warehouse.archivedAt != null) {
+        warehouses.remove(warehouse);
+      }
+    }
+
+    @Override
+    public void remove(Warehouse warehouse) {
+      warehouses.remove(warehouse);
+    }
+
+    @Override
+    public Warehouse findByBusinessUnitCode(String buCode) {
+      return warehouses.stream().filter(w -> w.businessUnitCode.equals(buCode)).findFirst().orElse(null);
+    }
+
+    @Override
+    public Warehouse findAnyByBusinessUnitCode(String buCode) {
+      return findByBusinessUnitCode(buCode);
+    }
+  }
+}
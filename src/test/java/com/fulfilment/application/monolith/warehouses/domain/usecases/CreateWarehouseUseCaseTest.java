@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.ws.rs.WebApplicationException;
@@ -23,7 +24,8 @@ class CreateWarehouseUseCaseTest {
     LocationResolver resolver = new MapLocationResolver(
         Map.of("NYC", new Location("NYC", 3, 500))
     );
-    CreateWarehouseUseCase useCase = new CreateWarehouseUseCase(store, resolver);
+    List<WarehouseEvent> events = new ArrayList<>();
+    CreateWarehouseUseCase useCase = new CreateWarehouseUseCase(store, resolver, events::add);
 
     Warehouse warehouse = new Warehouse();
     warehouse.businessUnitCode = " BU1 ";
@@ -39,6 +41,10 @@ class CreateWarehouseUseCaseTest {
     assertEquals("NYC", created.location);
     assertNotNull(created.createdAt);
     assertNull(created.archivedAt);
+    assertEquals(1, events.size());
+    assertEquals(WarehouseEvent.Type.CREATED, events.get(0).type());
+    assertEquals("BU1", events.get(0).businessUnitCode());
+    assertEquals(created.createdAt, events.get(0).occurredAt());
   }
 
   @Test
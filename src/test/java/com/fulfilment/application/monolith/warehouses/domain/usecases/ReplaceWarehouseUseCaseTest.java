@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.ws.rs.WebApplicationException;
@@ -37,7 +38,8 @@ class ReplaceWarehouseUseCaseTest {
         Map.of("LOC1", new Location("LOC1", 5, 500))
     );
 
-    ReplaceWarehouseUseCase useCase = new ReplaceWarehouseUseCase(store, resolver);
+    List<WarehouseEvent> events = new ArrayList<>();
+    ReplaceWarehouseUseCase useCase = new ReplaceWarehouseUseCase(store, resolver, events::add);
 
     Warehouse replacement = new Warehouse();
     replacement.businessUnitCode = "BU1";
@@ -52,6 +54,9 @@ class ReplaceWarehouseUseCaseTest {
     assertEquals(1, store.created.size());
     assertEquals("BU1", store.created.get(0).businessUnitCode);
     assertEquals("LOC1", store.created.get(0).location);
+    assertEquals(1, events.size());
+    assertEquals(WarehouseEvent.Type.REPLACED, events.get(0).type());
+    assertEquals(120, events.get(0).capacity());
   }
 
   @Test
@@ -499,6 +504,66 @@ class ReplaceWarehouseUseCaseTest {
     assertEquals("BU1", store.created.get(0).businessUnitCode);
   }
 
+  @Test
+  void rejectsWhenExpectedVersionDoesNotMatch() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    Warehouse current = new Warehouse();
+    current.businessUnitCode = "BU1";
+    current.location = "LOC1";
+    current.capacity = 100;
+    current.stock = 10;
+    current.version = 3L;
+    store.warehouses.add(current);
+
+    ReplaceWarehouseUseCase useCase = new ReplaceWarehouseUseCase(
+        store,
+        new MapLocationResolver(Map.of("LOC1", new Location("LOC1", 5, 500)))
+    );
+
+    Warehouse replacement = new Warehouse();
+    replacement.businessUnitCode = "BU1";
+    replacement.location = "LOC1";
+    replacement.capacity = 120;
+    replacement.stock = 10;
+    replacement.version = 2L;
+
+    WebApplicationException exception = assertThrows(WebApplicationException.class,
+        () -> useCase.replace(replacement));
+
+    assertEquals(412, exception.getResponse().getStatus());
+    assertEquals(0, store.updated.size());
+    assertEquals(0, store.created.size());
+  }
+
+  @Test
+  void continuesVersionLineageWhenExpectedVersionMatches() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    Warehouse current = new Warehouse();
+    current.businessUnitCode = "BU1";
+    current.location = "LOC1";
+    current.capacity = 100;
+    current.stock = 10;
+    current.version = 3L;
+    store.warehouses.add(current);
+
+    ReplaceWarehouseUseCase useCase = new ReplaceWarehouseUseCase(
+        store,
+        new MapLocationResolver(Map.of("LOC1", new Location("LOC1", 5, 500)))
+    );
+
+    Warehouse replacement = new Warehouse();
+    replacement.businessUnitCode = "BU1";
+    replacement.location = "LOC1";
+    replacement.capacity = 120;
+    replacement.stock = 10;
+    replacement.version = 3L;
+
+    useCase.replace(replacement);
+
+    assertEquals(3L, store.updated.get(0).version);
+    assertEquals(4L, store.created.get(0).version);
+  }
+
   private static final class MapLocationResolver implements LocationResolver {
 
     private final Map<String, Location> locations;